@@ -0,0 +1,38 @@
+package com.fusionfx.monolith.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Recorded broker responses and an ObjectMapper configured like the one WebFlux decodes them with.
+ */
+final class Fixtures {
+
+    static final String TRADELOCKER_CONFIG = "tradelocker-config.json";
+    static final String TRADELOCKER_STATE = "tradelocker-state.json";
+    static final String DXTRADE_METRICS = "dxtrade-metrics.json";
+    static final String METAAPI_ACCOUNT_INFORMATION = "metaapi-account-information.json";
+
+    private Fixtures() {
+    }
+
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static byte[] load(final String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
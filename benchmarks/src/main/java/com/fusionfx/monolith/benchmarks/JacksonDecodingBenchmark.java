@@ -0,0 +1,69 @@
+package com.fusionfx.monolith.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fusionfx.monolith.dto.dxtrade.MetricsResponseDto;
+import com.fusionfx.monolith.dto.metatrader.AccountDetailsDto;
+import com.fusionfx.monolith.dto.tradelocker.AccountDetailsConfigDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of the broker responses from bytes, as the WebFlux Jackson decoder does on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JacksonDecodingBenchmark {
+
+    private ObjectReader metricsReader;
+    private ObjectReader configReader;
+    private ObjectReader accountInformationReader;
+    private ObjectReader stateReader;
+
+    private byte[] dxTradeMetrics;
+    private byte[] tradeLockerConfig;
+    private byte[] tradeLockerState;
+    private byte[] metaApiAccountInformation;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        metricsReader = objectMapper.readerFor(MetricsResponseDto.class);
+        configReader = objectMapper.readerFor(AccountDetailsConfigDto.class);
+        accountInformationReader = objectMapper.readerFor(AccountDetailsDto.class);
+        stateReader = objectMapper.readerFor(Map.class);
+
+        dxTradeMetrics = Fixtures.load(Fixtures.DXTRADE_METRICS);
+        tradeLockerConfig = Fixtures.load(Fixtures.TRADELOCKER_CONFIG);
+        tradeLockerState = Fixtures.load(Fixtures.TRADELOCKER_STATE);
+        metaApiAccountInformation = Fixtures.load(Fixtures.METAAPI_ACCOUNT_INFORMATION);
+    }
+
+    @Benchmark
+    public MetricsResponseDto dxTradeMetrics() throws IOException {
+        return metricsReader.readValue(dxTradeMetrics);
+    }
+
+    @Benchmark
+    public AccountDetailsConfigDto tradeLockerConfig() throws IOException {
+        return configReader.readValue(tradeLockerConfig);
+    }
+
+    @Benchmark
+    public Map<?, ?> tradeLockerState() throws IOException {
+        return stateReader.readValue(tradeLockerState);
+    }
+
+    @Benchmark
+    public AccountDetailsDto metaApiAccountInformation() throws IOException {
+        return accountInformationReader.readValue(metaApiAccountInformation);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.fusionfx.monolith.benchmarks;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.model.TokenInfo;
+import com.fusionfx.monolith.model.TokenKey;
+import com.fusionfx.monolith.service.auth.BrokerTokenStore;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The token lookup every broker call starts with: a BrokerTokenStore hit plus the expiry checks of getValidToken.
+ * <p>
+ * The {@code baseline*} methods reproduce the previous lookup for comparison: the per-user {@code HashMap} of
+ * tokens read from the Spring {@code userTokens} Caffeine cache, then the account's token from that map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TokenStoreBenchmark {
+
+    @Param({"1000", "100000"})
+    private int accounts;
+
+    private BrokerTokenStore brokerTokenStore;
+    private TokenKey[] keys;
+    private long refreshAheadMillis;
+    private Cache userTokens;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        brokerTokenStore = new BrokerTokenStore(appProperties, new SimpleMeterRegistry());
+        refreshAheadMillis = appProperties.getBrokerTokens().getRefreshAhead().toMillis();
+
+        userTokens = new CaffeineCache("userTokens", Caffeine.newBuilder()
+                .expireAfterWrite(20, TimeUnit.DAYS)
+                .maximumSize(100000)
+                .build());
+
+        keys = new TokenKey[accounts];
+        long expiryTime = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < accounts; i++) {
+            keys[i] = new TokenKey(Platform.TRADELOCKER, "user-" + (i / 4), String.valueOf(1_000_000 + i));
+            TokenInfo tokenInfo = TokenInfo.builder()
+                    .accessToken("access-" + i)
+                    .refreshToken("refresh-" + i)
+                    .expiryTime(expiryTime)
+                    .build();
+            brokerTokenStore.put(keys[i], tokenInfo);
+            baselineTokenMap(keys[i].getUserId()).put(keys[i].getAccountNumber(), tokenInfo);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String getValidToken() {
+        return lookup();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String getValidTokenContended() {
+        return lookup();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String baselineGetValidToken() {
+        return baselineLookup();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String baselineGetValidTokenContended() {
+        return baselineLookup();
+    }
+
+    private String lookup() {
+        TokenInfo tokenInfo = brokerTokenStore.get(keys[ThreadLocalRandom.current().nextInt(accounts)]);
+        if (tokenInfo == null || tokenInfo.isExpired() || tokenInfo.isExpiringWithin(refreshAheadMillis)) {
+            return null;
+        }
+        return tokenInfo.getAccessToken();
+    }
+
+    private String baselineLookup() {
+        TokenKey key = keys[ThreadLocalRandom.current().nextInt(accounts)];
+        TokenInfo tokenInfo = baselineTokenMap(key.getUserId()).get(key.getAccountNumber());
+        if (tokenInfo == null || tokenInfo.isExpired()) {
+            return null;
+        }
+        return tokenInfo.getAccessToken();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, TokenInfo> baselineTokenMap(final String userId) {
+        Map<String, TokenInfo> tokenMap = userTokens.get(userId, HashMap.class);
+        if (tokenMap == null) {
+            tokenMap = new HashMap<>();
+            userTokens.put(userId, tokenMap);
+        }
+        return tokenMap;
+    }
+
+}
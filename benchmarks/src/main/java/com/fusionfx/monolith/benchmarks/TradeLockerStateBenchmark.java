@@ -0,0 +1,122 @@
+package com.fusionfx.monolith.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fusionfx.monolith.dto.tradelocker.AccountDetailsConfigDto;
+import com.fusionfx.monolith.model.TradeLockerAccountState;
+import com.fusionfx.monolith.model.TradeLockerColumnLayout;
+import com.fusionfx.monolith.service.data.MarginCalculator;
+import com.fusionfx.monolith.service.data.TradeLockerStateDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-refresh CPU work of a TradeLocker account: decoding the /state body into a row, reading it through the
+ * column layout and computing the margin level.
+ * <p>
+ * The {@code baseline*} methods reproduce the previous implementation for comparison: the body decoded into a
+ * {@code Map} of boxed {@code List<Double>}, copied into a {@code HashMap} by column id, and the margin level computed
+ * with {@code BigDecimal}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TradeLockerStateBenchmark {
+
+    private static final int LEVERAGE = 100;
+
+    private TradeLockerColumnLayout layout;
+    private byte[] stateBody;
+    private double[] accountDetailsData;
+    private TradeLockerAccountState accountState;
+    private MarginCalculator marginCalculator;
+    private ObjectMapper objectMapper;
+    private List<AccountDetailsConfigDto.Config.Column> columns;
+    private Map<String, Object> mappedAccountDetails;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Fixtures.objectMapper();
+        AccountDetailsConfigDto config = objectMapper.readValue(Fixtures.load(Fixtures.TRADELOCKER_CONFIG), AccountDetailsConfigDto.class);
+        layout = TradeLockerColumnLayout.from(config);
+        columns = config.getD().getAccountDetailsConfig().getColumns();
+
+        stateBody = Fixtures.load(Fixtures.TRADELOCKER_STATE);
+        accountDetailsData = TradeLockerStateDecoder.decode(stateBody);
+        accountState = layout.toAccountState(accountDetailsData);
+        marginCalculator = new MarginCalculator();
+        mappedAccountDetails = baselineDecodeState();
+    }
+
+    @Benchmark
+    public double[] decodeState() {
+        return TradeLockerStateDecoder.decode(stateBody);
+    }
+
+    @Benchmark
+    public TradeLockerAccountState toAccountState() {
+        return layout.toAccountState(accountDetailsData);
+    }
+
+    @Benchmark
+    public Double marginLevel() {
+        return marginLevel(accountState);
+    }
+
+    @Benchmark
+    public Double decodeStateAndComputeMarginLevel() {
+        return marginLevel(layout.toAccountState(TradeLockerStateDecoder.decode(stateBody)));
+    }
+
+    @Benchmark
+    public Map<String, Object> baselineDecodeState() throws IOException {
+        return baselineMap(stateBody);
+    }
+
+    @Benchmark
+    public Double baselineMarginLevel() {
+        return baselineMarginLevel(mappedAccountDetails);
+    }
+
+    @Benchmark
+    public Double baselineDecodeStateAndComputeMarginLevel() throws IOException {
+        return baselineMarginLevel(baselineMap(stateBody));
+    }
+
+    private Double marginLevel(final TradeLockerAccountState state) {
+        double usedMargin = marginCalculator.tradeLockerUsedMargin(state.getMaintMarginReq(), LEVERAGE);
+        return marginCalculator.marginLevel(state.getProjectedBalance(), usedMargin);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> baselineMap(final byte[] body) throws IOException {
+        Map<String, Object> stateResponse = objectMapper.readValue(body, Map.class);
+        List<Double> accountDetailsData = (List<Double>) ((Map<String, Object>) stateResponse.get("d")).get("accountDetailsData");
+
+        Map<String, Object> mapped = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            mapped.put(columns.get(i).getId(), accountDetailsData.get(i));
+        }
+        return mapped;
+    }
+
+    // Equity over used margin (maintenance requirement / leverage), both divisions at ten decimals
+    private static Double baselineMarginLevel(final Map<String, Object> accountState) {
+        BigDecimal equity = BigDecimal.valueOf(((Number) accountState.get("projectedBalance")).doubleValue());
+        BigDecimal maintMarginReq = BigDecimal.valueOf(((Number) accountState.get("maintMarginReq")).doubleValue());
+        BigDecimal leverage = BigDecimal.valueOf(LEVERAGE);
+
+        BigDecimal marginLevel = equity.divide(maintMarginReq.divide(leverage, 10, RoundingMode.HALF_UP), 10, RoundingMode.HALF_UP);
+        return marginLevel.doubleValue();
+    }
+
+}
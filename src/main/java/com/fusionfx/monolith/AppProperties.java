@@ -1,5 +1,10 @@
 package com.fusionfx.monolith;
 
+import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.enums.ExecutionMode;
+import com.fusionfx.monolith.enums.NumberMode;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.enums.Upstream;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -8,6 +13,10 @@ import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.data.mongodb.core.query.Meta;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @Component
@@ -20,6 +29,48 @@ public class AppProperties {
     @NestedConfigurationProperty
     private final MetaApi metaApi = new MetaApi();
 
+    @NestedConfigurationProperty
+    private final Http http = new Http();
+
+    @NestedConfigurationProperty
+    private final BrokerTokens brokerTokens = new BrokerTokens();
+
+    @NestedConfigurationProperty
+    private final TradeLocker tradeLocker = new TradeLocker();
+
+    @NestedConfigurationProperty
+    private final CTrader ctrader = new CTrader();
+
+    @NestedConfigurationProperty
+    private final MatchTrader matchTrader = new MatchTrader();
+
+    @NestedConfigurationProperty
+    private final Snapshot snapshot = new Snapshot();
+
+    @NestedConfigurationProperty
+    private final Stream stream = new Stream();
+
+    @NestedConfigurationProperty
+    private final Refresh refresh = new Refresh();
+
+    @NestedConfigurationProperty
+    private final History history = new History();
+
+    @NestedConfigurationProperty
+    private final Json json = new Json();
+
+    @NestedConfigurationProperty
+    private final AccountCache accountCache = new AccountCache();
+
+    @NestedConfigurationProperty
+    private final Blocking blocking = new Blocking();
+
+    @NestedConfigurationProperty
+    private final Books books = new Books();
+
+    @NestedConfigurationProperty
+    private final Metrics metrics = new Metrics();
+
     @Getter
     @Setter
     public static class Auth0 {
@@ -28,12 +79,204 @@ public class AppProperties {
         private String audience;
         private String connection;
         private String clientSecret;
+        private Duration jwksRefreshInterval = Duration.ofMinutes(10);          // Interval of the background JWKS refresh
+        private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);       // Min time between refreshes caused by an unknown key id
+        private long jwtCacheMaximumSize = 100_000;                             // Max verified bearer tokens held
+        private Duration managementTokenRefreshAhead = Duration.ofMinutes(10);  // Refresh the Management API token this long before expiry
+        private Duration managementTokenRetryInterval = Duration.ofSeconds(30); // Retry interval of a failed token refresh
     }
 
     @Getter
     @Setter
     public static class MetaApi {
         private String apiKey;
+        private String clientApiUrl = "https://mt-client-api-v1.london.agiliumtrade.ai";                    // Account information
+        private String provisioningApiUrl = "https://mt-provisioning-api-v1.agiliumtrade.agiliumtrade.ai";  // Account provisioning
+        private String profileApiUrl = "https://profile-api-v1.agiliumtrade.agiliumtrade.ai";               // Provisioning profiles
+        private boolean streamingEnabled = false;                           // Serve account state from streaming connections (off until verified against the published SDK)
+        private Duration streamingIdleTimeout = Duration.ofMinutes(5);      // Close connections this long after their last subscriber left
+        private Duration streamingSyncTimeout = Duration.ofSeconds(60);     // Max time to connect and synchronize
+        private boolean restPositionCount = false;                          // Count positions over REST when no streaming connection is open (one extra call per refresh)
+    }
+
+    @Getter
+    @Setter
+    public static class Books {
+        private Duration minRefreshInterval = Duration.ofSeconds(1);  // Requests within this interval are served from the book
+        private int retainedVersions = 100;                           // Versions a client may lag behind before it gets a snapshot
+        private Duration idleTimeout = Duration.ofMinutes(10);        // Books not requested for this long are dropped
+        private long maximumSize = 10_000;                            // Max accounts with books held
+    }
+
+    @Getter
+    @Setter
+    public static class Blocking {
+        private ExecutionMode mode = ExecutionMode.VIRTUAL;  // Threads that run blocking SDK calls
+        private int maxThreads = 64;                         // Max platform threads in BOUNDED_ELASTIC mode
+        private int maxQueuedTasks = 10_000;                 // Max calls waiting for a thread in BOUNDED_ELASTIC mode
+    }
+
+    @Getter
+    @Setter
+    public static class AccountCache {
+        private Duration ttl = Duration.ofMinutes(5);  // Max time a decrypted trade account is kept
+        private long maximumSize = 10_000;             // Max decrypted trade accounts held
+    }
+
+    @Getter
+    @Setter
+    public static class Json {
+        private NumberMode numberMode = NumberMode.PLAIN;  // How doubles are written to API responses
+        private int maxFractionDigits = 10;                // Fraction digits kept in PLAIN mode
+    }
+
+    @Getter
+    @Setter
+    public static class History {
+        private boolean enabled = true;                              // Record account snapshots to MongoDB
+        private int batchSize = 500;                                 // Max snapshots per bulk insert
+        private Duration flushInterval = Duration.ofSeconds(2);      // Max time a snapshot waits for its bulk insert
+        private int bufferCapacity = 10_000;                         // Max snapshots waiting; newer ones are dropped
+        private Duration rawRetention = Duration.ofDays(14);         // TTL of raw snapshots
+        private Duration minuteRetention = Duration.ofDays(120);     // TTL of 1-minute rollups
+        private Duration hourRetention = Duration.ofDays(730);       // TTL of 1-hour rollups
+        private Duration dayRetention;                               // TTL of 1-day rollups, kept forever when unset
+        private Duration rollupInterval = Duration.ofMinutes(1);     // Interval at which rollups are recomputed
+    }
+
+    @Getter
+    @Setter
+    public static class Refresh {
+        private boolean enabled = true;                              // Refresh recently used trade accounts in the background
+        private Duration tick = Duration.ofSeconds(1);               // Interval at which due accounts are picked
+        private Duration activeInterval = Duration.ofSeconds(5);     // Refresh interval of accounts with open positions
+        private Duration idleInterval = Duration.ofSeconds(60);      // Refresh interval of accounts without open positions
+        private double jitter = 0.2;                                 // Random +/- fraction applied to every interval
+        private Duration timeout = Duration.ofSeconds(10);           // Max duration of a single refresh
+        private int maxInFlight = 64;                                // Max refreshes running at once across platforms
+        private int defaultBudget = 10;                              // Max refreshes started per tick per platform
+        private Map<Platform, Integer> platformBudgets = new EnumMap<>(Platform.class);
+        private Duration maxSnapshotAge = Duration.ofSeconds(90);    // Max age of a snapshot served to user requests
+        private Duration activityTimeout = Duration.ofMinutes(10);   // Drop accounts not requested or streamed for this long
+
+        public int budget(final Platform platform) {
+            return platformBudgets.getOrDefault(platform, defaultBudget);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+        private Duration pollInterval = Duration.ofSeconds(5);       // Background refresh interval of streamed accounts
+        private Duration idleGracePeriod = Duration.ofSeconds(10);   // Keep following an account this long after the last subscriber left
+        private Duration keepAliveInterval = Duration.ofSeconds(15); // Interval of SSE keep-alive comments
+        private Duration accountsRefreshInterval = Duration.ofSeconds(30); // Interval at which a stream picks up added and deleted accounts
+    }
+
+    @Getter
+    @Setter
+    public static class Snapshot {
+        private int concurrency = 8;                              // Max broker calls in flight per snapshot
+        private Duration accountTimeout = Duration.ofSeconds(5);  // Per-account deadline before it is reported unavailable
+    }
+
+    @Getter
+    @Setter
+    public static class TradeLocker {
+        private String liveBaseUrl = "https://live.tradelocker.com/backend-api";  // Base URL of LIVE accounts
+        private String demoBaseUrl = "https://demo.tradelocker.com/backend-api";  // Base URL of DEMO accounts
+        private Duration configTtl = Duration.ofHours(24);         // Max age of a cached /trade/config layout
+        private Duration configRefreshAfter = Duration.ofHours(1); // Age after which the layout is refreshed in the background
+
+        public String baseUrl(final AccountType accountType) {
+            return accountType == AccountType.LIVE ? liveBaseUrl : demoBaseUrl;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class CTrader {
+        private String clientId;                                      // Open API application credential
+        private String clientSecret;
+        private String liveHost = "live.ctraderapi.com";              // Host of LIVE accounts
+        private String demoHost = "demo.ctraderapi.com";              // Host of DEMO accounts
+        private int port = 5035;                                      // Protobuf port
+        private boolean tls = true;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration requestTimeout = Duration.ofSeconds(10);     // Max wait for the response to a request
+        private Duration heartbeatInterval = Duration.ofSeconds(10);  // Heartbeat after this long without writes
+        private int maxFrameLength = 4 * 1024 * 1024;                 // Max size of one message; symbol lists are large
+        private Duration pnlRefreshInterval = Duration.ofSeconds(1);  // Min time between unrealized P&L requests per account
+        private Duration idleTimeout = Duration.ofMinutes(15);        // Log out accounts that were not read for this long
+
+        public String host(final AccountType accountType) {
+            return accountType == AccountType.LIVE ? liveHost : demoHost;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class MatchTrader {
+        private Duration sessionTtl = Duration.ofMinutes(15);  // Max age of a broker login before it is renewed
+        private long maximumSessions = 10_000;                 // Max broker logins held
+    }
+
+    @Getter
+    @Setter
+    public static class BrokerTokens {
+        private Duration refreshAhead = Duration.ofMinutes(5); // A request this long before expiry refreshes in the background
+        private long maximumSize = 100_000;                    // Max tokens held across all users and platforms
+        private Duration refreshTokenTtl = Duration.ofDays(7); // Lifetime of a refresh token the broker did not date
+    }
+
+    @Getter
+    @Setter
+    public static class Http {
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration callTimeout = Duration.ofSeconds(10);       // Max duration of a broker call made without a caller deadline
+        private Duration requestDeadline = Duration.ofSeconds(8);    // Deadline of a user request, carried down to every broker call
+        private Map<Upstream, Pool> pools = new EnumMap<>(Upstream.class);
+        private Map<Upstream, Resilience> resilience = new EnumMap<>(Upstream.class);
+
+        public Pool pool(final Upstream upstream) {
+            return pools.computeIfAbsent(upstream, key -> new Pool());
+        }
+
+        public Resilience resilience(final Upstream upstream) {
+            return resilience.computeIfAbsent(upstream, key -> new Resilience());
+        }
+
+        @Getter
+        @Setter
+        public static class Pool {
+            private int maxConnections = 100;                                // Max connections per remote host
+            private int pendingAcquireMaxCount = 500;                        // Max requests queued for a connection
+            private Duration pendingAcquireTimeout = Duration.ofSeconds(10); // Max wait for a pooled connection
+            private Duration maxIdleTime = Duration.ofSeconds(30);           // Idle connections are closed after this
+            private Duration maxLifeTime = Duration.ofMinutes(10);           // Connections are recycled after this
+            private Duration evictInBackground = Duration.ofSeconds(30);     // Interval of the background eviction
+            private boolean http2 = true;                                    // Offer HTTP/2 via ALPN on https hosts
+        }
+
+        // Circuit breaker and bulkhead of each host of the upstream
+        @Getter
+        @Setter
+        public static class Resilience {
+            private float failureRateThreshold = 50;                            // Percentage of failed calls that opens the breaker
+            private float slowCallRateThreshold = 80;                           // Percentage of slow calls that opens the breaker
+            private Duration slowCallDurationThreshold = Duration.ofSeconds(3); // Calls slower than this count as slow
+            private int slidingWindowSize = 50;                                 // Calls the rates are computed over
+            private int minimumNumberOfCalls = 20;                              // Calls needed before the breaker can open
+            private Duration waitDurationInOpenState = Duration.ofSeconds(30);  // Time an open breaker rejects calls before probing
+            private int permittedCallsInHalfOpenState = 5;                      // Probe calls of a half-open breaker
+            private int maxConcurrentCalls = 100;                               // Max calls in flight per host; more are rejected
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+        private String scrapeToken;                                  // Bearer token of Prometheus scrapes; blank closes /actuator/prometheus
     }
 
 }
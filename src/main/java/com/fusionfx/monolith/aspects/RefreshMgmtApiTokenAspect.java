@@ -1,30 +1,42 @@
 package com.fusionfx.monolith.aspects;
 
-import com.auth0.client.mgmt.ManagementAPI;
-import com.auth0.exception.Auth0Exception;
-import com.fusionfx.monolith.security.token.TokenCacheHelper;
+import com.fusionfx.monolith.security.token.ManagementTokenService;
 import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Aspect
 @Component
 public class RefreshMgmtApiTokenAspect {
 
-    private final ManagementAPI managementAPI;
-    private final TokenCacheHelper tokenCacheHelper;
+    private final ManagementTokenService managementTokenService;
 
-    public RefreshMgmtApiTokenAspect(final TokenCacheHelper tokenCacheHelper,
-                                     final ManagementAPI managementAPI) {
-        this.tokenCacheHelper = tokenCacheHelper;
-        this.managementAPI = managementAPI;
+    public RefreshMgmtApiTokenAspect(final ManagementTokenService managementTokenService) {
+        this.managementTokenService = managementTokenService;
     }
 
-    @Before("@annotation(com.fusionfx.monolith.abstractions.RefreshManagementApiToken)")
-    public void refreshManagementApiToken() throws Auth0Exception {
-        tokenCacheHelper.validateUnexpiredToken(managementAPI);
+    // Run the handler only once the Management API token is valid, without blocking the event loop; the handler may
+    // start its calls while building its Mono, so it is not invoked before the token check
+    @Around("@annotation(com.fusionfx.monolith.abstractions.RefreshManagementApiToken)")
+    public Object refreshManagementApiToken(final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Mono.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType())) {
+            return joinPoint.proceed();
+        }
+        return managementTokenService.ensureValidToken()
+                .then(Mono.defer(() -> proceed(joinPoint)));
+    }
+
+    private static Mono<?> proceed(final ProceedingJoinPoint joinPoint) {
+        try {
+            return (Mono<?>) joinPoint.proceed();
+        } catch (Throwable error) {
+            return Mono.error(error);
+        }
     }
 
 }
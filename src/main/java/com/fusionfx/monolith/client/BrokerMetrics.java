@@ -0,0 +1,84 @@
+package com.fusionfx.monolith.client;
+
+import com.fusionfx.monolith.enums.Upstream;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latency, retry and token metrics of the broker integrations, tagged by upstream and operation.
+ * <p>
+ * Timers cover the whole operation as seen by the caller, including token acquisition and retries, while
+ * {@code http.client.requests} and {@code mongodb.driver.commands} cover the individual HTTP calls and Mongo commands.
+ */
+@Component
+@RequiredArgsConstructor
+public class BrokerMetrics {
+
+    private static final String REQUESTS = "fusion.broker.requests";
+    private static final String RETRIES = "fusion.broker.retries";
+    private static final String TOKENS = "fusion.broker.tokens";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Time a broker operation; the timer is started on subscription and tagged with its outcome.
+     *
+     * @param upstream  The broker the operation talks to.
+     * @param operation A short, low-cardinality name of the operation, e.g. "account-state".
+     * @param mono      The operation.
+     * @return The operation, timed.
+     */
+    public <T> Mono<T> time(final Upstream upstream, final String operation, final Mono<T> mono) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            return mono
+                    .doOnSuccess(result -> stop(sample, upstream, operation, "success", "none"))
+                    .doOnError(error -> stop(sample, upstream, operation, "error", error.getClass().getSimpleName()))
+                    .doOnCancel(() -> stop(sample, upstream, operation, "cancelled", "none"));
+        });
+    }
+
+    // Count a retry of a failed broker call
+    public void retry(final Upstream upstream, final String operation) {
+        Counter.builder(RETRIES)
+                .tag("upstream", upstream.name().toLowerCase())
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Count a broker token lookup.
+     *
+     * @param upstream The broker the token belongs to.
+     * @param result   hit, miss, refresh-ahead, refresh or login.
+     */
+    public void token(final Upstream upstream, final String result) {
+        Counter.builder(TOKENS)
+                .tag("upstream", upstream.name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void stop(final Timer.Sample sample,
+                      final Upstream upstream,
+                      final String operation,
+                      final String outcome,
+                      final String exception) {
+        sample.stop(Timer.builder(REQUESTS)
+                .tag("upstream", upstream.name().toLowerCase())
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+}
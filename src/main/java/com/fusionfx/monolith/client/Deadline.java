@@ -0,0 +1,66 @@
+package com.fusionfx.monolith.client;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The point in time by which a caller needs its answer, carried in the Reactor context.
+ * <p>
+ * Every broker call below {@link #within(Duration)} sees the deadline through {@link UpstreamResilience}: it is
+ * timed out at the remaining time and not started at all once the deadline passed, so token acquisition, data calls
+ * and their retries never outlive the caller. Nested deadlines keep the earlier one.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Deadline {
+
+    private static final Class<Deadline> CONTEXT_KEY = Deadline.class;
+
+    private final long expiresAtNanos;
+
+    public static Deadline after(final Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return The deadline of the subscriber, if it set one.
+     */
+    public static Optional<Deadline> from(final ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /**
+     * Run a Mono under a deadline: it fails with a {@link java.util.concurrent.TimeoutException} when the deadline
+     * passes, and every broker call it makes is bounded by the same deadline.
+     *
+     * @param timeout Time from subscription to the deadline; an earlier deadline of the subscriber wins.
+     * @return A function to {@link Mono#transform} the Mono with.
+     */
+    public static <T> Function<Mono<T>, Mono<T>> within(final Duration timeout) {
+        return mono -> Mono.deferContextual(context -> {
+            Deadline deadline = after(timeout);
+            Deadline effective = from(context).filter(outer -> outer.expiresAtNanos < deadline.expiresAtNanos).orElse(deadline);
+
+            return mono
+                    .timeout(effective.remaining())
+                    .contextWrite(inner -> inner.put(CONTEXT_KEY, effective));
+        });
+    }
+
+    /**
+     * @return The time left until the deadline, zero once it passed.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(expiresAtNanos - System.nanoTime(), 0));
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.fusionfx.monolith.client;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.enums.Upstream;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker, bulkhead and deadline of every broker call, one breaker and bulkhead per upstream host.
+ * <p>
+ * A host that keeps failing or answering slowly opens its breaker and is rejected without a network call for
+ * {@code wait-duration-in-open-state}; a host that already has {@code max-concurrent-calls} in flight rejects further
+ * calls instead of queueing them. Both fail fast with {@link #isRejected rejection} errors, so one slow broker cannot
+ * hold connections, event-loop time and retries on behalf of every user. A call lasts until its response body was
+ * read, so slow bodies hold their slot and count towards the slow-call rate. 5xx responses, connect errors and
+ * timeouts count as failures; 4xx responses are the caller's problem and do not.
+ * <p>
+ * Breaker states and bulkhead usage are exported as {@code resilience4j.circuitbreaker.*} and
+ * {@code resilience4j.bulkhead.*} meters tagged with the {@code upstream:host} name.
+ */
+@Slf4j
+@Component
+public class UpstreamResilience {
+
+    private final AppProperties appProperties;
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+
+    public UpstreamResilience(final AppProperties appProperties, final MeterRegistry meterRegistry) {
+        this.appProperties = appProperties;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    /**
+     * Build the filter guarding the calls of one WebClient.
+     *
+     * @param upstream The upstream the base URL belongs to (selects the settings).
+     * @param baseUrl  The base URL; its host selects the breaker and bulkhead.
+     * @return A filter applying the caller's {@link Deadline}, the bulkhead and the circuit breaker.
+     */
+    public ExchangeFilterFunction filter(final Upstream upstream, final String baseUrl) {
+        String name = upstream.name().toLowerCase() + ":" + URI.create(baseUrl).getAuthority();
+        CircuitBreaker circuitBreaker = circuitBreaker(name, upstream);
+        Bulkhead bulkhead = bulkhead(name, upstream);
+
+        return (request, next) -> Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context).orElse(null);
+            if (deadline != null && deadline.isExpired()) {
+                return Mono.error(new TimeoutException("Deadline passed before calling " + name));
+            }
+            Duration timeout = deadline != null ? deadline.remaining() : appProperties.getHttp().getCallTimeout();
+
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            }
+            if (!bulkhead.tryAcquirePermission()) {
+                circuitBreaker.releasePermission();
+                return Mono.error(BulkheadFullException.createBulkheadFullException(bulkhead));
+            }
+
+            // The call lasts until its body was read: only then are the bulkhead slot and breaker permit released
+            var call = new Call(circuitBreaker, bulkhead);
+            var responded = new AtomicBoolean();
+            return next.exchange(request)
+                    .timeout(timeout)
+                    .flatMap(response -> response.statusCode().is5xxServerError()
+                            ? response.createException().flatMap(Mono::error)
+                            : Mono.just(response.mutate()
+                                    .body(body -> body
+                                            .doOnComplete(call::succeeded)
+                                            .doOnError(call::failed)
+                                            .doOnCancel(call::cancelled))
+                                    .build()))
+                    .doOnNext(response -> responded.set(true))
+                    .doOnError(call::failed)
+                    .doOnCancel(() -> {
+                        if (!responded.get()) {
+                            call.cancelled();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Retry transient broker failures with backoff. Rejections, 4xx responses and passed deadlines are not retried,
+     * and the caller's {@link Deadline} cancels any retry still pending when it passes.
+     */
+    public static RetryBackoffSpec retry(final long maxAttempts, final Duration minBackoff) {
+        return Retry.backoff(maxAttempts, minBackoff)
+                .filter(UpstreamResilience::isRetryable);
+    }
+
+    /**
+     * @return true if the call was rejected without reaching the broker: open breaker or full bulkhead.
+     */
+    public static boolean isRejected(final Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException;
+    }
+
+    private static boolean isRetryable(final Throwable error) {
+        if (isRejected(error) || error instanceof TimeoutException) {
+            return false;
+        }
+        return !(error instanceof WebClientResponseException response) || response.getStatusCode().is5xxServerError();
+    }
+
+    // Base URLs on the same host share the breaker created for the first one
+    private CircuitBreaker circuitBreaker(final String name, final Upstream upstream) {
+        return circuitBreakers.find(name).orElseGet(() -> createCircuitBreaker(name, upstream));
+    }
+
+    private CircuitBreaker createCircuitBreaker(final String name, final Upstream upstream) {
+        var settings = appProperties.getHttp().resilience(upstream);
+
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(name, CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                .recordException(error -> !(error instanceof WebClientResponseException response)
+                        || response.getStatusCode().is5xxServerError())
+                .build());
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("UpstreamResilience | {} | Circuit breaker {}", name, event.getStateTransition()));
+        return circuitBreaker;
+    }
+
+    private Bulkhead bulkhead(final String name, final Upstream upstream) {
+        return bulkheads.bulkhead(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(appProperties.getHttp().resilience(upstream).getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    // One permitted call: its outcome is recorded and its bulkhead slot released exactly once
+    @RequiredArgsConstructor
+    private static class Call {
+
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final long startedAt = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private void succeeded() {
+            if (finish()) {
+                circuitBreaker.onSuccess(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void failed(final Throwable error) {
+            if (finish()) {
+                circuitBreaker.onError(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS, error);
+            }
+        }
+
+        // Abandoned by the caller: neither a success nor a failure of the broker
+        private void cancelled() {
+            if (finish()) {
+                circuitBreaker.releasePermission();
+            }
+        }
+
+        private boolean finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            bulkhead.onComplete();
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.fusionfx.monolith.client;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.enums.Upstream;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out long-lived {@link WebClient}s keyed by upstream and base URL.
+ * <p>
+ * Every upstream gets its own pooled Reactor Netty {@link ConnectionProvider}, so connections (and their TLS
+ * sessions) are reused across requests instead of being re-established on every balance refresh. Every WebClient
+ * is guarded by the circuit breaker, bulkhead and deadline of its host ({@link UpstreamResilience}).
+ */
+@Slf4j
+@Component
+public class WebClientRegistry implements DisposableBean {
+
+    private final AppProperties appProperties;
+    private final UpstreamResilience upstreamResilience;
+    private final ObjectProvider<WebClient.Builder> webClientBuilders;
+    private final Map<Upstream, ConnectionProvider> connectionProviders = new EnumMap<>(Upstream.class);
+    private final ConcurrentMap<String, WebClient> webClients = new ConcurrentHashMap<>();
+
+    public WebClientRegistry(final AppProperties appProperties,
+                             final UpstreamResilience upstreamResilience,
+                             final ObjectProvider<WebClient.Builder> webClientBuilders) {
+        this.appProperties = appProperties;
+        this.upstreamResilience = upstreamResilience;
+        this.webClientBuilders = webClientBuilders;
+        for (Upstream upstream : Upstream.values()) {
+            connectionProviders.put(upstream, createConnectionProvider(upstream, appProperties.getHttp().pool(upstream)));
+        }
+    }
+
+    /**
+     * Get the shared WebClient for the given upstream and base URL, creating it on first use.
+     *
+     * @param upstream The upstream the base URL belongs to (selects the connection pool).
+     * @param baseUrl  The base URL all relative request URIs are resolved against.
+     * @return A long-lived WebClient bound to the base URL.
+     */
+    public WebClient get(final Upstream upstream, final String baseUrl) {
+        return webClients.computeIfAbsent(upstream.name() + " " + baseUrl, key -> createWebClient(upstream, baseUrl));
+    }
+
+    private WebClient createWebClient(final Upstream upstream, final String baseUrl) {
+        var pool = appProperties.getHttp().pool(upstream);
+
+        HttpClient httpClient = HttpClient.create(connectionProviders.get(upstream))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) appProperties.getHttp().getConnectTimeout().toMillis())
+                .compress(true);
+
+        // HTTP/2 is negotiated through ALPN, so it is only offered over TLS and falls back to HTTP/1.1
+        if (pool.isHttp2() && baseUrl.startsWith("https://")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        log.info("WebClientRegistry | Creating WebClient for {} at {}", upstream, baseUrl);
+
+        return webClientBuilders.getObject()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(upstreamResilience.filter(upstream, baseUrl))
+                .build();
+    }
+
+    private ConnectionProvider createConnectionProvider(final Upstream upstream, final AppProperties.Http.Pool pool) {
+        return ConnectionProvider.builder("fusion-" + upstream.name().toLowerCase())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true) // reactor.netty.connection.provider.* gauges, tagged with the pool name
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+    }
+
+}
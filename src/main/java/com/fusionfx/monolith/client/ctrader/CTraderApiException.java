@@ -0,0 +1,18 @@
+package com.fusionfx.monolith.client.ctrader;
+
+import lombok.Getter;
+
+/**
+ * An error response of the cTrader Open API, e.g. {@code CH_ACCESS_TOKEN_INVALID} or {@code ALREADY_SUBSCRIBED}.
+ */
+@Getter
+public class CTraderApiException extends IllegalStateException {
+
+    private final String errorCode;
+
+    public CTraderApiException(final String errorCode, final String description) {
+        super("cTrader " + errorCode + (description == null ? "" : ": " + description));
+        this.errorCode = errorCode;
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.fusionfx.monolith.client.ctrader;
+
+import com.fusionfx.monolith.AppProperties;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+import reactor.netty.NettyPipeline;
+import reactor.netty.tcp.TcpClient;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One long-lived cTrader Open API connection, authorized with the application credential and shared by every
+ * account on the same host.
+ * <p>
+ * Messages are length-prefixed protobuf envelopes ({@link ProtoMessage}). Requests are correlated with their
+ * responses by {@code clientMsgId}, so any number of requests can be in flight on the one socket; everything the
+ * server sends without a known id (spot and execution events) is published on {@link #events()}. A heartbeat is
+ * sent whenever nothing was written for {@code heartbeat-interval}, and the connection is dropped when nothing was
+ * received for three intervals. The connection is (re)opened by the next request after it closes; accounts must be
+ * authorized again on every new connection, which {@link #generation()} tells apart.
+ */
+@Slf4j
+public class CTraderSession {
+
+    private static final byte[] HEARTBEAT = OpenApiMessages.heartbeat().toByteArray();
+    private static final int LENGTH_FIELD_SIZE = 4;
+
+    private final String host;
+    private final int port;
+    private final String clientId;
+    private final String clientSecret;
+    private final AppProperties.CTrader properties;
+
+    private final AtomicLong nextClientMsgId = new AtomicLong();
+    private final AtomicLong generations = new AtomicLong();
+    private final ConcurrentMap<String, Sinks.One<ProtoMessage>> pending = new ConcurrentHashMap<>();
+    private final Sinks.Many<ProtoMessage> events = Sinks.many().multicast().directBestEffort();
+    private final AtomicReference<Mono<Connection>> connection = new AtomicReference<>();
+    private volatile Connection current;
+    private volatile long generation = -1;
+    private volatile boolean closed;
+
+    public CTraderSession(final String host, final int port, final AppProperties.CTrader properties) {
+        this.host = host;
+        this.port = port;
+        this.clientId = properties.getClientId();
+        this.clientSecret = properties.getClientSecret();
+        this.properties = properties;
+    }
+
+    /**
+     * Send a request and wait for its response, connecting and authorizing the application first if needed.
+     *
+     * @param message The request; its clientMsgId is assigned here.
+     * @return A Mono containing the response; a {@link CTraderApiException} if the server answered with an error.
+     */
+    public Mono<ProtoMessage> request(final ProtoMessage message) {
+        return Mono.defer(this::connection).flatMap(connection -> send(connection, message));
+    }
+
+    /**
+     * @return The messages the server pushed without a pending request: spot, execution and disconnect events.
+     */
+    public Flux<ProtoMessage> events() {
+        return events.asFlux();
+    }
+
+    /**
+     * @return A number that changes every time a new connection is opened; -1 while disconnected.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public void close() {
+        closed = true;
+        Connection connection = current;
+        if (connection != null) {
+            connection.dispose();
+        }
+        events.tryEmitComplete();
+    }
+
+    // Connect, sharing a running connect with concurrent callers
+    private Mono<Connection> connection() {
+        Mono<Connection> existing = connection.get();
+        if (existing != null) {
+            return existing;
+        }
+        if (closed) {
+            return Mono.error(new IllegalStateException("cTrader session to " + host + " is closed"));
+        }
+
+        var self = new AtomicReference<Mono<Connection>>();
+        Mono<Connection> connect = connect(self)
+                .doOnError(error -> {
+                    log.warn("CTrader | Session {} | Connect failed: {}", host, error.getMessage());
+                    connection.compareAndSet(self.get(), null);
+                })
+                .cache();
+        self.set(connect);
+
+        return connection.compareAndSet(null, connect) ? connect : connection();
+    }
+
+    private Mono<Connection> connect(final AtomicReference<Mono<Connection>> self) {
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        TcpClient client = TcpClient.create()
+                .host(host)
+                .port(port)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .doOnChannelInit((observer, channel, address) -> channel.pipeline()
+                        .addBefore(NettyPipeline.ReactiveBridge, "frameDecoder", new LengthFieldBasedFrameDecoder(
+                                properties.getMaxFrameLength(), 0, LENGTH_FIELD_SIZE, 0, LENGTH_FIELD_SIZE))
+                        .addBefore(NettyPipeline.ReactiveBridge, "frameEncoder", new LengthFieldPrepender(LENGTH_FIELD_SIZE))
+                        .addBefore(NettyPipeline.ReactiveBridge, "idleState", new IdleStateHandler(3 * heartbeatMillis, heartbeatMillis, 0, TimeUnit.MILLISECONDS))
+                        .addBefore(NettyPipeline.ReactiveBridge, "heartbeat", new HeartbeatHandler()));
+        if (properties.isTls()) {
+            client = client.secure();
+        }
+
+        return client.connect()
+                .flatMap(connection -> {
+                    connection.inbound().receive().asByteArray()
+                            .subscribe(this::dispatch,
+                                    error -> log.warn("CTrader | Session {} | Read failed: {}", host, error.getMessage()));
+                    connection.onDispose(() -> disconnected(connection, self.get()));
+
+                    return send(connection, OpenApiMessages.applicationAuth(clientId, clientSecret))
+                            .doOnError(error -> connection.dispose())
+                            .then(Mono.fromSupplier(() -> {
+                                current = connection;
+                                generation = generations.incrementAndGet();
+                                log.info("CTrader | Session {} | Connected, generation {}", host, generation);
+                                return connection;
+                            }));
+                });
+    }
+
+    private Mono<ProtoMessage> send(final Connection connection, final ProtoMessage message) {
+        String clientMsgId = Long.toString(nextClientMsgId.incrementAndGet());
+        Sinks.One<ProtoMessage> response = Sinks.one();
+        pending.put(clientMsgId, response);
+
+        connection.channel()
+                .writeAndFlush(Unpooled.wrappedBuffer(message.withClientMsgId(clientMsgId).toByteArray()))
+                .addListener(future -> {
+                    if (!future.isSuccess()) {
+                        fail(clientMsgId, future.cause());
+                    }
+                });
+
+        return response.asMono()
+                .timeout(properties.getRequestTimeout())
+                .doFinally(signal -> pending.remove(clientMsgId))
+                .flatMap(CTraderSession::checkError);
+    }
+
+    private void dispatch(final byte[] frame) {
+        ProtoMessage message = ProtoMessage.parse(frame);
+        if (message.getClientMsgId() != null) {
+            Sinks.One<ProtoMessage> response = pending.remove(message.getClientMsgId());
+            if (response != null) {
+                response.tryEmitValue(message);
+                return;
+            }
+        }
+
+        switch (message.getPayloadType()) {
+            case OpenApiMessages.HEARTBEAT_EVENT -> { } // Only resets the idle timer
+            case OpenApiMessages.ERROR_RES, OpenApiMessages.OA_ERROR_RES -> {
+                OpenApiMessages.Error error = OpenApiMessages.parseError(message);
+                log.warn("CTrader | Session {} | Unsolicited error {}: {}", host, error.getErrorCode(), error.getDescription());
+            }
+            default -> events.tryEmitNext(message);
+        }
+    }
+
+    private void disconnected(final Connection connection, final Mono<Connection> connect) {
+        if (current == connection) {
+            current = null;
+            generation = -1;
+        }
+        this.connection.compareAndSet(connect, null);
+
+        var error = new IllegalStateException("cTrader connection to " + host + " closed");
+        pending.keySet().forEach(clientMsgId -> fail(clientMsgId, error));
+        log.info("CTrader | Session {} | Disconnected", host);
+    }
+
+    private void fail(final String clientMsgId, final Throwable error) {
+        Sinks.One<ProtoMessage> response = pending.remove(clientMsgId);
+        if (response != null) {
+            response.tryEmitError(error);
+        }
+    }
+
+    private static Mono<ProtoMessage> checkError(final ProtoMessage message) {
+        if (message.getPayloadType() == OpenApiMessages.ERROR_RES || message.getPayloadType() == OpenApiMessages.OA_ERROR_RES) {
+            OpenApiMessages.Error error = OpenApiMessages.parseError(message);
+            return Mono.error(new CTraderApiException(error.getErrorCode(), error.getDescription()));
+        }
+        return Mono.just(message);
+    }
+
+    // Sends a heartbeat when nothing was written for an interval, closes the connection when nothing was read for three
+    private class HeartbeatHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void userEventTriggered(final ChannelHandlerContext ctx, final Object event) throws Exception {
+            if (event instanceof IdleStateEvent idle) {
+                if (idle.state() == IdleState.WRITER_IDLE) {
+                    ctx.writeAndFlush(Unpooled.wrappedBuffer(HEARTBEAT));
+                } else if (idle.state() == IdleState.READER_IDLE) {
+                    log.warn("CTrader | Session {} | No data received, closing", host);
+                    ctx.close();
+                }
+                return;
+            }
+            super.userEventTriggered(ctx, event);
+        }
+    }
+
+}
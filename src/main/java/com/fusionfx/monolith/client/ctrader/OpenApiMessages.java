@@ -0,0 +1,513 @@
+package com.fusionfx.monolith.client.ctrader;
+
+import com.fusionfx.monolith.enums.PositionSide;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The subset of the cTrader Open API messages used by the connector, encoded and decoded field by field.
+ * <p>
+ * Field numbers follow OpenApiCommonMessages.proto and OpenApiMessages.proto. Only the fields the connector reads
+ * are decoded; everything else is skipped, so newer server versions that add fields keep working.
+ */
+public final class OpenApiMessages {
+
+    // Payload types
+    public static final int ERROR_RES = 50;
+    public static final int HEARTBEAT_EVENT = 51;
+    public static final int APPLICATION_AUTH_REQ = 2100;
+    public static final int APPLICATION_AUTH_RES = 2101;
+    public static final int ACCOUNT_AUTH_REQ = 2102;
+    public static final int ACCOUNT_AUTH_RES = 2103;
+    public static final int SYMBOLS_LIST_REQ = 2114;
+    public static final int SYMBOLS_LIST_RES = 2115;
+    public static final int TRADER_REQ = 2121;
+    public static final int TRADER_RES = 2122;
+    public static final int RECONCILE_REQ = 2124;
+    public static final int RECONCILE_RES = 2125;
+    public static final int EXECUTION_EVENT = 2126;
+    public static final int SUBSCRIBE_SPOTS_REQ = 2127;
+    public static final int SUBSCRIBE_SPOTS_RES = 2128;
+    public static final int UNSUBSCRIBE_SPOTS_REQ = 2129;
+    public static final int UNSUBSCRIBE_SPOTS_RES = 2130;
+    public static final int SPOT_EVENT = 2131;
+    public static final int OA_ERROR_RES = 2142;
+    public static final int ACCOUNTS_TOKEN_INVALIDATED_EVENT = 2147;
+    public static final int CLIENT_DISCONNECT_EVENT = 2148;
+    public static final int ACCOUNT_LOGOUT_REQ = 2162;
+    public static final int ACCOUNT_LOGOUT_RES = 2163;
+    public static final int ACCOUNT_DISCONNECT_EVENT = 2164;
+    public static final int GET_POSITION_UNREALIZED_PNL_REQ = 2187;
+    public static final int GET_POSITION_UNREALIZED_PNL_RES = 2188;
+
+    // ProtoOAPositionStatus, ProtoOAOrderStatus and ProtoOATradeSide values
+    public static final int POSITION_STATUS_OPEN = 1;
+    public static final int ORDER_STATUS_ACCEPTED = 1;
+    private static final int TRADE_SIDE_SELL = 2;
+
+    private static final String[] ORDER_TYPES = {"", "MARKET", "LIMIT", "STOP", "STOP_LOSS_TAKE_PROFIT", "MARKET_RANGE", "STOP_LIMIT"};
+    private static final String[] ORDER_STATUSES = {"", "ACCEPTED", "FILLED", "REJECTED", "EXPIRED", "CANCELLED"};
+
+    private OpenApiMessages() {
+    }
+
+    // --- Requests ---
+
+    public static ProtoMessage heartbeat() {
+        return message(HEARTBEAT_EVENT, out -> { });
+    }
+
+    public static ProtoMessage applicationAuth(final String clientId, final String clientSecret) {
+        return message(APPLICATION_AUTH_REQ, out -> {
+            out.writeString(2, clientId);
+            out.writeString(3, clientSecret);
+        });
+    }
+
+    public static ProtoMessage accountAuth(final long ctidTraderAccountId, final String accessToken) {
+        return message(ACCOUNT_AUTH_REQ, out -> {
+            out.writeInt64(2, ctidTraderAccountId);
+            out.writeString(3, accessToken);
+        });
+    }
+
+    public static ProtoMessage traderRequest(final long ctidTraderAccountId) {
+        return message(TRADER_REQ, out -> out.writeInt64(2, ctidTraderAccountId));
+    }
+
+    public static ProtoMessage symbolsListRequest(final long ctidTraderAccountId) {
+        return message(SYMBOLS_LIST_REQ, out -> out.writeInt64(2, ctidTraderAccountId));
+    }
+
+    public static ProtoMessage reconcileRequest(final long ctidTraderAccountId) {
+        return message(RECONCILE_REQ, out -> out.writeInt64(2, ctidTraderAccountId));
+    }
+
+    public static ProtoMessage subscribeSpotsRequest(final long ctidTraderAccountId, final Collection<Long> symbolIds) {
+        return message(SUBSCRIBE_SPOTS_REQ, out -> {
+            out.writeInt64(2, ctidTraderAccountId);
+            for (long symbolId : symbolIds) {
+                out.writeInt64(3, symbolId);
+            }
+        });
+    }
+
+    public static ProtoMessage unsubscribeSpotsRequest(final long ctidTraderAccountId, final Collection<Long> symbolIds) {
+        return message(UNSUBSCRIBE_SPOTS_REQ, out -> {
+            out.writeInt64(2, ctidTraderAccountId);
+            for (long symbolId : symbolIds) {
+                out.writeInt64(3, symbolId);
+            }
+        });
+    }
+
+    public static ProtoMessage accountLogoutRequest(final long ctidTraderAccountId) {
+        return message(ACCOUNT_LOGOUT_REQ, out -> out.writeInt64(2, ctidTraderAccountId));
+    }
+
+    public static ProtoMessage unrealizedPnlRequest(final long ctidTraderAccountId) {
+        return message(GET_POSITION_UNREALIZED_PNL_REQ, out -> out.writeInt64(2, ctidTraderAccountId));
+    }
+
+    // --- Responses and events ---
+
+    public static Trader parseTrader(final ProtoMessage message) {
+        var trader = Trader.builder().moneyDigits(2);
+        read(message, (field, wireType, in) -> {
+            if (field != 3) {
+                return false;
+            }
+            readMessage(in, (traderField, traderWireType, traderIn) -> {
+                switch (traderField) {
+                    case 1 -> trader.ctidTraderAccountId(traderIn.readInt64());
+                    case 2 -> trader.balance(traderIn.readInt64());
+                    case 10 -> trader.leverageInCents(traderIn.readUInt32());
+                    case 16 -> trader.brokerName(traderIn.readString());
+                    case 20 -> trader.moneyDigits(traderIn.readUInt32());
+                    default -> {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            return true;
+        });
+        return trader.build();
+    }
+
+    public static Reconcile parseReconcile(final ProtoMessage message) {
+        List<Position> positions = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        read(message, (field, wireType, in) -> {
+            switch (field) {
+                case 3 -> positions.add(readPosition(in));
+                case 4 -> orders.add(readOrder(in));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return new Reconcile(positions, orders);
+    }
+
+    public static ExecutionEvent parseExecutionEvent(final ProtoMessage message) {
+        var event = ExecutionEvent.builder();
+        read(message, (field, wireType, in) -> {
+            switch (field) {
+                case 2 -> event.ctidTraderAccountId(in.readInt64());
+                case 3 -> event.executionType(in.readEnum());
+                case 4 -> event.position(readPosition(in));
+                case 5 -> event.order(readOrder(in));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return event.build();
+    }
+
+    public static SpotEvent parseSpotEvent(final ProtoMessage message) {
+        var event = SpotEvent.builder();
+        read(message, (field, wireType, in) -> {
+            switch (field) {
+                case 2 -> event.ctidTraderAccountId(in.readInt64());
+                case 3 -> event.symbolId(in.readInt64());
+                case 4 -> event.bid(in.readUInt64());
+                case 5 -> event.ask(in.readUInt64());
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return event.build();
+    }
+
+    public static Map<Long, String> parseSymbolNames(final ProtoMessage message) {
+        Map<Long, String> names = new HashMap<>();
+        read(message, (field, wireType, in) -> {
+            if (field != 3) {
+                return false;
+            }
+            long[] symbolId = new long[1];
+            String[] symbolName = new String[1];
+            readMessage(in, (symbolField, symbolWireType, symbolIn) -> {
+                switch (symbolField) {
+                    case 1 -> symbolId[0] = symbolIn.readInt64();
+                    case 2 -> symbolName[0] = symbolIn.readString();
+                    default -> {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            names.put(symbolId[0], symbolName[0]);
+            return true;
+        });
+        return names;
+    }
+
+    public static UnrealizedPnl parseUnrealizedPnl(final ProtoMessage message) {
+        Map<Long, Long> netByPositionId = new HashMap<>();
+        int[] moneyDigits = {2};
+        read(message, (field, wireType, in) -> {
+            switch (field) {
+                case 3 -> {
+                    long[] pnl = new long[2]; // positionId, netUnrealizedPnL
+                    readMessage(in, (pnlField, pnlWireType, pnlIn) -> {
+                        switch (pnlField) {
+                            case 1 -> pnl[0] = pnlIn.readInt64();
+                            case 3 -> pnl[1] = pnlIn.readInt64();
+                            default -> {
+                                return false;
+                            }
+                        }
+                        return true;
+                    });
+                    netByPositionId.put(pnl[0], pnl[1]);
+                }
+                case 4 -> moneyDigits[0] = in.readUInt32();
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return new UnrealizedPnl(netByPositionId, moneyDigits[0]);
+    }
+
+    public static Error parseError(final ProtoMessage message) {
+        // ProtoErrorRes numbers errorCode 2, ProtoOAErrorRes numbers it 3 after ctidTraderAccountId
+        int codeField = message.getPayloadType() == ERROR_RES ? 2 : 3;
+        String[] error = new String[2];
+        read(message, (field, wireType, in) -> {
+            if (field == codeField) {
+                error[0] = in.readString();
+            } else if (field == codeField + 1) {
+                error[1] = in.readString();
+            } else {
+                return false;
+            }
+            return true;
+        });
+        return new Error(error[0], error[1]);
+    }
+
+    /**
+     * The accounts named by an ACCOUNT_DISCONNECT_EVENT or an ACCOUNTS_TOKEN_INVALIDATED_EVENT.
+     */
+    public static List<Long> parseAccountIds(final ProtoMessage message) {
+        List<Long> accountIds = new ArrayList<>();
+        read(message, (field, wireType, in) -> {
+            if (field != 2) {
+                return false;
+            }
+            if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) { // Packed repeated
+                int limit = in.pushLimit(in.readRawVarint32());
+                while (in.getBytesUntilLimit() > 0) {
+                    accountIds.add(in.readInt64());
+                }
+                in.popLimit(limit);
+            } else {
+                accountIds.add(in.readInt64());
+            }
+            return true;
+        });
+        return accountIds;
+    }
+
+    public static double toPrice(final long spotPrice) {
+        return spotPrice / 100_000.0; // Spot prices are in 1/100000 of a unit
+    }
+
+    public static double toUnits(final long volume) {
+        return volume / 100.0; // Volumes are in cents of a unit
+    }
+
+    public static double toMoney(final long amount, final int moneyDigits) {
+        return amount / Math.pow(10, moneyDigits);
+    }
+
+    public static String orderType(final int orderType) {
+        return orderType > 0 && orderType < ORDER_TYPES.length ? ORDER_TYPES[orderType] : String.valueOf(orderType);
+    }
+
+    public static String orderStatus(final int orderStatus) {
+        return orderStatus > 0 && orderStatus < ORDER_STATUSES.length ? ORDER_STATUSES[orderStatus] : String.valueOf(orderStatus);
+    }
+
+    private static Position readPosition(final CodedInputStream in) throws IOException {
+        var position = Position.builder().moneyDigits(2);
+        readMessage(in, (field, wireType, positionIn) -> {
+            switch (field) {
+                case 1 -> position.positionId(positionIn.readInt64());
+                case 2 -> readTradeData(positionIn, position::symbolId, position::side, position::volume, position::openTimestamp);
+                case 3 -> position.status(positionIn.readEnum());
+                case 4 -> position.swap(positionIn.readInt64());
+                case 5 -> position.price(positionIn.readDouble());
+                case 9 -> position.commission(positionIn.readInt64());
+                case 13 -> position.usedMargin(positionIn.readUInt64());
+                case 15 -> position.moneyDigits(positionIn.readUInt32());
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return position.build();
+    }
+
+    private static Order readOrder(final CodedInputStream in) throws IOException {
+        var order = Order.builder();
+        readMessage(in, (field, wireType, orderIn) -> {
+            switch (field) {
+                case 1 -> order.orderId(orderIn.readInt64());
+                case 2 -> readTradeData(orderIn, order::symbolId, order::side, order::volume, order::openTimestamp);
+                case 3 -> order.orderType(orderIn.readEnum());
+                case 4 -> order.orderStatus(orderIn.readEnum());
+                case 8 -> order.executedVolume(orderIn.readInt64());
+                case 13 -> order.limitPrice(orderIn.readDouble());
+                case 14 -> order.stopPrice(orderIn.readDouble());
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return order.build();
+    }
+
+    // ProtoOATradeData, shared by positions and orders
+    private static void readTradeData(final CodedInputStream in,
+                                      final LongSetter symbolId,
+                                      final SideSetter side,
+                                      final LongSetter volume,
+                                      final LongSetter openTimestamp) throws IOException {
+        readMessage(in, (field, wireType, tradeIn) -> {
+            switch (field) {
+                case 1 -> symbolId.set(tradeIn.readInt64());
+                case 2 -> volume.set(tradeIn.readInt64());
+                case 3 -> side.set(tradeIn.readEnum() == TRADE_SIDE_SELL ? PositionSide.SELL : PositionSide.BUY);
+                case 4 -> openTimestamp.set(tradeIn.readInt64());
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private static ProtoMessage message(final int payloadType, final FieldWriter writer) {
+        try {
+            var bytes = new ByteArrayOutputStream(64);
+            var out = CodedOutputStream.newInstance(bytes);
+            out.writeEnum(1, payloadType);
+            writer.write(out);
+            out.flush();
+            return new ProtoMessage(payloadType, bytes.toByteArray(), null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void read(final ProtoMessage message, final FieldReader reader) {
+        try {
+            readFields(CodedInputStream.newInstance(message.getPayload()), reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid cTrader payload " + message.getPayloadType() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void readMessage(final CodedInputStream in, final FieldReader reader) throws IOException {
+        int limit = in.pushLimit(in.readRawVarint32());
+        readFields(in, reader);
+        in.popLimit(limit);
+    }
+
+    private static void readFields(final CodedInputStream in, final FieldReader reader) throws IOException {
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (!reader.read(WireFormat.getTagFieldNumber(tag), WireFormat.getTagWireType(tag), in)) {
+                in.skipField(tag);
+            }
+        }
+    }
+
+    // Reads one field and returns true, or returns false without reading to have it skipped
+    @FunctionalInterface
+    private interface FieldReader {
+        boolean read(int field, int wireType, CodedInputStream in) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FieldWriter {
+        void write(CodedOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface LongSetter {
+        Object set(long value);
+    }
+
+    @FunctionalInterface
+    private interface SideSetter {
+        Object set(PositionSide value);
+    }
+
+    // ProtoOATrader; money amounts are in 10^-moneyDigits of the deposit currency
+    @Value
+    @Builder
+    public static class Trader {
+        long   ctidTraderAccountId;
+        long   balance;
+        int    moneyDigits;
+        int    leverageInCents;
+        String brokerName;
+    }
+
+    // ProtoOAPosition with its ProtoOATradeData
+    @Value
+    @Builder
+    public static class Position {
+        long         positionId;
+        long         symbolId;
+        PositionSide side;
+        long         volume;        // In cents of a unit
+        long         openTimestamp; // Epoch millis
+        int          status;
+        double       price;         // Average open price
+        long         swap;
+        long         commission;
+        long         usedMargin;
+        int          moneyDigits;
+    }
+
+    // ProtoOAOrder with its ProtoOATradeData
+    @Value
+    @Builder
+    public static class Order {
+        long         orderId;
+        long         symbolId;
+        PositionSide side;
+        long         volume;        // In cents of a unit
+        long         openTimestamp; // Epoch millis
+        int          orderType;
+        int          orderStatus;
+        long         executedVolume;
+        double       limitPrice;
+        double       stopPrice;
+    }
+
+    @Value
+    public static class Reconcile {
+        List<Position> positions;
+        List<Order>    orders;
+    }
+
+    // ProtoOAExecutionEvent; position and order are null when not reported
+    @Value
+    @Builder
+    public static class ExecutionEvent {
+        long     ctidTraderAccountId;
+        int      executionType;
+        Position position;
+        Order    order;
+    }
+
+    // ProtoOASpotEvent; a side that did not change is 0
+    @Value
+    @Builder
+    public static class SpotEvent {
+        long ctidTraderAccountId;
+        long symbolId;
+        long bid;
+        long ask;
+    }
+
+    @Value
+    public static class UnrealizedPnl {
+        Map<Long, Long> netByPositionId;
+        int             moneyDigits;
+    }
+
+    @Value
+    public static class Error {
+        String errorCode;
+        String description;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.fusionfx.monolith.client.ctrader;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import lombok.Value;
+import lombok.With;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The envelope of every cTrader Open API message: the payload type, the encoded payload message and the id that
+ * correlates a response with its request.
+ * <p>
+ * On the wire each envelope is preceded by its length as a 4-byte big-endian integer; the framing is done by the
+ * Netty pipeline of {@link CTraderSession}.
+ */
+@Value
+public class ProtoMessage {
+
+    int payloadType;     // ProtoMessage.payloadType = 1
+    byte[] payload;      // ProtoMessage.payload = 2
+    @With
+    String clientMsgId;  // ProtoMessage.clientMsgId = 3, null for events
+
+    public static ProtoMessage parse(final byte[] frame) {
+        try {
+            var in = CodedInputStream.newInstance(frame);
+            int payloadType = 0;
+            byte[] payload = new byte[0];
+            String clientMsgId = null;
+
+            int tag;
+            while ((tag = in.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case 1 -> payloadType = in.readUInt32();
+                    case 2 -> payload = in.readByteArray();
+                    case 3 -> clientMsgId = in.readString();
+                    default -> in.skipField(tag);
+                }
+            }
+            return new ProtoMessage(payloadType, payload, clientMsgId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid cTrader message: " + e.getMessage(), e);
+        }
+    }
+
+    public byte[] toByteArray() {
+        try {
+            var bytes = new ByteArrayOutputStream(payload.length + 32);
+            var out = CodedOutputStream.newInstance(bytes);
+            out.writeUInt32(1, payloadType);
+            out.writeByteArray(2, payload);
+            if (clientMsgId != null) {
+                out.writeString(3, clientMsgId);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.fusionfx.monolith.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.enums.NumberMode;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@Configuration
+public class JacksonConfig {
+
+    // Numbers are computed as doubles and only formatted here, once per serialized value
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer numberModeCustomizer(final AppProperties appProperties) {
+        var json = appProperties.getJson();
+
+        return builder -> {
+            if (json.getNumberMode() == NumberMode.PLAIN) {
+                var serializer = new PlainDoubleSerializer(json.getMaxFractionDigits());
+                builder.serializerByType(Double.class, serializer);
+                builder.serializerByType(double.class, serializer);
+            }
+        };
+    }
+
+    /**
+     * Writes doubles in plain decimal notation, e.g. 0.00000123 instead of 1.23E-6; NaN and infinities are null.
+     */
+    static class PlainDoubleSerializer extends StdSerializer<Double> {
+
+        private final int maxFractionDigits;
+
+        PlainDoubleSerializer(final int maxFractionDigits) {
+            super(Double.class);
+            this.maxFractionDigits = maxFractionDigits;
+        }
+
+        @Override
+        public void serialize(final Double value, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+            if (!Double.isFinite(value)) {
+                gen.writeNull();
+                return;
+            }
+
+            gen.writeNumber(BigDecimal.valueOf(value)
+                    .setScale(maxFractionDigits, RoundingMode.HALF_UP)
+                    .stripTrailingZeros()
+                    .toPlainString());
+        }
+    }
+
+}
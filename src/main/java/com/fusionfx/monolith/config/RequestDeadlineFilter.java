@@ -0,0 +1,55 @@
+package com.fusionfx.monolith.config;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.Deadline;
+import com.fusionfx.monolith.client.UpstreamResilience;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounds every route that reads live account data from a broker by {@code fusion.http.request-deadline}.
+ * <p>
+ * The {@link Deadline} is carried down to every token and data call the request makes. A broker that does not answer
+ * in time is reported as 504, one whose circuit breaker is open or bulkhead is full as 503. Streams are not bounded.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestDeadlineFilter implements WebFilter {
+
+    private static final List<PathPattern> ACCOUNT_ROUTES = List.of(
+            "/api/trade-accounts/snapshot",
+            "/api/trade-accounts/{accountId}/details",
+            "/api/trade-accounts/{accountId}/positions",
+            "/api/trade-accounts/{accountId}/orders",
+            "/api/tradelocker/account-details",
+            "/api/dxtrade/account-details",
+            "/api/metatrader/account-details"
+    ).stream().map(PathPatternParser.defaultInstance::parse).toList();
+
+    private final AppProperties appProperties;
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        var path = exchange.getRequest().getPath().pathWithinApplication();
+        if (ACCOUNT_ROUTES.stream().noneMatch(route -> route.matches(path))) {
+            return chain.filter(exchange);
+        }
+
+        return chain.filter(exchange)
+                .transform(Deadline.within(appProperties.getHttp().getRequestDeadline()))
+                .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Broker did not answer in time"))
+                .onErrorMap(UpstreamResilience::isRejected, e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Broker unavailable"));
+    }
+
+}
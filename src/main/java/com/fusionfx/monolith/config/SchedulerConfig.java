@@ -0,0 +1,60 @@
+package com.fusionfx.monolith.config;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.enums.ExecutionMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@Slf4j
+@Configuration
+public class SchedulerConfig {
+
+    private static final String THREAD_PREFIX = "fusion-blocking-";
+
+    /**
+     * The scheduler every blocking SDK call (Auth0, MetaApi) is subscribed on, so Netty event-loop threads never block.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(final AppProperties appProperties) {
+        var blocking = appProperties.getBlocking();
+
+        if (blocking.getMode() == ExecutionMode.VIRTUAL) {
+            ExecutorService executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                log.info("Scheduler | Blocking calls run on virtual threads");
+                return Schedulers.fromExecutorService(executor, "fusion-blocking");
+            }
+            log.info("Scheduler | Virtual threads need JDK 21, falling back to a bounded elastic pool");
+        }
+
+        log.info("Scheduler | Blocking calls run on a bounded elastic pool of {} threads", blocking.getMaxThreads());
+        return Schedulers.newBoundedElastic(blocking.getMaxThreads(), blocking.getMaxQueuedTasks(), "fusion-blocking");
+    }
+
+    // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(..).factory()), looked up reflectively to build on JDK 17
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, THREAD_PREFIX, 0L);
+            var threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Scheduler | Virtual threads unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+}
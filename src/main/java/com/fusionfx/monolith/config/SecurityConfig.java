@@ -3,24 +3,61 @@ package com.fusionfx.monolith.config;
 import com.auth0.client.auth.AuthAPI;
 import com.auth0.client.mgmt.ManagementAPI;
 import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.security.token.CachingReactiveJwtDecoder;
+import com.fusionfx.monolith.security.token.JwkSetProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
+    /**
+     * Metric scrapes authenticate with the static {@code fusion.metrics.scrape-token} instead of a user JWT; without
+     * a configured token the endpoint is closed.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain metricsSecurityWebFilterChain(ServerHttpSecurity http, AppProperties appProperties) {
+        String scrapeToken = appProperties.getMetrics().getScrapeToken();
+        byte[] expected = scrapeToken == null || scrapeToken.isBlank() ? null : ("Bearer " + scrapeToken).getBytes(StandardCharsets.UTF_8);
+
+        return http
+                .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus"))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(exchanges -> exchanges
+                        .anyExchange().access((authentication, context) -> {
+                            String header = context.getExchange().getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+                            boolean granted = expected != null && header != null
+                                    && MessageDigest.isEqual(expected, header.getBytes(StandardCharsets.UTF_8)); // Constant-time compare
+                            return Mono.just(new AuthorizationDecision(granted));
+                        }))
+                .build();
+    }
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
         return http
@@ -28,6 +65,7 @@ public class SecurityConfig {
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()  // Allow preflight OPTIONS requests
                         .pathMatchers("/auth/login", "/auth/signup").permitAll()  // Allow login and sign-up
+                        .pathMatchers("/actuator/health").permitAll()  // Allow health checks
                         .anyExchange().authenticated()  // Secure all other routes
                 )
                 .oauth2ResourceServer(ServerHttpSecurity.OAuth2ResourceServerSpec::jwt)  // Enable JWT authentication
@@ -53,9 +91,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder(final AppProperties appProperties) {
-        String jwkSetUri = appProperties.getAuth0().getIssuer() + ".well-known/jwks.json";
-        return NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+    public ReactiveJwtDecoder reactiveJwtDecoder(final AppProperties appProperties,
+                                                 final JwkSetProvider jwkSetProvider,
+                                                 final MeterRegistry meterRegistry) {
+        // Same checks as the issuer-uri auto-configuration: exp / nbf with clock skew, and the Auth0 issuer
+        OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefaultWithIssuer(appProperties.getAuth0().getIssuer());
+        return new CachingReactiveJwtDecoder(jwkSetProvider, validator,
+                appProperties.getAuth0().getJwtCacheMaximumSize(), meterRegistry);
     }
 
     @Bean
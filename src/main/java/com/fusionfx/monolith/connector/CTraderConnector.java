@@ -0,0 +1,108 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.client.ctrader.OpenApiMessages;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.enums.PositionSide;
+import com.fusionfx.monolith.model.CTraderAccountState;
+import com.fusionfx.monolith.service.data.CTraderDataService;
+import com.fusionfx.monolith.service.data.MarginCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * cTrader accounts over the Open API. Reads are served from the account state kept by {@link CTraderDataService},
+ * so the background refresh does not call the server either.
+ */
+@Component
+@RequiredArgsConstructor
+public class CTraderConnector implements PlatformConnector {
+
+    private final MarginCalculator marginCalculator;
+    private final CTraderDataService cTraderDataService;
+
+    @Override
+    public Set<Platform> platforms() {
+        return Set.of(Platform.CTRADER);
+    }
+
+    // The OAuth access token, once the account is authorized on its session. The token is used as stored: no refresh
+    // token is kept for the account, so an expired token fails with CH_ACCESS_TOKEN_INVALID until the user grants a new one
+    @Override
+    public Mono<String> authenticate(final TradeAccount tradeAccount) {
+        return cTraderDataService.getAccountState(tradeAccount)
+                .thenReturn(tradeAccount.getPassword());
+    }
+
+    @Override
+    public Mono<AccountDto> fetchAccount(final TradeAccount tradeAccount) {
+        return cTraderDataService.getAccountState(tradeAccount)
+                .map(this::toAccountDto);
+    }
+
+    @Override
+    public Flux<PositionDto> fetchPositions(final TradeAccount tradeAccount) {
+        return cTraderDataService.getAccountState(tradeAccount)
+                .flatMapIterable(state -> state.getPositions().stream()
+                        .map(position -> toPositionDto(state, position))
+                        .toList());
+    }
+
+    @Override
+    public Flux<OrderDto> fetchOrders(final TradeAccount tradeAccount) {
+        return cTraderDataService.getAccountState(tradeAccount)
+                .flatMapIterable(state -> state.getOrders().stream()
+                        .map(order -> toOrderDto(state, order))
+                        .toList());
+    }
+
+    private AccountDto toAccountDto(final CTraderAccountState state) {
+        double equity = state.getBalance() + state.getOpenNetPnl();
+        return AccountDto.builder()
+                .balance(state.getBalance())
+                .equity(equity)
+                .openNetPnl(state.getOpenNetPnl())
+                .marginLevel(marginCalculator.marginLevel(equity, state.getUsedMargin()))
+                .positionCount(state.getPositions().size())
+                .build();
+    }
+
+    // A buy position closes at the bid, a sell at the ask
+    private static PositionDto toPositionDto(final CTraderAccountState state, final OpenApiMessages.Position position) {
+        long symbolId = position.getSymbolId();
+        return PositionDto.builder()
+                .id(String.valueOf(position.getPositionId()))
+                .symbol(state.getSymbolName(symbolId))
+                .side(position.getSide())
+                .volume(OpenApiMessages.toUnits(position.getVolume()))
+                .openPrice(position.getPrice())
+                .currentPrice(position.getSide() == PositionSide.SELL ? state.getAsk(symbolId) : state.getBid(symbolId))
+                .profit(state.getNetPnl(position.getPositionId()))
+                .openTime(Instant.ofEpochMilli(position.getOpenTimestamp()))
+                .build();
+    }
+
+    private static OrderDto toOrderDto(final CTraderAccountState state, final OpenApiMessages.Order order) {
+        return OrderDto.builder()
+                .id(String.valueOf(order.getOrderId()))
+                .symbol(state.getSymbolName(order.getSymbolId()))
+                .side(order.getSide())
+                .type(OpenApiMessages.orderType(order.getOrderType()))
+                .status(OpenApiMessages.orderStatus(order.getOrderStatus()))
+                .volume(OpenApiMessages.toUnits(order.getVolume()))
+                .filledVolume(OpenApiMessages.toUnits(order.getExecutedVolume()))
+                .price(order.getLimitPrice())
+                .stopPrice(order.getStopPrice())
+                .createdTime(Instant.ofEpochMilli(order.getOpenTimestamp()))
+                .build();
+    }
+
+}
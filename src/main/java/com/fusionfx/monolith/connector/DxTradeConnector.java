@@ -0,0 +1,49 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.service.auth.DxTradeAuthService;
+import com.fusionfx.monolith.service.data.DxTradeDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class DxTradeConnector implements PlatformConnector {
+
+    private final DxTradeAuthService dxTradeAuthService;
+    private final DxTradeDataService dxTradeDataService;
+
+    @Override
+    public Set<Platform> platforms() {
+        return Set.of(Platform.DXTRADE);
+    }
+
+    @Override
+    public Mono<String> authenticate(final TradeAccount tradeAccount) {
+        return dxTradeAuthService.getValidToken(tradeAccount);
+    }
+
+    @Override
+    public Mono<AccountDto> fetchAccount(final TradeAccount tradeAccount) {
+        return dxTradeDataService.getAccountMetrics(tradeAccount);
+    }
+
+    @Override
+    public Flux<PositionDto> fetchPositions(final TradeAccount tradeAccount) {
+        return dxTradeDataService.getPositions(tradeAccount);
+    }
+
+    @Override
+    public Flux<OrderDto> fetchOrders(final TradeAccount tradeAccount) {
+        return dxTradeDataService.getOrders(tradeAccount);
+    }
+
+}
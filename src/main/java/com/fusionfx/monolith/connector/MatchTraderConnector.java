@@ -0,0 +1,50 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.model.MatchTraderSession;
+import com.fusionfx.monolith.service.auth.MatchTraderAuthService;
+import com.fusionfx.monolith.service.data.MatchTraderDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class MatchTraderConnector implements PlatformConnector {
+
+    private final MatchTraderAuthService matchTraderAuthService;
+    private final MatchTraderDataService matchTraderDataService;
+
+    @Override
+    public Set<Platform> platforms() {
+        return Set.of(Platform.MATCHTRADER);
+    }
+
+    @Override
+    public Mono<String> authenticate(final TradeAccount tradeAccount) {
+        return matchTraderAuthService.getSession(tradeAccount).map(MatchTraderSession::getToken);
+    }
+
+    @Override
+    public Mono<AccountDto> fetchAccount(final TradeAccount tradeAccount) {
+        return matchTraderDataService.getBalance(tradeAccount);
+    }
+
+    @Override
+    public Flux<PositionDto> fetchPositions(final TradeAccount tradeAccount) {
+        return matchTraderDataService.getPositions(tradeAccount);
+    }
+
+    @Override
+    public Flux<OrderDto> fetchOrders(final TradeAccount tradeAccount) {
+        return matchTraderDataService.getOrders(tradeAccount);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.dto.metatrader.AccountDetailsDto;
+import com.fusionfx.monolith.dto.metatrader.OrderDetailsDto;
+import com.fusionfx.monolith.dto.metatrader.PositionDetailsDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.enums.PositionSide;
+import com.fusionfx.monolith.service.auth.MetaTraderAuthService;
+import com.fusionfx.monolith.service.data.MarginCalculator;
+import com.fusionfx.monolith.service.data.MetaTraderDataService;
+import com.fusionfx.monolith.service.data.MetaTraderStreamingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * MetaTrader 4 and 5 accounts, both served through MetaApi.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetaTraderConnector implements PlatformConnector {
+
+    private static final int TOKEN_VALIDITY_HOURS = 24;
+
+    private final MarginCalculator marginCalculator;
+    private final MetaTraderAuthService metaTraderAuthService;
+    private final MetaTraderDataService metaTraderDataService;
+    private final MetaTraderStreamingService metaTraderStreamingService;
+
+    @Override
+    public Set<Platform> platforms() {
+        return Set.of(Platform.METATRADER4, Platform.METATRADER5);
+    }
+
+    @Override
+    public Mono<String> authenticate(final TradeAccount tradeAccount) {
+        return metaTraderAuthService.getAuthToken(tradeAccount.getCloudAccountNumber(), TOKEN_VALIDITY_HOURS);
+    }
+
+    @Override
+    public Mono<AccountDto> fetchAccount(final TradeAccount tradeAccount) {
+        // The position count is only known while a streaming connection is open, unless REST counting is switched on
+        return Mono.zip(metaTraderDataService.fetchAccountInformation(tradeAccount),
+                        metaTraderDataService.fetchPositionCount(tradeAccount).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .map(tuple -> toAccountDto(tuple.getT1(), tuple.getT2().orElse(null)));
+    }
+
+    @Override
+    public Disposable retain(final TradeAccount tradeAccount) {
+        return metaTraderStreamingService.retain(tradeAccount.getCloudAccountNumber());
+    }
+
+    @Override
+    public Flux<PositionDto> fetchPositions(final TradeAccount tradeAccount) {
+        return metaTraderDataService.fetchPositions(tradeAccount)
+                .map(MetaTraderConnector::toPositionDto);
+    }
+
+    @Override
+    public Flux<OrderDto> fetchOrders(final TradeAccount tradeAccount) {
+        return metaTraderDataService.fetchOrders(tradeAccount)
+                .map(MetaTraderConnector::toOrderDto);
+    }
+
+    // MetaApi reports no position count or open P&L on account information: the count comes from the terminal state, P&L from equity
+    private AccountDto toAccountDto(final AccountDetailsDto accountDetails, final Integer positionCount) {
+        return AccountDto.builder()
+                .balance(accountDetails.getBalance())
+                .equity(accountDetails.getEquity())
+                .openNetPnl(accountDetails.getEquity() - accountDetails.getBalance())
+                .marginLevel(marginCalculator.marginLevel(accountDetails.getEquity(), accountDetails.getMargin()))
+                .positionCount(positionCount)
+                .currency(accountDetails.getCurrency())
+                .build();
+    }
+
+    private static PositionDto toPositionDto(final PositionDetailsDto position) {
+        return PositionDto.builder()
+                .id(position.getId())
+                .symbol(position.getSymbol())
+                .side("POSITION_TYPE_SELL".equals(position.getType()) ? PositionSide.SELL : PositionSide.BUY)
+                .volume(position.getVolume())
+                .openPrice(position.getOpenPrice())
+                .currentPrice(position.getCurrentPrice())
+                .profit(position.getUnrealizedProfit())
+                .openTime(position.getTime())
+                .build();
+    }
+
+    // MetaApi order types read ORDER_TYPE_BUY_LIMIT, states ORDER_STATE_PLACED
+    private static OrderDto toOrderDto(final OrderDetailsDto order) {
+        String type = order.getType() == null ? "" : order.getType().replace("ORDER_TYPE_", "");
+        String state = order.getState() == null ? null : order.getState().replace("ORDER_STATE_", "");
+
+        return OrderDto.builder()
+                .id(order.getId())
+                .symbol(order.getSymbol())
+                .side(type.startsWith("SELL") ? PositionSide.SELL : PositionSide.BUY)
+                .type(type)
+                .status(state)
+                .volume(order.getVolume())
+                .filledVolume(order.getVolume() - order.getCurrentVolume())
+                .price(order.getOpenPrice())
+                .stopPrice(order.getStopLimitPrice())
+                .createdTime(order.getTime())
+                .build();
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Access to the broker of one or more trading platforms.
+ * <p>
+ * Connectors are looked up through the {@link PlatformConnectorRegistry}; callers never switch on the platform.
+ * Snapshot storage, history, timeouts and metrics around these calls live in the callers and apply to every
+ * connector alike.
+ */
+public interface PlatformConnector {
+
+    /**
+     * @return The platforms served by this connector.
+     */
+    Set<Platform> platforms();
+
+    /**
+     * Get a valid broker session token for the account, logging in if needed.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Mono containing the token.
+     */
+    Mono<String> authenticate(TradeAccount tradeAccount);
+
+    /**
+     * Fetch the normalized account details from the broker.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Mono containing the account details.
+     */
+    Mono<AccountDto> fetchAccount(TradeAccount tradeAccount);
+
+    /**
+     * Fetch the open positions of the account from the broker.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Flux of the open positions; an error if the connector does not support positions.
+     */
+    default Flux<PositionDto> fetchPositions(final TradeAccount tradeAccount) {
+        return Flux.error(new UnsupportedOperationException("Positions not supported for platform: " + tradeAccount.getPlatform()));
+    }
+
+    /**
+     * Fetch the working orders of the account from the broker.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Flux of the working orders; an error if the connector does not support orders.
+     */
+    default Flux<OrderDto> fetchOrders(final TradeAccount tradeAccount) {
+        return Flux.error(new UnsupportedOperationException("Orders not supported for platform: " + tradeAccount.getPlatform()));
+    }
+
+    /**
+     * Keep the account's push channel open while a subscriber watches the account, for connectors that have one.
+     * Fetches use the channel while it is open and go to the broker's REST API otherwise.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Disposable releasing the hold; a no-op for connectors without a push channel.
+     */
+    default Disposable retain(final TradeAccount tradeAccount) {
+        return Disposables.disposed();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link PlatformConnector} of every supported platform, collected from the application context.
+ */
+@Slf4j
+@Component
+public class PlatformConnectorRegistry {
+
+    private final Map<Platform, PlatformConnector> connectors = new EnumMap<>(Platform.class);
+
+    public PlatformConnectorRegistry(final List<PlatformConnector> platformConnectors) {
+        for (PlatformConnector connector : platformConnectors) {
+            for (Platform platform : connector.platforms()) {
+                PlatformConnector previous = connectors.put(platform, connector);
+                if (previous != null) {
+                    throw new IllegalStateException("Platform " + platform + " is served by both "
+                            + previous.getClass().getSimpleName() + " and " + connector.getClass().getSimpleName());
+                }
+            }
+        }
+        log.info("PlatformConnectorRegistry | Connectors registered for {}", connectors.keySet());
+    }
+
+    /**
+     * Get the connector of the account's platform.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return The connector.
+     * @throws IllegalArgumentException      If the account has no platform.
+     * @throws UnsupportedOperationException If no connector serves the platform.
+     */
+    public PlatformConnector get(final TradeAccount tradeAccount) {
+        if (tradeAccount.getPlatform() == null) {
+            throw new IllegalArgumentException("TradeAccount " + tradeAccount.getId() + " has no platform");
+        }
+        return get(tradeAccount.getPlatform());
+    }
+
+    public PlatformConnector get(final Platform platform) {
+        PlatformConnector connector = connectors.get(platform);
+        if (connector == null) {
+            throw new UnsupportedOperationException("Platform not supported: " + platform);
+        }
+        return connector;
+    }
+
+    public boolean supports(final Platform platform) {
+        return connectors.containsKey(platform);
+    }
+
+}
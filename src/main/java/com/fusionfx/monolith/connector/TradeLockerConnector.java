@@ -0,0 +1,51 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.service.auth.TradeLockerAuthService;
+import com.fusionfx.monolith.service.data.TradeLockerDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class TradeLockerConnector implements PlatformConnector {
+
+    private final AppProperties appProperties;
+    private final TradeLockerAuthService tradeLockerAuthService;
+    private final TradeLockerDataService tradeLockerDataService;
+
+    @Override
+    public Set<Platform> platforms() {
+        return Set.of(Platform.TRADELOCKER);
+    }
+
+    @Override
+    public Mono<String> authenticate(final TradeAccount tradeAccount) {
+        return tradeLockerAuthService.getValidToken(tradeAccount, appProperties.getTradeLocker().baseUrl(tradeAccount.getType()));
+    }
+
+    @Override
+    public Mono<AccountDto> fetchAccount(final TradeAccount tradeAccount) {
+        return tradeLockerDataService.fetchTradeLockerAccount(tradeAccount);
+    }
+
+    @Override
+    public Flux<PositionDto> fetchPositions(final TradeAccount tradeAccount) {
+        return tradeLockerDataService.fetchPositions(tradeAccount);
+    }
+
+    @Override
+    public Flux<OrderDto> fetchOrders(final TradeAccount tradeAccount) {
+        return tradeLockerDataService.fetchOrders(tradeAccount);
+    }
+
+}
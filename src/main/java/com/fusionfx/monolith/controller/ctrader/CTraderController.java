@@ -1,14 +0,0 @@
-package com.fusionfx.monolith.controller.ctrader;
-
-import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
-
-@RestController
-@RequiredArgsConstructor
-@RequestMapping("/api/ctrader")
-public class CTraderController {
-
-
-
-}
@@ -1,9 +1,11 @@
 package com.fusionfx.monolith.controller.dxtrade;
 
+import com.fusionfx.monolith.AppProperties;
 import com.fusionfx.monolith.dto.AccountDto;
 import com.fusionfx.monolith.entity.TradeAccount;
-import com.fusionfx.monolith.repo.TradeAccountRepo;
-import com.fusionfx.monolith.service.data.DxTradeDataService;
+import com.fusionfx.monolith.repo.TradeAccountCache;
+import com.fusionfx.monolith.service.data.AccountDataDispatcher;
+import com.fusionfx.monolith.service.data.AccountRefreshScheduler;
 import com.fusionfx.monolith.service.management.DxTradeManagementService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,8 +23,10 @@ import reactor.core.publisher.Mono;
 @RequestMapping("/api/dxtrade")
 public class DxTradeController {
 
-    private final TradeAccountRepo tradeAccountRepo;
-    private final DxTradeDataService dxTradeDataService;
+    private final AppProperties appProperties;
+    private final TradeAccountCache tradeAccountCache;
+    private final AccountDataDispatcher accountDataDispatcher;
+    private final AccountRefreshScheduler accountRefreshScheduler;
     private final DxTradeManagementService dxTradeManagementService;
 
     @PostMapping("/add-account")
@@ -35,6 +39,7 @@ public class DxTradeController {
         return dxTradeManagementService.checkLoginAndSave(tradeAccount);
     }
 
+    @Deprecated // Use GET /api/trade-accounts/{accountId}/details, which serves every platform
     @GetMapping("/account-details")
     public Mono<AccountDto> getAccountDetails(@RequestParam String accountNumber,
                                               @AuthenticationPrincipal Jwt jwt) {
@@ -42,10 +47,11 @@ public class DxTradeController {
         String userId = jwt.getClaimAsString("sub");
 
         // Fetch the TradeAccount by accountNumber and userId to verify ownership
-        return tradeAccountRepo.findByIdAndUserId(accountNumber, userId)
+        return tradeAccountCache.findByIdAndUserId(accountNumber, userId)
                 .flatMap(tradeAccount -> {
-                    // If TradeAccount exists and the userId matches, fetch the account details
-                    return dxTradeDataService.getAccountMetrics(tradeAccount);
+                    // If TradeAccount exists and the userId matches, serve the background snapshot or fetch the details
+                    accountRefreshScheduler.touch(tradeAccount);
+                    return accountDataDispatcher.getAccount(tradeAccount, appProperties.getRefresh().getMaxSnapshotAge());
                 })
                 .switchIfEmpty(Mono.error(new IllegalAccessException("TradeAccount not found or not owned by the user")));
     }
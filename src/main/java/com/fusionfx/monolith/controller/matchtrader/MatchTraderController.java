@@ -1,12 +0,0 @@
-package com.fusionfx.monolith.controller.matchtrader;
-
-import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
-
-@RestController
-@RequiredArgsConstructor
-@RequestMapping("/api/matchtrader")
-public class MatchTraderController {
-
-}
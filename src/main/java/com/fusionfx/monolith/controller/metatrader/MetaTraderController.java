@@ -1,9 +1,12 @@
 package com.fusionfx.monolith.controller.metatrader;
 
+import com.fusionfx.monolith.client.UpstreamResilience;
 import com.fusionfx.monolith.dto.metatrader.AccountCreationRequestDto;
 import com.fusionfx.monolith.dto.metatrader.AccountCreationResponseDto;
 import com.fusionfx.monolith.dto.metatrader.AccountDetailsDto;
+import com.fusionfx.monolith.repo.TradeAccountCache;
 import com.fusionfx.monolith.repo.TradeAccountRepo;
+import com.fusionfx.monolith.repo.projection.TradeAccountConnectionView;
 import com.fusionfx.monolith.service.auth.MetaTraderAuthService;
 import com.fusionfx.monolith.service.data.MetaTraderDataService;
 import com.fusionfx.monolith.service.management.MetaTraderManagementService;
@@ -19,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.TimeoutException;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/metatrader")
@@ -26,6 +31,7 @@ public class MetaTraderController {
 
 
     private final TradeAccountRepo tradeAccountRepo;
+    private final TradeAccountCache tradeAccountCache;
     private final MetaTraderDataService metaTraderDataService;
     private final MetaTraderAuthService metaTraderAuthService;
     private final MetaTraderManagementService metaTraderManagementService;
@@ -68,11 +74,13 @@ public class MetaTraderController {
         String userId = jwt.getSubject();
 
         // Find the TradeAccount associated with this user and accountId
-        return tradeAccountRepo.findByIdAndUserId(accountNumber, userId)
+        return tradeAccountCache.findByIdAndUserId(accountNumber, userId)
                 .flatMap(tradeAccount -> metaTraderDataService.fetchAccountInformation(tradeAccount)
                         .map(ResponseEntity::ok))
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
-                .onErrorResume(error -> Mono.just(ResponseEntity.badRequest().body(null)));
+                // Passed deadlines and rejected broker calls are answered 504 and 503 by the RequestDeadlineFilter
+                .onErrorResume(error -> !(error instanceof TimeoutException) && !UpstreamResilience.isRejected(error),
+                        error -> Mono.just(ResponseEntity.badRequest().body(null)));
     }
 
     /**
@@ -91,7 +99,7 @@ public class MetaTraderController {
         String userId = jwt.getSubject();
 
         // Check if the account belongs to the authenticated user
-        return tradeAccountRepo.findById(accountId)
+        return tradeAccountRepo.findProjectedById(accountId, TradeAccountConnectionView.class)
                 .flatMap(tradeAccount -> {
                     // Ensure the account belongs to the authenticated user
                     if (!tradeAccount.getUserId().equals(userId)) {
@@ -1,41 +1,170 @@
 package com.fusionfx.monolith.controller.tradeaccount;
 
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.AccountUpdateDto;
+import com.fusionfx.monolith.dto.BookDeltaDto;
+import com.fusionfx.monolith.dto.EquityCurveDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PortfolioSnapshotDto;
+import com.fusionfx.monolith.dto.PositionDto;
 import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.SnapshotResolution;
+import com.fusionfx.monolith.repo.TradeAccountCache;
 import com.fusionfx.monolith.repo.TradeAccountRepo;
+import com.fusionfx.monolith.repo.projection.TradeAccountListView;
+import com.fusionfx.monolith.service.auth.BrokerTokenStore;
+import com.fusionfx.monolith.service.data.AccountDataDispatcher;
+import com.fusionfx.monolith.service.data.AccountRefreshScheduler;
+import com.fusionfx.monolith.service.data.AccountStreamService;
+import com.fusionfx.monolith.service.data.PortfolioSnapshotService;
+import com.fusionfx.monolith.service.data.PositionBookService;
+import com.fusionfx.monolith.service.history.EquityCurveService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/trade-accounts")
 public class TradeAccountController {
 
+    private final AppProperties appProperties;
     private final TradeAccountRepo tradeAccountRepo;
+    private final TradeAccountCache tradeAccountCache;
+    private final BrokerTokenStore brokerTokenStore;
+    private final AccountDataDispatcher accountDataDispatcher;
+    private final AccountRefreshScheduler accountRefreshScheduler;
+    private final AccountStreamService accountStreamService;
+    private final EquityCurveService equityCurveService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final PositionBookService positionBookService;
 
     // Get all trade accounts for the current user (by extracting userId from JWT)
     @GetMapping
-    public Flux<TradeAccount> getAllTradeAccountsByUserId(@AuthenticationPrincipal Jwt jwt) {
+    public Flux<TradeAccountListView> getAllTradeAccountsByUserId(@AuthenticationPrincipal Jwt jwt) {
+        // Extract userId from the JWT
+        String userId = jwt.getClaimAsString("sub");
+
+        // Return all trade accounts associated with the user, without account numbers and credentials
+        return tradeAccountRepo.findAllByUserId(userId, TradeAccountListView.class);
+    }
+
+    // Get the live details of the trade accounts of the current user (all, or the given ids), plus aggregated totals
+    @GetMapping("/snapshot")
+    public Mono<PortfolioSnapshotDto> getSnapshot(@RequestParam(required = false) List<String> ids,
+                                                  @AuthenticationPrincipal Jwt jwt) {
+        // Extract userId from the JWT
+        String userId = jwt.getClaimAsString("sub");
+
+        // Accounts whose broker is slow or failing are returned as unavailable
+        return portfolioSnapshotService.getSnapshot(userId, ids);
+    }
+
+    // Stream live updates of all trade accounts of the current user, sending only the fields that changed
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AccountUpdateDto>> streamAccounts(@AuthenticationPrincipal Jwt jwt) {
         // Extract userId from the JWT
         String userId = jwt.getClaimAsString("sub");
 
-        // Return all trade accounts associated with the user
-        return tradeAccountRepo.findAllByUserId(userId);
+        // All sessions watching the same account share one upstream refresh loop
+        return accountStreamService.streamForUser(userId);
     }
 
     // Get a specific trade account by its account ID
     @GetMapping("/account/{accountId}")
-    public Mono<TradeAccount> getTradeAccountById(@PathVariable String accountId,
-                                                  @AuthenticationPrincipal Jwt jwt) {
+    public Mono<TradeAccountListView> getTradeAccountById(@PathVariable String accountId,
+                                                          @AuthenticationPrincipal Jwt jwt) {
         // Extract userId from the JWT (optional for further verification)
         String userId = jwt.getClaimAsString("sub");
 
-        // Fetch the trade account by its ID
-        return tradeAccountRepo.findById(accountId)
-                .filter(account -> account.getUserId().equals(userId)); // Ensure the user owns the account
+        // Fetch the trade account by its ID, only if the user owns it
+        return tradeAccountRepo.findByIdAndUserId(accountId, userId, TradeAccountListView.class);
+    }
+
+    // Get the live details of a trade account on any platform, served from the background snapshot when fresh enough
+    @GetMapping("/{accountId}/details")
+    public Mono<AccountDto> getAccountDetails(@PathVariable String accountId,
+                                              @AuthenticationPrincipal Jwt jwt) {
+        // Extract userId from the JWT
+        String userId = jwt.getClaimAsString("sub");
+
+        return tradeAccountCache.findByIdAndUserId(accountId, userId) // Ensure the user owns the account
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "TradeAccount not found")))
+                .doOnNext(accountRefreshScheduler::touch) // Keep it in the background refresh
+                .flatMap(tradeAccount -> accountDataDispatcher.getAccount(tradeAccount, appProperties.getRefresh().getMaxSnapshotAge()))
+                .onErrorMap(UnsupportedOperationException.class, e -> new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, e.getMessage()));
+    }
+
+    // Get the open positions of a trade account that were opened, modified or closed since the given version
+    @GetMapping("/{accountId}/positions")
+    public Mono<BookDeltaDto<PositionDto>> getPositions(@PathVariable String accountId,
+                                                        @RequestParam(required = false) String since,
+                                                        @AuthenticationPrincipal Jwt jwt) {
+        // Extract userId from the JWT
+        String userId = jwt.getClaimAsString("sub");
+
+        return tradeAccountCache.findByIdAndUserId(accountId, userId) // Ensure the user owns the account
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "TradeAccount not found")))
+                .flatMap(tradeAccount -> positionBookService.getPositions(tradeAccount, since))
+                .onErrorMap(UnsupportedOperationException.class, e -> new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, e.getMessage()));
+    }
+
+    // Get the working orders of a trade account that were placed, modified or removed since the given version
+    @GetMapping("/{accountId}/orders")
+    public Mono<BookDeltaDto<OrderDto>> getOrders(@PathVariable String accountId,
+                                                  @RequestParam(required = false) String since,
+                                                  @AuthenticationPrincipal Jwt jwt) {
+        // Extract userId from the JWT
+        String userId = jwt.getClaimAsString("sub");
+
+        return tradeAccountCache.findByIdAndUserId(accountId, userId) // Ensure the user owns the account
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "TradeAccount not found")))
+                .flatMap(tradeAccount -> positionBookService.getOrders(tradeAccount, since))
+                .onErrorMap(UnsupportedOperationException.class, e -> new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, e.getMessage()));
+    }
+
+    // Get the equity curve of a trade account, with max drawdown and daily loss, from the recorded snapshots
+    @GetMapping("/{accountId}/equity-curve")
+    public Mono<EquityCurveDto> getEquityCurve(@PathVariable String accountId,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                               @RequestParam(defaultValue = "hour") String resolution,
+                                               @RequestParam(defaultValue = "1") int step,
+                                               @AuthenticationPrincipal Jwt jwt) {
+        // Extract userId from the JWT
+        String userId = jwt.getClaimAsString("sub");
+
+        // Default to the last 24 hours
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        if (!start.isBefore(end) || step < 1) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must be before 'to' and 'step' must be positive"));
+        }
+
+        SnapshotResolution snapshotResolution;
+        try {
+            snapshotResolution = SnapshotResolution.fromUnit(resolution);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+
+        return tradeAccountRepo.existsByIdAndUserId(accountId, userId) // Ensure the user owns the account
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "TradeAccount not found")))
+                .flatMap(owned -> equityCurveService.getEquityCurve(accountId, start, end, snapshotResolution, step));
     }
 
     // Delete a trade account by its ID
@@ -46,8 +175,8 @@ public class TradeAccountController {
         String userId = jwt.getClaimAsString("sub");
 
         // Ensure the account being deleted belongs to the authenticated user
-        return tradeAccountRepo.findById(accountId)
-                .filter(account -> account.getUserId().equals(userId)) // Check ownership
-                .flatMap(existingAccount -> tradeAccountRepo.deleteById(accountId)); // Delete account
+        return tradeAccountRepo.findByIdAndUserId(accountId, userId) // Check ownership
+                .flatMap(existingAccount -> tradeAccountRepo.deleteById(accountId) // Delete account
+                        .doOnSuccess(deleted -> brokerTokenStore.invalidateAccount(existingAccount))); // Drop its broker sessions
     }
 }
@@ -1,9 +1,11 @@
 package com.fusionfx.monolith.controller.tradelocker;
 
+import com.fusionfx.monolith.AppProperties;
 import com.fusionfx.monolith.dto.AccountDto;
 import com.fusionfx.monolith.entity.TradeAccount;
-import com.fusionfx.monolith.repo.TradeAccountRepo;
-import com.fusionfx.monolith.service.data.TradeLockerDataService;
+import com.fusionfx.monolith.repo.TradeAccountCache;
+import com.fusionfx.monolith.service.data.AccountDataDispatcher;
+import com.fusionfx.monolith.service.data.AccountRefreshScheduler;
 import com.fusionfx.monolith.service.management.TradeLockerManagementService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -24,8 +26,10 @@ import java.util.Map;
 @RequestMapping("/api/tradelocker")
 public class TradeLockerController {
 
-    private final TradeAccountRepo tradeAccountRepo;
-    private final TradeLockerDataService tradeLockerDataService;
+    private final AppProperties appProperties;
+    private final TradeAccountCache tradeAccountCache;
+    private final AccountDataDispatcher accountDataDispatcher;
+    private final AccountRefreshScheduler accountRefreshScheduler;
     private final TradeLockerManagementService tradeLockerManagementService;
 
     /**
@@ -51,6 +55,7 @@ public class TradeLockerController {
      * @param jwt           The JWT token containing the user information.
      * @return A Mono containing the account details.
      */
+    @Deprecated // Use GET /api/trade-accounts/{accountId}/details, which serves every platform
     @GetMapping("/account-details")
     public Mono<AccountDto> getAccountDetails(@RequestParam String accountNumber,
                                               @AuthenticationPrincipal Jwt jwt) {
@@ -58,10 +63,11 @@ public class TradeLockerController {
         String userId = jwt.getClaimAsString("sub");
 
         // Fetch the TradeAccount by accountNumber and userId to verify ownership
-        return tradeAccountRepo.findByIdAndUserId(accountNumber, userId)
+        return tradeAccountCache.findByIdAndUserId(accountNumber, userId)
                 .flatMap(tradeAccount -> {
-                    // If TradeAccount exists and the userId matches, fetch the account details
-                    return tradeLockerDataService.fetchTradeLockerAccount(tradeAccount);
+                    // If TradeAccount exists and the userId matches, serve the background snapshot or fetch the details
+                    accountRefreshScheduler.touch(tradeAccount);
+                    return accountDataDispatcher.getAccount(tradeAccount, appProperties.getRefresh().getMaxSnapshotAge());
                 })
                 .switchIfEmpty(Mono.error(new IllegalAccessException("TradeAccount not found or not owned by the user")));
     }
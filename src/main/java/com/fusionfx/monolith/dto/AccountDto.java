@@ -12,5 +12,6 @@ public class AccountDto {
     private double     equity;        // Account equity
     private Double     marginLevel;   // Margin level
     private double     openNetPnl;    // Open Net Profit and Loss
-    private int        positionCount; // Open Position Count
+    private Integer    positionCount; // Open Position Count, null when the broker does not report it
+    private String     currency;      // Account currency, null when the broker does not report it
 }
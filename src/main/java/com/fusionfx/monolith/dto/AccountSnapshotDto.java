@@ -0,0 +1,46 @@
+package com.fusionfx.monolith.dto;
+
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AccountSnapshotDto {
+
+    public static final String TIMEOUT = "timeout";               // No answer within the account timeout
+    public static final String UNAUTHORIZED = "unauthorized";     // The broker rejected the account's credentials
+    public static final String REJECTED = "rejected";             // Not called: the broker's breaker or bulkhead is closed
+    public static final String UPSTREAM_ERROR = "upstream error"; // Any other broker failure
+
+    private String     accountId;  // TradeAccount document ID
+    private String     name;       // Name of the trade account
+    private Platform   platform;   // Platform type
+    private String     propFirm;   // Prop Firm
+    private boolean    available;  // False when the broker failed or timed out
+    private String     error;      // Reason the account is unavailable, one of the constants above
+    private AccountDto account;    // Account details, null when unavailable
+
+    public static AccountSnapshotDto available(final TradeAccount tradeAccount, final AccountDto account) {
+        return base(tradeAccount)
+                .available(true)
+                .account(account)
+                .build();
+    }
+
+    public static AccountSnapshotDto unavailable(final TradeAccount tradeAccount, final String error) {
+        return base(tradeAccount)
+                .available(false)
+                .error(error)
+                .build();
+    }
+
+    private static AccountSnapshotDtoBuilder base(final TradeAccount tradeAccount) {
+        return AccountSnapshotDto.builder()
+                .accountId(tradeAccount.getId())
+                .name(tradeAccount.getName())
+                .platform(tradeAccount.getPlatform())
+                .propFirm(tradeAccount.getPropFirm());
+    }
+}
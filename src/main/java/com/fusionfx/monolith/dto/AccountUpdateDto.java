@@ -0,0 +1,42 @@
+package com.fusionfx.monolith.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@Data
+@AllArgsConstructor
+public class AccountUpdateDto {
+    private String              accountId; // TradeAccount document ID
+    private Map<String, Object> changes;   // AccountDto fields that changed since the previous update
+
+    /**
+     * Build the update holding only the fields of {@code current} that differ from {@code previous}.
+     * With no previous value every field is included.
+     */
+    public static AccountUpdateDto of(final String accountId, final AccountDto previous, final AccountDto current) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (previous == null || Double.compare(previous.getBalance(), current.getBalance()) != 0) {
+            changes.put("balance", current.getBalance());
+        }
+        if (previous == null || Double.compare(previous.getEquity(), current.getEquity()) != 0) {
+            changes.put("equity", current.getEquity());
+        }
+        if (previous == null || !Objects.equals(previous.getMarginLevel(), current.getMarginLevel())) {
+            changes.put("marginLevel", current.getMarginLevel());
+        }
+        if (previous == null || Double.compare(previous.getOpenNetPnl(), current.getOpenNetPnl()) != 0) {
+            changes.put("openNetPnl", current.getOpenNetPnl());
+        }
+        if (previous == null || !Objects.equals(previous.getPositionCount(), current.getPositionCount())) {
+            changes.put("positionCount", current.getPositionCount());
+        }
+        if (previous == null || !Objects.equals(previous.getCurrency(), current.getCurrency())) {
+            changes.put("currency", current.getCurrency());
+        }
+        return new AccountUpdateDto(accountId, changes);
+    }
+}
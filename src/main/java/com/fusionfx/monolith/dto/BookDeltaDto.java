@@ -0,0 +1,25 @@
+package com.fusionfx.monolith.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The changes of a position or order book between the version a client holds and the current version.
+ * <p>
+ * When {@code snapshot} is true the client's version was too old, missing or issued by another book (after a
+ * restart, eviction or on another instance); {@code opened} holds every open entry and the client should replace its
+ * copy instead of applying the delta.
+ */
+@Data
+@Builder
+public class BookDeltaDto<T> {
+    private String       accountId;   // TradeAccount document ID
+    private String       fromVersion; // Version token the delta starts at, as supplied by the client
+    private String       version;     // Version token after the delta, to be supplied on the next request
+    private boolean      snapshot;    // True if opened holds the full book
+    private List<T>      opened;      // Entries that appeared since fromVersion
+    private List<T>      modified;    // Entries that changed since fromVersion
+    private List<String> closed;      // IDs of entries that disappeared since fromVersion
+}
@@ -0,0 +1,25 @@
+package com.fusionfx.monolith.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Equity curve of a trade account in columnar form: the i-th entry of every array belongs to the bucket starting at
+ * {@code timestamps[i]}.
+ */
+@Data
+@Builder
+public class EquityCurveDto {
+    private String   tradeAccountId;      // TradeAccount the curve belongs to
+    private String   resolution;          // Bucket unit: minute, hour or day
+    private int      step;                // Bucket size in resolution units
+    private long[]   timestamps;          // Bucket start, epoch milliseconds
+    private double[] equity;              // Last equity of each bucket
+    private double[] equityMin;           // Lowest equity of each bucket
+    private double[] equityMax;           // Highest equity of each bucket
+    private double[] balance;             // Last balance of each bucket
+    private double   maxDrawdown;         // Largest drop from a previous equity peak
+    private double   maxDrawdownPercent;  // maxDrawdown relative to that peak
+    private double   maxDailyLoss;        // Largest drop below the start-of-day equity (UTC days)
+    private double   maxDailyLossPercent; // maxDailyLoss relative to that start-of-day equity
+}
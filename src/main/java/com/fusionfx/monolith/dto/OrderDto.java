@@ -0,0 +1,22 @@
+package com.fusionfx.monolith.dto;
+
+import com.fusionfx.monolith.enums.PositionSide;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class OrderDto {
+    private String       id;           // Broker order ID
+    private String       symbol;       // Instrument symbol
+    private PositionSide side;         // Buy or Sell
+    private String       type;         // Order type as reported by the broker, e.g. LIMIT or STOP
+    private String       status;       // Order status as reported by the broker
+    private double       volume;       // Ordered volume, in lots or units as reported by the broker
+    private double       filledVolume; // Filled volume
+    private double       price;        // Limit price, 0 if not applicable
+    private double       stopPrice;    // Stop price, 0 if not applicable
+    private Instant      createdTime;  // Time the order was placed
+}
@@ -0,0 +1,65 @@
+package com.fusionfx.monolith.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+@Builder
+public class PortfolioSnapshotDto {
+
+    public static final String UNKNOWN_CURRENCY = "UNKNOWN"; // Totals key of accounts whose broker reports no currency
+
+    private List<AccountSnapshotDto>    accounts;           // One entry per trade account
+    private Map<String, CurrencyTotals> totals;             // Totals of available accounts per account currency
+    private int                         totalPositionCount; // Sum of open positions of available accounts reporting a count
+    private int                         unavailableCount;   // Accounts whose broker failed or timed out
+
+    public static PortfolioSnapshotDto of(final List<AccountSnapshotDto> accounts) {
+        Map<String, CurrencyTotals> totals = new TreeMap<>();
+        int positionCount = 0, unavailable = 0;
+
+        for (AccountSnapshotDto entry : accounts) {
+            if (!entry.isAvailable()) {
+                unavailable++;
+                continue;
+            }
+            AccountDto account = entry.getAccount();
+            String currency = account.getCurrency() == null ? UNKNOWN_CURRENCY : account.getCurrency();
+            totals.computeIfAbsent(currency, key -> new CurrencyTotals()).add(account);
+            positionCount += positionCount(account);
+        }
+
+        return PortfolioSnapshotDto.builder()
+                .accounts(accounts)
+                .totals(totals)
+                .totalPositionCount(positionCount)
+                .unavailableCount(unavailable)
+                .build();
+    }
+
+    private static int positionCount(final AccountDto account) {
+        return account.getPositionCount() == null ? 0 : account.getPositionCount();
+    }
+
+    // Amounts in different currencies are never added up
+    @Data
+    public static class CurrencyTotals {
+        private double balance;       // Sum of balances
+        private double equity;        // Sum of equities
+        private double openNetPnl;    // Sum of open net P&L
+        private int    positionCount; // Sum of open positions of accounts reporting a count
+        private int    accountCount;  // Available accounts in this currency
+
+        private void add(final AccountDto account) {
+            balance += account.getBalance();
+            equity += account.getEquity();
+            openNetPnl += account.getOpenNetPnl();
+            positionCount += positionCount(account);
+            accountCount++;
+        }
+    }
+}
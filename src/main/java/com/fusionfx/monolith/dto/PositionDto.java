@@ -0,0 +1,20 @@
+package com.fusionfx.monolith.dto;
+
+import com.fusionfx.monolith.enums.PositionSide;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class PositionDto {
+    private String       id;           // Broker position ID
+    private String       symbol;       // Instrument symbol
+    private PositionSide side;         // Buy or Sell
+    private double       volume;       // Volume, in lots or units as reported by the broker
+    private double       openPrice;    // Average open price
+    private double       currentPrice; // Last price
+    private double       profit;       // Unrealized Profit and Loss
+    private Instant      openTime;     // Time the position was opened
+}
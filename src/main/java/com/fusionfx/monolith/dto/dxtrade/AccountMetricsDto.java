@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,4 +27,12 @@ public class AccountMetricsDto {
     private double margin;
     private int openPositionsCount;
     private int openOrdersCount;
+    private List<PositionMetrics> positions; // Only returned with include-positions=true
+
+    @Data
+    public static class PositionMetrics {
+        private String positionCode;
+        private double fpl;          // Floating (unrealized) P&L
+        private double currentPrice;
+    }
 }
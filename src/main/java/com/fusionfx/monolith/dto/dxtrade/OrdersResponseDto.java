@@ -0,0 +1,34 @@
+package com.fusionfx.monolith.dto.dxtrade;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class OrdersResponseDto {
+    private List<Order> orders;
+
+    @Data
+    public static class Order {
+        private String account;
+        private long version;
+        private String orderId;
+        private String type;       // MARKET, LIMIT, STOP, ...
+        private String instrument;
+        private String status;     // WORKING, COMPLETED, ...
+        private String side;       // BUY or SELL
+        private Instant issueTime;
+        private List<Leg> legs;
+    }
+
+    @Data
+    public static class Leg {
+        private String instrument;
+        private String positionCode;
+        private double price;
+        private double stopPrice;
+        private double quantity;
+        private double filledQuantity;
+    }
+}
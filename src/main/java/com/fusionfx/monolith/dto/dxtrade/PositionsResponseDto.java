@@ -0,0 +1,23 @@
+package com.fusionfx.monolith.dto.dxtrade;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class PositionsResponseDto {
+    private List<Position> positions;
+
+    @Data
+    public static class Position {
+        private String account;
+        private long version;
+        private String positionCode;
+        private String symbol;
+        private double quantity;
+        private String side;      // BUY or SELL
+        private Instant openTime;
+        private double openPrice;
+    }
+}
@@ -0,0 +1,23 @@
+package com.fusionfx.monolith.dto.matchtrader;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class ActiveOrdersResponseDto {
+    private List<Order> orders;
+
+    @Data
+    public static class Order {
+        private String id;
+        private String symbol;
+        private double volume;
+        private String side;      // BUY or SELL
+        private String type;      // LIMIT or STOP
+        private String status;
+        private double activationPrice;
+        private Instant creationTime;
+    }
+}
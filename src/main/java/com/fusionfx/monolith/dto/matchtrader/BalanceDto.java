@@ -0,0 +1,13 @@
+package com.fusionfx.monolith.dto.matchtrader;
+
+import lombok.Data;
+
+@Data
+public class BalanceDto {
+    private double balance;
+    private double equity;
+    private double margin;
+    private double freeMargin;
+    private double profit;
+    private String currency;
+}
@@ -0,0 +1,28 @@
+package com.fusionfx.monolith.dto.matchtrader;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LoginResponseDto {
+    private String token;                 // Session token, sent as the co-auth cookie
+    private List<TradingAccount> accounts;
+
+    @Data
+    public static class TradingAccount {
+        private String tradingAccountId;  // Account number shown to the user
+        private String tradingApiToken;   // Per-account token, sent as the Auth-trading-api header
+        private Offer offer;
+    }
+
+    @Data
+    public static class Offer {
+        private TradingSystem system;
+    }
+
+    @Data
+    public static class TradingSystem {
+        private String uuid;              // Trading system of the account, part of every /mtr-api path
+    }
+}
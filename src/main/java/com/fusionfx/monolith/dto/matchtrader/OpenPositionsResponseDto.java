@@ -0,0 +1,23 @@
+package com.fusionfx.monolith.dto.matchtrader;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class OpenPositionsResponseDto {
+    private List<Position> positions;
+
+    @Data
+    public static class Position {
+        private String id;
+        private String symbol;
+        private double volume;
+        private String side;      // BUY or SELL
+        private double openPrice;
+        private double currentPrice;
+        private double netProfit;
+        private Instant openTime;
+    }
+}
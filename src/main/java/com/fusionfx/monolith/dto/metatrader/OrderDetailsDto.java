@@ -0,0 +1,22 @@
+package com.fusionfx.monolith.dto.metatrader;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDetailsDto {
+    private String id;
+    private String type;           // ORDER_TYPE_BUY_LIMIT, ORDER_TYPE_SELL_STOP, ...
+    private String state;          // ORDER_STATE_PLACED, ...
+    private String symbol;
+    private double openPrice;
+    private double stopLimitPrice;
+    private double volume;
+    private double currentVolume;
+    private Instant time;
+}
@@ -0,0 +1,24 @@
+package com.fusionfx.monolith.dto.metatrader;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionDetailsDto {
+    private String id;
+    private String type;        // POSITION_TYPE_BUY or POSITION_TYPE_SELL
+    private String symbol;
+    private double volume;
+    private double openPrice;
+    private double currentPrice;
+    private double profit;
+    private double unrealizedProfit;
+    private double swap;
+    private double commission;
+    private Instant time;
+}
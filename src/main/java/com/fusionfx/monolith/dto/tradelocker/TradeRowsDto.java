@@ -0,0 +1,21 @@
+package com.fusionfx.monolith.dto.tradelocker;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Response of /trade/accounts/{accountId}/positions and /orders: one row per entry, in the column order of
+ * /trade/config. Numbers are read as text.
+ */
+@Data
+public class TradeRowsDto {
+    private D d;      // Main data section
+    private String s; // Status
+
+    @Data
+    public static class D {
+        private List<List<String>> positions;
+        private List<List<String>> orders;
+    }
+}
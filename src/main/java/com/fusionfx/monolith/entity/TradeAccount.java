@@ -8,6 +8,8 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Encrypted;
 
@@ -17,6 +19,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "trade_accounts")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_platform", def = "{'userId': 1, 'platform': 1}"),
+        @CompoundIndex(name = "userId_id", def = "{'userId': 1, '_id': 1}")
+})
 public class TradeAccount {
 
     @Id
@@ -0,0 +1,45 @@
+package com.fusionfx.monolith.entity;
+
+import com.fusionfx.monolith.dto.AccountDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trade_account_snapshots")
+@TimeSeries(timeField = "timestamp", metaField = "tradeAccountId", granularity = Granularity.SECONDS)
+public class TradeAccountSnapshot {
+
+    @Id
+    private String  id;              // MongoDB document ID
+    private String  tradeAccountId;  // TradeAccount the snapshot belongs to (time series meta field)
+    private Instant timestamp;       // Time the account details were fetched (time series time field)
+    private double  balance;         // Account balance
+    private double  equity;          // Account equity
+    private Double  marginLevel;     // Margin level
+    private double  openNetPnl;      // Open Net Profit and Loss
+    private Integer positionCount;   // Open Position Count, null when unknown
+
+    public static TradeAccountSnapshot of(final String tradeAccountId, final AccountDto account) {
+        return TradeAccountSnapshot.builder()
+                .tradeAccountId(tradeAccountId)
+                .timestamp(Instant.now())
+                .balance(account.getBalance())
+                .equity(account.getEquity())
+                .marginLevel(account.getMarginLevel())
+                .openNetPnl(account.getOpenNetPnl())
+                .positionCount(account.getPositionCount())
+                .build();
+    }
+
+}
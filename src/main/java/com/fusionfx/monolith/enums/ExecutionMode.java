@@ -0,0 +1,6 @@
+package com.fusionfx.monolith.enums;
+
+public enum ExecutionMode {
+    VIRTUAL,        // One JDK 21 virtual thread per blocking call, bounded elastic on older JVMs
+    BOUNDED_ELASTIC // A bounded pool of platform threads
+}
@@ -0,0 +1,6 @@
+package com.fusionfx.monolith.enums;
+
+public enum NumberMode {
+    DEFAULT, // Jackson's shortest representation, large and small values use scientific notation
+    PLAIN    // Plain decimal notation, rounded to a maximum number of fraction digits
+}
@@ -6,5 +6,6 @@ public enum Platform {
     CTRADER,
     TRADINGVIEW,
     TRADELOCKER,
-    DXTRADE
+    DXTRADE,
+    MATCHTRADER
 }
@@ -0,0 +1,6 @@
+package com.fusionfx.monolith.enums;
+
+public enum PositionSide {
+    BUY,
+    SELL
+}
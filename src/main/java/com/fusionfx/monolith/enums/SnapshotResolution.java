@@ -0,0 +1,32 @@
+package com.fusionfx.monolith.enums;
+
+public enum SnapshotResolution {
+    MINUTE("minute", "trade_account_snapshots_1m"), // 1-minute rollups of the raw snapshots
+    HOUR("hour", "trade_account_snapshots_1h"),     // 1-hour rollups of the 1-minute rollups
+    DAY("day", "trade_account_snapshots_1d");       // 1-day rollups of the 1-hour rollups
+
+    private final String unit;
+    private final String collection;
+
+    SnapshotResolution(final String unit, final String collection) {
+        this.unit = unit;
+        this.collection = collection;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public static SnapshotResolution fromUnit(final String unit) {
+        for (SnapshotResolution resolution : values()) {
+            if (resolution.unit.equalsIgnoreCase(unit)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Invalid resolution: " + unit + ". Allowed values are 'minute', 'hour' or 'day'.");
+    }
+}
@@ -0,0 +1,9 @@
+package com.fusionfx.monolith.enums;
+
+public enum Upstream {
+    TRADELOCKER, // TradeLocker backend-api (LIVE / DEMO)
+    DXTRADE,     // DX Trade broker hosts (per connectionUrl)
+    MATCHTRADER, // Match-Trader broker hosts (per connectionUrl)
+    METAAPI,     // MetaApi client, provisioning and profile hosts
+    AUTH0        // Auth0 tenant (JWKS)
+}
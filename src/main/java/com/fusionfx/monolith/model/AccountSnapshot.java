@@ -0,0 +1,16 @@
+package com.fusionfx.monolith.model;
+
+import com.fusionfx.monolith.dto.AccountDto;
+import lombok.Value;
+
+@Value
+public class AccountSnapshot {
+
+    AccountDto account;  // Last account details fetched from the broker
+    long refreshedAt;    // Epoch millis the details were fetched
+
+    public boolean isOlderThan(final long millis) {
+        return System.currentTimeMillis() - refreshedAt >= millis;
+    }
+
+}
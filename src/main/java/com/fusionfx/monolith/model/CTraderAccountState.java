@@ -0,0 +1,188 @@
+package com.fusionfx.monolith.model;
+
+import com.fusionfx.monolith.client.ctrader.OpenApiMessages;
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The state of one cTrader account, loaded once when the account is authorized on a session and kept current from
+ * the spot and execution events pushed over that session.
+ * <p>
+ * Events are applied on the session's event loop while reads come from request threads, so every field is either
+ * volatile or a concurrent map. The state belongs to one connection ({@link #getGeneration()}); after a reconnect
+ * the account is loaded again.
+ */
+public class CTraderAccountState {
+
+    @Getter
+    private final long ctidTraderAccountId;
+    @Getter
+    private final String tradeAccountId;             // TradeAccount the state was loaded for
+    @Getter
+    private final String host;                       // Host of the CTraderSession the account was authorized on
+    @Getter
+    private final long generation;                   // CTraderSession generation the account was authorized on
+    private final Map<Long, String> symbolNames;
+    private final ConcurrentMap<Long, OpenApiMessages.Position> positions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, OpenApiMessages.Order> orders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Quote> quotes = new ConcurrentHashMap<>();
+    private final Set<Long> subscribedSymbols = ConcurrentHashMap.newKeySet();
+
+    @Getter
+    private volatile boolean ready;                  // Loaded; events received before are already applied
+    private volatile long balance;
+    private volatile int moneyDigits = 2;
+    private volatile Map<Long, Long> netPnl = Map.of();
+    private volatile int pnlMoneyDigits = 2;
+    private long pnlRequestedAt;
+
+    public CTraderAccountState(final long ctidTraderAccountId, final String tradeAccountId, final String host,
+                               final long generation, final Map<Long, String> symbolNames) {
+        this.ctidTraderAccountId = ctidTraderAccountId;
+        this.tradeAccountId = tradeAccountId;
+        this.host = host;
+        this.generation = generation;
+        this.symbolNames = Map.copyOf(symbolNames);
+    }
+
+    public void applyTrader(final OpenApiMessages.Trader trader) {
+        moneyDigits = trader.getMoneyDigits();
+        balance = trader.getBalance();
+    }
+
+    public void applyReconcile(final OpenApiMessages.Reconcile reconcile) {
+        positions.clear();
+        orders.clear();
+        reconcile.getPositions().forEach(this::applyPosition);
+        reconcile.getOrders().forEach(this::applyOrder);
+        ready = true;
+    }
+
+    public void applyExecution(final OpenApiMessages.ExecutionEvent event) {
+        if (event.getPosition() != null) {
+            applyPosition(event.getPosition());
+        }
+        if (event.getOrder() != null) {
+            applyOrder(event.getOrder());
+        }
+    }
+
+    // A side that did not change is not sent and keeps its last value
+    public void applySpot(final OpenApiMessages.SpotEvent event) {
+        quotes.merge(event.getSymbolId(), new Quote(event.getBid(), event.getAsk()), (previous, next) -> new Quote(
+                next.getBid() > 0 ? next.getBid() : previous.getBid(),
+                next.getAsk() > 0 ? next.getAsk() : previous.getAsk()));
+    }
+
+    public void applyUnrealizedPnl(final OpenApiMessages.UnrealizedPnl unrealizedPnl) {
+        pnlMoneyDigits = unrealizedPnl.getMoneyDigits();
+        netPnl = Map.copyOf(unrealizedPnl.getNetByPositionId());
+    }
+
+    /**
+     * Claim the next unrealized P&L request if the last one is at least the interval old.
+     *
+     * @return true if the caller should request the P&L now.
+     */
+    public synchronized boolean claimPnlRefresh(final long intervalMillis) {
+        long now = System.currentTimeMillis();
+        if (now - pnlRequestedAt < intervalMillis) {
+            return false;
+        }
+        pnlRequestedAt = now;
+        return true;
+    }
+
+    /**
+     * Mark the symbols as subscribed to spots.
+     *
+     * @return The symbols that were not subscribed before.
+     */
+    public Set<Long> markSubscribed(final Collection<Long> symbolIds) {
+        Set<Long> added = ConcurrentHashMap.newKeySet();
+        for (Long symbolId : symbolIds) {
+            if (subscribedSymbols.add(symbolId)) {
+                added.add(symbolId);
+            }
+        }
+        return added;
+    }
+
+    public Set<Long> getSubscribedSymbols() {
+        return Set.copyOf(subscribedSymbols);
+    }
+
+    public double getBalance() {
+        return OpenApiMessages.toMoney(balance, moneyDigits);
+    }
+
+    public double getUsedMargin() {
+        return OpenApiMessages.toMoney(positions.values().stream().mapToLong(OpenApiMessages.Position::getUsedMargin).sum(), moneyDigits);
+    }
+
+    public double getOpenNetPnl() {
+        return OpenApiMessages.toMoney(netPnl.values().stream().mapToLong(Long::longValue).sum(), pnlMoneyDigits);
+    }
+
+    public double getNetPnl(final long positionId) {
+        return OpenApiMessages.toMoney(netPnl.getOrDefault(positionId, 0L), pnlMoneyDigits);
+    }
+
+    public Collection<OpenApiMessages.Position> getPositions() {
+        return positions.values();
+    }
+
+    public Collection<OpenApiMessages.Order> getOrders() {
+        return orders.values();
+    }
+
+    public Set<Long> getPositionSymbols() {
+        Set<Long> symbolIds = ConcurrentHashMap.newKeySet();
+        positions.values().forEach(position -> symbolIds.add(position.getSymbolId()));
+        return symbolIds;
+    }
+
+    public String getSymbolName(final long symbolId) {
+        return symbolNames.getOrDefault(symbolId, String.valueOf(symbolId));
+    }
+
+    // The bid or ask as a price, 0 until the first spot event of the symbol
+    public double getBid(final long symbolId) {
+        Quote quote = quotes.get(symbolId);
+        return quote == null ? 0 : OpenApiMessages.toPrice(quote.getBid());
+    }
+
+    public double getAsk(final long symbolId) {
+        Quote quote = quotes.get(symbolId);
+        return quote == null ? 0 : OpenApiMessages.toPrice(quote.getAsk());
+    }
+
+    private void applyPosition(final OpenApiMessages.Position position) {
+        if (position.getStatus() == OpenApiMessages.POSITION_STATUS_OPEN) {
+            positions.put(position.getPositionId(), position);
+        } else {
+            positions.remove(position.getPositionId());
+        }
+    }
+
+    private void applyOrder(final OpenApiMessages.Order order) {
+        if (order.getOrderStatus() == OpenApiMessages.ORDER_STATUS_ACCEPTED) {
+            orders.put(order.getOrderId(), order);
+        } else {
+            orders.remove(order.getOrderId());
+        }
+    }
+
+    @Value
+    private static class Quote {
+        long bid; // In 1/100000 of a unit
+        long ask;
+    }
+
+}
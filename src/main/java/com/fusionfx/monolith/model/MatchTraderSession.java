@@ -0,0 +1,44 @@
+package com.fusionfx.monolith.model;
+
+import com.fusionfx.monolith.dto.matchtrader.LoginResponseDto;
+import lombok.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One Match-Trader broker login, shared by every trading account it returned.
+ * <p>
+ * The session token authenticates the login; each trading account additionally carries its own trading API token
+ * and the trading system its /mtr-api calls are routed to.
+ */
+@Value
+public class MatchTraderSession {
+
+    String token;
+    Map<String, Account> accounts; // By tradingAccountId
+
+    public static MatchTraderSession from(final LoginResponseDto response) {
+        if (response.getToken() == null) {
+            throw new RuntimeException("No session token returned");
+        }
+
+        Map<String, Account> accounts = new HashMap<>();
+        List<LoginResponseDto.TradingAccount> tradingAccounts = response.getAccounts() == null ? List.of() : response.getAccounts();
+        for (LoginResponseDto.TradingAccount tradingAccount : tradingAccounts) {
+            if (tradingAccount.getOffer() != null && tradingAccount.getOffer().getSystem() != null) {
+                accounts.put(tradingAccount.getTradingAccountId(), new Account(
+                        tradingAccount.getTradingApiToken(), tradingAccount.getOffer().getSystem().getUuid()));
+            }
+        }
+        return new MatchTraderSession(response.getToken(), Map.copyOf(accounts));
+    }
+
+    @Value
+    public static class Account {
+        String tradingApiToken;
+        String systemUuid;
+    }
+
+}
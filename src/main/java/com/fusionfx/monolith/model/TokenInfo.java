@@ -14,9 +14,14 @@ public class TokenInfo {
     private String accessToken;
     private String refreshToken;
     private long expiryTime;
+    private long refreshExpiryTime; // Until when the refresh token can be exchanged; 0 without a refresh token
 
     public boolean isExpired() {
         return System.currentTimeMillis() >= expiryTime;
     }
 
+    public boolean isExpiringWithin(final long millis) {
+        return System.currentTimeMillis() + millis >= expiryTime;
+    }
+
 }
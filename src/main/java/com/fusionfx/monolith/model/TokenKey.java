@@ -0,0 +1,18 @@
+package com.fusionfx.monolith.model;
+
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import lombok.Value;
+
+@Value
+public class TokenKey {
+
+    Platform platform;
+    String userId;
+    String accountNumber;
+
+    public static TokenKey of(final Platform platform, final TradeAccount tradeAccount) {
+        return new TokenKey(platform, tradeAccount.getUserId(), tradeAccount.getAccountNumber());
+    }
+
+}
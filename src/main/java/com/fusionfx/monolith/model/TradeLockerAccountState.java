@@ -0,0 +1,17 @@
+package com.fusionfx.monolith.model;
+
+import lombok.Value;
+
+/**
+ * The account details columns of a TradeLocker /state response that the data service uses.
+ * <p>
+ * Columns the server does not report are 0.
+ */
+@Value
+public class TradeLockerAccountState {
+    double balance;          // balance
+    double projectedBalance; // projectedBalance, the equity
+    double openNetPnl;       // openNetPnL
+    int    positionsCount;   // positionsCount
+    double maintMarginReq;   // maintMarginReq
+}
@@ -0,0 +1,164 @@
+package com.fusionfx.monolith.model;
+
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.dto.tradelocker.AccountDetailsConfigDto;
+import com.fusionfx.monolith.enums.PositionSide;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Column layout of a TradeLocker server, precomputed once from its /trade/config response.
+ */
+@Getter
+public class TradeLockerColumnLayout {
+
+    private final Map<String, Integer> accountDetailsColumns; // Column id -> index in accountDetailsData
+    private final Map<String, Integer> positionColumns;       // Column id -> index in a positions row
+    private final Map<String, Integer> orderColumns;          // Column id -> index in an orders row
+    private final long loadedAt;                              // Epoch millis the config was fetched
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    // Indexes of the columns read on every refresh, -1 if the server does not report them
+    private final int balanceIndex;
+    private final int projectedBalanceIndex;
+    private final int openNetPnlIndex;
+    private final int positionsCountIndex;
+    private final int maintMarginReqIndex;
+
+    private TradeLockerColumnLayout(final Map<String, Integer> accountDetailsColumns,
+                                    final Map<String, Integer> positionColumns,
+                                    final Map<String, Integer> orderColumns,
+                                    final long loadedAt) {
+        this.accountDetailsColumns = accountDetailsColumns;
+        this.positionColumns = positionColumns;
+        this.orderColumns = orderColumns;
+        this.loadedAt = loadedAt;
+        this.balanceIndex = indexOf("balance");
+        this.projectedBalanceIndex = indexOf("projectedBalance");
+        this.openNetPnlIndex = indexOf("openNetPnL");
+        this.positionsCountIndex = indexOf("positionsCount");
+        this.maintMarginReqIndex = indexOf("maintMarginReq");
+    }
+
+    public static TradeLockerColumnLayout from(final AccountDetailsConfigDto accountDetailsConfig) {
+        var d = accountDetailsConfig.getD();
+        return new TradeLockerColumnLayout(
+                indexColumns(d.getAccountDetailsConfig()),
+                indexColumns(d.getPositionsConfig()),
+                indexColumns(d.getOrdersConfig()),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Index of the column in the account details data, or -1 if the server does not report it.
+     */
+    public int indexOf(final String columnId) {
+        return accountDetailsColumns.getOrDefault(columnId, -1);
+    }
+
+    /**
+     * Read the columns the data service uses from an /state accountDetailsData row.
+     */
+    public TradeLockerAccountState toAccountState(final double[] data) {
+        return new TradeLockerAccountState(
+                valueAt(data, balanceIndex),
+                valueAt(data, projectedBalanceIndex),
+                valueAt(data, openNetPnlIndex),
+                (int) valueAt(data, positionsCountIndex),
+                valueAt(data, maintMarginReqIndex));
+    }
+
+    /**
+     * Read a row of /positions. TradeLocker reports the instrument ID only, so it is used as the symbol.
+     */
+    public PositionDto toPosition(final List<String> row) {
+        return PositionDto.builder()
+                .id(textAt(row, positionColumns, "id"))
+                .symbol(textAt(row, positionColumns, "tradableInstrumentId"))
+                .side(sideAt(row, positionColumns))
+                .volume(numberAt(row, positionColumns, "qty"))
+                .openPrice(numberAt(row, positionColumns, "avgPrice"))
+                .profit(numberAt(row, positionColumns, "unrealizedPl"))
+                .openTime(timeAt(row, positionColumns, "openDate"))
+                .build();
+    }
+
+    /**
+     * Read a row of /orders. TradeLocker reports the instrument ID only, so it is used as the symbol.
+     */
+    public OrderDto toOrder(final List<String> row) {
+        return OrderDto.builder()
+                .id(textAt(row, orderColumns, "id"))
+                .symbol(textAt(row, orderColumns, "tradableInstrumentId"))
+                .side(sideAt(row, orderColumns))
+                .type(textAt(row, orderColumns, "type"))
+                .status(textAt(row, orderColumns, "status"))
+                .volume(numberAt(row, orderColumns, "qty"))
+                .filledVolume(numberAt(row, orderColumns, "filledQty"))
+                .price(numberAt(row, orderColumns, "price"))
+                .stopPrice(numberAt(row, orderColumns, "stopPrice"))
+                .createdTime(timeAt(row, orderColumns, "createdDate"))
+                .build();
+    }
+
+    public boolean isOlderThan(final long millis) {
+        return System.currentTimeMillis() - loadedAt >= millis;
+    }
+
+    // Missing columns, short rows and null cells read as 0
+    private static double valueAt(final double[] data, final int index) {
+        if (index < 0 || index >= data.length || Double.isNaN(data[index])) {
+            return 0;
+        }
+        return data[index];
+    }
+
+    // Missing columns and null cells read as null
+    private static String textAt(final List<String> row, final Map<String, Integer> columns, final String columnId) {
+        int index = columns.getOrDefault(columnId, -1);
+        return index < 0 || index >= row.size() ? null : row.get(index);
+    }
+
+    private static double numberAt(final List<String> row, final Map<String, Integer> columns, final String columnId) {
+        String text = textAt(row, columns, columnId);
+        if (text == null) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Epoch millis
+    private static Instant timeAt(final List<String> row, final Map<String, Integer> columns, final String columnId) {
+        double millis = numberAt(row, columns, columnId);
+        return millis > 0 ? Instant.ofEpochMilli((long) millis) : null;
+    }
+
+    private static PositionSide sideAt(final List<String> row, final Map<String, Integer> columns) {
+        return "sell".equalsIgnoreCase(textAt(row, columns, "side")) ? PositionSide.SELL : PositionSide.BUY;
+    }
+
+    private static Map<String, Integer> indexColumns(final AccountDetailsConfigDto.Config config) {
+        if (config == null || config.getColumns() == null) {
+            return Map.of();
+        }
+
+        List<AccountDetailsConfigDto.Config.Column> columns = config.getColumns();
+        Map<String, Integer> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            indexes.put(columns.get(i).getId(), i);
+        }
+        return Collections.unmodifiableMap(indexes);
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.fusionfx.monolith.model;
+
+import com.fusionfx.monolith.dto.BookDeltaDto;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * In-memory table of the open positions or orders of one account, indexed by broker ID.
+ * <p>
+ * Every broker poll that changes the table bumps the version and stamps the changed entries with it, so a client
+ * that supplies the version it last saw receives only what was opened, modified or closed since. Closed IDs are
+ * remembered for {@code retainedVersions} versions; older clients get a full snapshot instead.
+ * <p>
+ * Versions are handed out as {@code <epoch>.<version>} tokens. The epoch is random per book, so a token issued by a
+ * book that was since evicted, or by another instance, never matches and yields a snapshot instead of a wrong delta.
+ */
+public class VersionedBook<T> {
+
+    private final Function<T, String> idOf;
+    private final int retainedVersions;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    // Guarded by this
+    private final Map<String, Entry<T>> open = new LinkedHashMap<>();
+    private final Map<String, Long> closedAt = new HashMap<>();
+    private long version;
+    private long oldestDeltaVersion; // Deltas are only complete from this version on
+    private long refreshedAt;        // Epoch millis of the last broker poll
+
+    public VersionedBook(final Function<T, String> idOf, final int retainedVersions) {
+        this.idOf = idOf;
+        this.retainedVersions = retainedVersions;
+    }
+
+    /**
+     * Replace the table with the entries of a broker poll.
+     *
+     * @param entries Every open entry reported by the broker.
+     * @return The version after the update; unchanged if nothing changed.
+     */
+    public synchronized long apply(final List<T> entries) {
+        long next = version + 1;
+        boolean changed = false;
+        Map<String, T> current = new LinkedHashMap<>();
+        for (T entry : entries) {
+            current.put(idOf.apply(entry), entry);
+        }
+
+        // Closed: open before, missing now
+        Iterator<Map.Entry<String, Entry<T>>> iterator = open.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String id = iterator.next().getKey();
+            if (!current.containsKey(id)) {
+                iterator.remove();
+                closedAt.put(id, next);
+                changed = true;
+            }
+        }
+
+        // Opened or modified
+        for (Map.Entry<String, T> entry : current.entrySet()) {
+            Entry<T> previous = open.get(entry.getKey());
+            if (previous == null) {
+                open.put(entry.getKey(), new Entry<>(entry.getValue(), next, next));
+                closedAt.remove(entry.getKey()); // Reopened under the same ID
+                changed = true;
+            } else if (!Objects.equals(previous.getValue(), entry.getValue())) {
+                open.put(entry.getKey(), new Entry<>(entry.getValue(), previous.getOpenedAt(), next));
+                changed = true;
+            }
+        }
+
+        refreshedAt = System.currentTimeMillis();
+        if (changed) {
+            version = next;
+            pruneClosed();
+        }
+        return version;
+    }
+
+    /**
+     * Get the changes since the given version.
+     *
+     * @param accountId The TradeAccount document ID, copied into the delta.
+     * @param since     The version token the client holds; null, a token of another epoch or a version older than
+     *                  the retained history returns a snapshot.
+     * @return The delta, or a full snapshot.
+     */
+    public synchronized BookDeltaDto<T> since(final String accountId, final String since) {
+        List<T> opened = new ArrayList<>();
+        List<T> modified = new ArrayList<>();
+        List<String> closed = new ArrayList<>();
+        long fromVersion = versionOf(since);
+        boolean snapshot = fromVersion <= 0 || fromVersion < oldestDeltaVersion || fromVersion > version;
+
+        for (Entry<T> entry : open.values()) {
+            if (snapshot || entry.getOpenedAt() > fromVersion) {
+                opened.add(entry.getValue());
+            } else if (entry.getModifiedAt() > fromVersion) {
+                modified.add(entry.getValue());
+            }
+        }
+        if (!snapshot) {
+            closedAt.forEach((id, at) -> {
+                if (at > fromVersion) {
+                    closed.add(id);
+                }
+            });
+        }
+
+        return BookDeltaDto.<T>builder()
+                .accountId(accountId)
+                .fromVersion(since)
+                .version(epoch + "." + version)
+                .snapshot(snapshot)
+                .opened(opened)
+                .modified(modified)
+                .closed(closed)
+                .build();
+    }
+
+    public synchronized boolean isOlderThan(final long millis) {
+        return System.currentTimeMillis() - refreshedAt >= millis;
+    }
+
+    // The version of a token of this book's epoch, -1 for anything else
+    private long versionOf(final String token) {
+        if (token == null) {
+            return -1;
+        }
+        int separator = token.lastIndexOf('.');
+        if (separator < 0 || !epoch.equals(token.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Forget closed IDs older than the retained versions; deltas from before then become snapshots
+    private void pruneClosed() {
+        long cutoff = version - retainedVersions;
+        if (cutoff <= oldestDeltaVersion) {
+            return;
+        }
+        closedAt.values().removeIf(at -> at <= cutoff);
+        oldestDeltaVersion = cutoff;
+    }
+
+    @Value
+    private static class Entry<T> {
+        T value;
+        long openedAt;   // Version the entry appeared at
+        long modifiedAt; // Version the entry last changed at
+    }
+
+}
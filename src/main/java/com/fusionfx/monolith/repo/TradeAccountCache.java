@@ -0,0 +1,204 @@
+package com.fusionfx.monolith.repo;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.repo.projection.TradeAccountListView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decrypted trade accounts keyed by id, so the {@code @Encrypted} fields are only decrypted when an account is
+ * loaded cold.
+ * <p>
+ * Entries are short-lived and size-bounded. The encrypted fields are held as {@code char[]} and overwritten with
+ * zeros when the entry is evicted, expired or invalidated; every read hands out a fresh {@link TradeAccount}, so
+ * callers may keep or modify it without touching the cache. {@link TradeAccountEventListener} invalidates an account
+ * on save and delete.
+ */
+@Component
+public class TradeAccountCache {
+
+    private final TradeAccountRepo tradeAccountRepo;
+    private final AsyncCache<String, CachedTradeAccount> accounts;
+
+    public TradeAccountCache(final AppProperties appProperties,
+                             final TradeAccountRepo tradeAccountRepo,
+                             final MeterRegistry meterRegistry) {
+        this.tradeAccountRepo = tradeAccountRepo;
+        this.accounts = Caffeine.newBuilder()
+                .expireAfterWrite(appProperties.getAccountCache().getTtl())
+                .maximumSize(appProperties.getAccountCache().getMaximumSize())
+                .removalListener((String id, CachedTradeAccount cached, RemovalCause cause) -> {
+                    if (cached != null) {
+                        cached.wipe();
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        // Exported as cache.gets / cache.evictions / cache.size with cache=tradeAccounts
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "tradeAccounts");
+    }
+
+    /**
+     * Get a trade account by id if it is owned by the user.
+     *
+     * @param id     The trade account id.
+     * @param userId The user that must own the account.
+     * @return A Mono containing a copy of the decrypted account, or empty if it does not exist or is not owned by the user.
+     */
+    public Mono<TradeAccount> findByIdAndUserId(final String id, final String userId) {
+        return findById(id).filter(tradeAccount -> userId.equals(tradeAccount.getUserId()));
+    }
+
+    /**
+     * Get a trade account by id. Concurrent misses for the same id share a single MongoDB read.
+     *
+     * @param id The trade account id.
+     * @return A Mono containing a copy of the decrypted account, or empty if it does not exist.
+     */
+    public Mono<TradeAccount> findById(final String id) {
+        return Mono.fromFuture(() -> accounts.get(id, (key, executor) -> load(key)), true)
+                .flatMap(cached -> Mono.justOrEmpty(cached.toTradeAccount())
+                        // Wiped between the lookup and the copy: read it again instead of handing out zeroed fields
+                        .switchIfEmpty(Mono.defer(() -> tradeAccountRepo.findById(id))));
+    }
+
+    /**
+     * Get all trade accounts of a user. The ids are read with a projection without encrypted fields; accounts that
+     * are not cached yet are loaded and decrypted with a single query.
+     *
+     * @param userId The owner of the trade accounts.
+     * @return A Flux of copies of the decrypted accounts.
+     */
+    public Flux<TradeAccount> findAllByUserId(final String userId) {
+        return tradeAccountRepo.findAllByUserId(userId, TradeAccountListView.class)
+                .map(TradeAccountListView::getId)
+                .collectList()
+                .flatMapMany(ids -> findAllByIdInAndUserId(ids, userId));
+    }
+
+    /**
+     * Get the trade accounts with the given ids that are owned by the user. Accounts that are not cached yet are
+     * loaded and decrypted with a single query.
+     *
+     * @param ids    The trade account ids.
+     * @param userId The user that must own the accounts; other ids are skipped.
+     * @return A Flux of copies of the decrypted accounts, in the order of the ids.
+     */
+    public Flux<TradeAccount> findAllByIdInAndUserId(final Collection<String> ids, final String userId) {
+        return Mono.fromFuture(() -> accounts.getAll(ids, (keys, executor) -> loadAll(keys)), true)
+                .flatMapIterable(Map::entrySet)
+                .concatMap(entry -> Mono.justOrEmpty(entry.getValue().toTradeAccount())
+                        .switchIfEmpty(Mono.defer(() -> tradeAccountRepo.findById(entry.getKey()))))
+                .filter(tradeAccount -> userId.equals(tradeAccount.getUserId()));
+    }
+
+    public void invalidate(final String id) {
+        accounts.synchronous().invalidate(id);
+    }
+
+    // The cached entry, null if absent or still loading; lets tests check the zeroing
+    CachedTradeAccount getIfPresent(final String id) {
+        CompletableFuture<CachedTradeAccount> cached = accounts.getIfPresent(id);
+        return cached == null ? null : cached.getNow(null);
+    }
+
+    private CompletableFuture<CachedTradeAccount> load(final String id) {
+        return tradeAccountRepo.findById(id)
+                .map(CachedTradeAccount::new)
+                .toFuture(); // Completes with null when the account does not exist, which is not cached
+    }
+
+    private CompletableFuture<Map<String, CachedTradeAccount>> loadAll(final Set<? extends String> ids) {
+        return tradeAccountRepo.findAllById(List.copyOf(ids))
+                .collectMap(TradeAccount::getId, CachedTradeAccount::new)
+                .toFuture(); // Ids that do not exist are left out and not cached
+    }
+
+    // The decrypted account with its encrypted fields moved into char arrays that can be zeroed
+    static final class CachedTradeAccount {
+
+        private final TradeAccount template;
+        private final char[] accountNumber;
+        private final char[] cloudAccountNumber;
+        private final char[] email;
+        private final char[] password;
+        private boolean wiped;
+
+        CachedTradeAccount(final TradeAccount tradeAccount) {
+            this.template = copy(tradeAccount);
+            this.template.setAccountNumber(null);
+            this.template.setCloudAccountNumber(null);
+            this.template.setEmail(null);
+            this.template.setPassword(null);
+            this.accountNumber = toChars(tradeAccount.getAccountNumber());
+            this.cloudAccountNumber = toChars(tradeAccount.getCloudAccountNumber());
+            this.email = toChars(tradeAccount.getEmail());
+            this.password = toChars(tradeAccount.getPassword());
+        }
+
+        // Null once wiped
+        synchronized TradeAccount toTradeAccount() {
+            if (wiped) {
+                return null;
+            }
+
+            var tradeAccount = copy(template);
+            tradeAccount.setAccountNumber(toString(accountNumber));
+            tradeAccount.setCloudAccountNumber(toString(cloudAccountNumber));
+            tradeAccount.setEmail(toString(email));
+            tradeAccount.setPassword(toString(password));
+            return tradeAccount;
+        }
+
+        // The live array, zeroed by wipe()
+        char[] password() {
+            return password;
+        }
+
+        synchronized void wipe() {
+            wiped = true;
+            zero(accountNumber);
+            zero(cloudAccountNumber);
+            zero(email);
+            zero(password);
+        }
+
+        private static TradeAccount copy(final TradeAccount source) {
+            return new TradeAccount(source.getId(), source.getUserId(), source.getName(), source.getBroker(),
+                    source.getPropFirm(), source.getPlatform(), source.getAccountNumber(),
+                    source.getCloudAccountNumber(), source.getEmail(), source.getUsername(), source.getPassword(),
+                    source.getType(), source.getLeverage(), source.getConnectionUrl(), source.getServer(),
+                    source.getDomain(), source.getCreatedAt(), source.getEditedAt());
+        }
+
+        private static char[] toChars(final String value) {
+            return value == null ? null : value.toCharArray();
+        }
+
+        private static String toString(final char[] value) {
+            return value == null ? null : new String(value);
+        }
+
+        private static void zero(final char[] value) {
+            if (value != null) {
+                Arrays.fill(value, '\0');
+            }
+        }
+    }
+
+}
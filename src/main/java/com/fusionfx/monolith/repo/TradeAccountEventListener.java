@@ -0,0 +1,42 @@
+package com.fusionfx.monolith.repo;
+
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.service.data.AccountRefreshScheduler;
+import com.fusionfx.monolith.service.data.CTraderDataService;
+import com.fusionfx.monolith.service.data.PositionBookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps in-memory state derived from trade accounts in step with saves and deletes.
+ */
+@Component
+@RequiredArgsConstructor
+public class TradeAccountEventListener extends AbstractMongoEventListener<TradeAccount> {
+
+    private final AccountRefreshScheduler accountRefreshScheduler;
+    private final TradeAccountCache tradeAccountCache;
+    private final PositionBookService positionBookService;
+    private final CTraderDataService cTraderDataService;
+
+    @Override
+    public void onAfterSave(final AfterSaveEvent<TradeAccount> event) {
+        // The refresh scheduler resolves the account through the cache, so it picks up the new credentials
+        tradeAccountCache.invalidate(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(final AfterDeleteEvent<TradeAccount> event) {
+        Object id = event.getSource().get("_id");
+        if (id != null) {
+            tradeAccountCache.invalidate(id.toString());
+            positionBookService.remove(id.toString());
+            accountRefreshScheduler.unregister(id.toString());
+            cTraderDataService.remove(id.toString());
+        }
+    }
+
+}
@@ -6,10 +6,20 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
+/**
+ * The {@code Class<T>} variants return a projection from {@code repo.projection}; only the fields of the projection
+ * are read from MongoDB.
+ */
 @Repository
 public interface TradeAccountRepo extends ReactiveMongoRepository<TradeAccount, String> {
     Flux<TradeAccount> findAllByUserId(String userId);
+    <T> Flux<T> findAllByUserId(String userId, Class<T> type);
+    Flux<TradeAccount> findAllByIdInAndUserId(Collection<String> ids, String userId);
     Mono<TradeAccount> findByIdAndUserId(String accountNumber, String userId);
+    <T> Mono<T> findByIdAndUserId(String id, String userId, Class<T> type);
+    <T> Mono<T> findProjectedById(String id, Class<T> type);
+    Mono<Boolean> existsByIdAndUserId(String id, String userId);
 
 }
-
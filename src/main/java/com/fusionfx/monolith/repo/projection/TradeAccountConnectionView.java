@@ -0,0 +1,20 @@
+package com.fusionfx.monolith.repo.projection;
+
+import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.enums.Platform;
+
+/**
+ * Where an account lives: platform, environment and broker addresses, without credentials.
+ */
+public interface TradeAccountConnectionView {
+    String getId();
+    String getUserId();
+    Platform getPlatform();
+    AccountType getType();
+    String getAccountNumber();
+    String getCloudAccountNumber();
+    String getConnectionUrl();
+    String getServer();
+    String getDomain();
+    int getLeverage();
+}
@@ -0,0 +1,18 @@
+package com.fusionfx.monolith.repo.projection;
+
+import com.fusionfx.monolith.enums.Platform;
+
+/**
+ * What a broker login needs, and nothing else.
+ */
+public interface TradeAccountCredentialsView {
+    String getId();
+    String getUserId();
+    Platform getPlatform();
+    String getAccountNumber();
+    String getEmail();
+    String getUsername();
+    String getPassword();
+    String getServer();
+    String getConnectionUrl();
+}
@@ -0,0 +1,24 @@
+package com.fusionfx.monolith.repo.projection;
+
+import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.enums.Platform;
+
+import java.time.LocalDateTime;
+
+/**
+ * What account lists show: the account number users tell their accounts apart by, but no credentials.
+ */
+public interface TradeAccountListView {
+    String getId();
+    String getUserId();
+    String getName();
+    String getBroker();
+    String getPropFirm();
+    String getAccountNumber();
+    Platform getPlatform();
+    AccountType getType();
+    int getLeverage();
+    String getServer();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getEditedAt();
+}
@@ -13,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,13 +26,16 @@ public class AuthService {
     private final AppProperties appProperties;
     private final ManagementAPI managementAPI;
     private final UserAccountRepo userAccountRepo;
+    private final Scheduler blockingScheduler;
 
     public AuthService(final AppProperties appProperties,
                        final ManagementAPI managementAPI,
-                       final UserAccountRepo userAccountRepo) {
+                       final UserAccountRepo userAccountRepo,
+                       final Scheduler blockingScheduler) {
         this.appProperties = appProperties;
         this.managementAPI = managementAPI;
         this.userAccountRepo = userAccountRepo;
+        this.blockingScheduler = blockingScheduler;
         this.webClient = WebClient.builder()
                 .baseUrl(appProperties.getAuth0().getIssuer())
                 .build();
@@ -45,7 +49,8 @@ public class AuthService {
      */
     public Mono<Auth0TokenResponse> createUserAccount(final CreateUserRequest createUserRequest) {
         return Mono.fromCallable(() -> createAuth0UserAccount(createUserRequest))
-                .map(auth0UserId -> {
+                .subscribeOn(blockingScheduler) // The Auth0 SDK blocks, keep it off the event loop
+                .flatMap(auth0UserId -> {
                     // Create a UserAccount object to save in MongoDB
                     UserAccount userAccount = new UserAccount();
                     userAccount.setUserId(auth0UserId);  // Set Auth0 userId in MongoDB
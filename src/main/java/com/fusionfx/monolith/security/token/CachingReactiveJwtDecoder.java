@@ -0,0 +1,131 @@
+package com.fusionfx.monolith.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies Auth0 bearer tokens once and serves repeated tokens from a cache.
+ * <p>
+ * Verified tokens are keyed by the SHA-256 of the token and expire at their {@code exp} claim, so a dashboard that
+ * reuses one token for a whole session pays the RSA signature check once. Signing keys come from the
+ * {@link JwkSetProvider}, which keeps them current in the background.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final JwkSetProvider jwkSetProvider;
+    private final ReactiveJwtDecoder delegate;
+    private final Cache<String, Jwt> verified;
+
+    public CachingReactiveJwtDecoder(final JwkSetProvider jwkSetProvider,
+                                     final OAuth2TokenValidator<Jwt> validator,
+                                     final long maximumSize,
+                                     final MeterRegistry meterRegistry) {
+        this.jwkSetProvider = jwkSetProvider;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new JwtExpiry())
+                .recordStats()
+                .build();
+
+        var nimbusDecoder = new NimbusReactiveJwtDecoder(this::process);
+        nimbusDecoder.setJwtValidator(validator);
+        this.delegate = nimbusDecoder;
+
+        // Exported as cache.gets / cache.evictions / cache.size with cache=verifiedJwts
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedJwts");
+    }
+
+    @Override
+    public Mono<Jwt> decode(final String token) throws JwtException {
+        String key = hash(token);
+        Jwt jwt = verified.getIfPresent(key);
+        if (jwt != null) {
+            return Mono.just(jwt);
+        }
+
+        return delegate.decode(token)
+                .doOnNext(decoded -> {
+                    if (decoded.getExpiresAt() != null) {
+                        verified.put(key, decoded);
+                    }
+                });
+    }
+
+    // Verify the signature with the current Auth0 keys; claims are validated afterward by the Spring validators
+    private Mono<JWTClaimsSet> process(final JWT jwt) {
+        if (!(jwt instanceof SignedJWT signedJwt)) {
+            return Mono.error(new BadJwtException("Unsigned JWTs are not accepted"));
+        }
+
+        return jwkSetProvider.getKeys(signedJwt.getHeader().getKeyID())
+                .map(keys -> {
+                    var processor = new DefaultJWTProcessor<SecurityContext>();
+                    processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, new ImmutableJWKSet<>(keys)));
+                    processor.setJWTClaimsSetVerifier((claims, context) -> { });
+                    try {
+                        return processor.process(signedJwt, null);
+                    } catch (BadJOSEException e) {
+                        throw new BadJwtException("Failed to verify the JWT: " + e.getMessage(), e);
+                    } catch (JOSEException e) {
+                        throw new JwtException("Failed to verify the JWT: " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    private static String hash(final String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Expire each token at its exp claim
+    private static class JwtExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Jwt jwt, final long currentTime) {
+            long remainingMillis = jwt.getExpiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Jwt jwt, final long currentTime, final long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Jwt jwt, final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
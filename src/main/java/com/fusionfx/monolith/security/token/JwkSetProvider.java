@@ -0,0 +1,120 @@
+package com.fusionfx.monolith.security.token;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.WebClientRegistry;
+import com.fusionfx.monolith.enums.Upstream;
+import com.nimbusds.jose.jwk.JWKSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The Auth0 signing keys (JWKS), fetched at startup and refreshed in the background.
+ * <p>
+ * Auth0 publishes the next signing key before it rotates, so the background refresh normally picks it up before
+ * the first token signed with it arrives. A token with an unknown key id still triggers a refresh, shared by all
+ * concurrent callers and at most once per {@code jwks-min-refresh-interval}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwkSetProvider implements SmartLifecycle {
+
+    private static final String JWKS_PATH = ".well-known/jwks.json";
+
+    private final AppProperties appProperties;
+    private final WebClientRegistry webClientRegistry;
+
+    private final AtomicReference<JWKSet> current = new AtomicReference<>(new JWKSet());
+    private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+    private volatile long lastFetchAt;
+    private volatile Disposable refresher;
+
+    /**
+     * Get the key set that contains the given key id, refreshing it once if the key is unknown.
+     *
+     * @param keyId The {@code kid} header of the token, may be null.
+     * @return A Mono containing the current key set; the key may still be missing if Auth0 does not publish it.
+     */
+    public Mono<JWKSet> getKeys(final String keyId) {
+        JWKSet keys = current.get();
+        if (keyId != null && keys.getKeyByKeyId(keyId) != null) {
+            return Mono.just(keys);
+        }
+
+        long minRefreshInterval = appProperties.getAuth0().getJwksMinRefreshInterval().toMillis();
+        if (System.currentTimeMillis() - lastFetchAt < minRefreshInterval) {
+            return Mono.just(keys);
+        }
+
+        log.info("JWKS | Unknown key id {}, refreshing", keyId);
+        return refresh();
+    }
+
+    // Fetch the key set, sharing a running fetch with concurrent callers
+    private Mono<JWKSet> refresh() {
+        Mono<JWKSet> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+
+        Mono<JWKSet> fetch = fetch()
+                .doOnNext(current::set)
+                .doOnError(error -> log.warn("JWKS | Refresh failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.just(current.get()))
+                .doFinally(signal -> inFlight.set(null))
+                .cache();
+
+        return inFlight.compareAndSet(null, fetch) ? fetch : refresh();
+    }
+
+    private Mono<JWKSet> fetch() {
+        return webClientRegistry.get(Upstream.AUTH0, appProperties.getAuth0().getIssuer())
+                .get()
+                .uri(JWKS_PATH)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(10))
+                .map(this::parse)
+                .doOnSubscribe(subscription -> lastFetchAt = System.currentTimeMillis()); // Failed fetches count too
+    }
+
+    private JWKSet parse(final String json) {
+        try {
+            return JWKSet.parse(json);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JWKS response: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        // The first refresh runs immediately, so the keys are loaded before the first request arrives
+        refresher = Flux.interval(Duration.ZERO, appProperties.getAuth0().getJwksRefreshInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe(keys -> log.debug("JWKS | Loaded {} signing keys", keys.getKeys().size()));
+    }
+
+    @Override
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+            refresher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refresher != null && !refresher.isDisposed();
+    }
+
+}
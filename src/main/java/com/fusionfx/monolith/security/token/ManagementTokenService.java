@@ -0,0 +1,118 @@
+package com.fusionfx.monolith.security.token;
+
+import com.auth0.client.mgmt.ManagementAPI;
+import com.auth0.json.auth.TokenHolder;
+import com.fusionfx.monolith.AppProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the Auth0 Management API token of {@link ManagementAPI} valid.
+ * <p>
+ * The token is fetched at startup and refreshed on a timer {@code management-token-refresh-ahead} before it expires,
+ * so requests normally find a valid token without calling Auth0. The Auth0 SDK is blocking, so every call runs on
+ * the blocking scheduler instead of the event loop.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ManagementTokenService implements SmartLifecycle {
+
+    private final AppProperties appProperties;
+    private final ManagementAPI managementAPI;
+    private final TokenManagementService tokenManagementService;
+    private final Scheduler blockingScheduler;
+
+    private final AtomicReference<Mono<Void>> inFlight = new AtomicReference<>();
+    private volatile long expiresAt;
+    private volatile Disposable nextRefresh;
+    private volatile boolean running;
+
+    /**
+     * Make sure the Management API holds a valid token, fetching one if the timer has not done so yet.
+     *
+     * @return A Mono that completes once the token is valid; immediately in the common case.
+     */
+    public Mono<Void> ensureValidToken() {
+        if (System.currentTimeMillis() < expiresAt) {
+            return Mono.empty();
+        }
+        return refresh();
+    }
+
+    // Fetch a new token, sharing a running fetch with concurrent callers
+    private Mono<Void> refresh() {
+        Mono<Void> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+
+        Mono<Void> fetch = Mono.fromCallable(tokenManagementService::fetchNewToken)
+                .subscribeOn(blockingScheduler)
+                .doOnNext(this::apply)
+                .doFinally(signal -> inFlight.set(null))
+                .then()
+                .cache();
+
+        return inFlight.compareAndSet(null, fetch) ? fetch : refresh();
+    }
+
+    private void apply(final TokenHolder tokenHolder) {
+        managementAPI.setApiToken(tokenHolder.getAccessToken());
+
+        // expires_in is in seconds
+        long expiresInMillis = Duration.ofSeconds(tokenHolder.getExpiresIn()).toMillis();
+        expiresAt = System.currentTimeMillis() + expiresInMillis;
+
+        long refreshAhead = appProperties.getAuth0().getManagementTokenRefreshAhead().toMillis();
+        scheduleRefresh(Duration.ofMillis(Math.max(expiresInMillis - refreshAhead, 0)));
+        log.info("OrgIam | ManagementTokenService | Token valid for {}s", tokenHolder.getExpiresIn());
+    }
+
+    private void scheduleRefresh(final Duration delay) {
+        if (!running) {
+            return;
+        }
+
+        // Only the delay is held in nextRefresh, so replacing it never cancels a fetch that is already running
+        Disposable previous = nextRefresh;
+        nextRefresh = Mono.delay(delay)
+                .subscribe(tick -> refresh().subscribe(null, error -> {
+                    log.error("OrgIam | ManagementTokenService | Token refresh failed: {}", error.getMessage());
+                    scheduleRefresh(appProperties.getAuth0().getManagementTokenRetryInterval());
+                }));
+
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        scheduleRefresh(Duration.ZERO);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (nextRefresh != null) {
+            nextRefresh.dispose();
+            nextRefresh = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+}
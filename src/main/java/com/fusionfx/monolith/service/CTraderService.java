@@ -1,4 +0,0 @@
-package com.fusionfx.monolith.service;
-
-public class CTraderService {
-}
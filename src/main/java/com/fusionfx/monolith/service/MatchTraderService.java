@@ -1,7 +0,0 @@
-package com.fusionfx.monolith.service;
-
-import org.springframework.stereotype.Service;
-
-@Service
-public class MatchTraderService {
-}
@@ -0,0 +1,95 @@
+package com.fusionfx.monolith.service.auth;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.model.TokenInfo;
+import com.fusionfx.monolith.model.TokenKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broker session tokens keyed by (platform, userId, accountNumber).
+ * <p>
+ * Reads are lock-free and every entry expires on its own, so a user with many accounts never rewrites a shared
+ * per-user map when a single account's token is refreshed. An entry with a refresh token is kept until
+ * {@link TokenInfo#getRefreshExpiryTime()}, past its access-token expiry, so an expired session is refreshed instead
+ * of logging in again; callers check {@link TokenInfo#isExpired()} before using the access token.
+ */
+@Slf4j
+@Component
+public class BrokerTokenStore {
+
+    private final Cache<TokenKey, TokenInfo> tokens;
+
+    public BrokerTokenStore(final AppProperties appProperties, final MeterRegistry meterRegistry) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(appProperties.getBrokerTokens().getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        // Exported as cache.gets / cache.evictions / cache.size with cache=brokerTokens
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "brokerTokens");
+    }
+
+    public TokenInfo get(final TokenKey key) {
+        return tokens.getIfPresent(key);
+    }
+
+    public void put(final TokenKey key, final TokenInfo tokenInfo) {
+        tokens.put(key, tokenInfo);
+    }
+
+    public void invalidate(final TokenKey key) {
+        tokens.invalidate(key);
+    }
+
+    /**
+     * Remove the tokens of a trade account on every platform, e.g. after the account was deleted.
+     *
+     * @param tradeAccount The TradeAccount whose broker sessions should be dropped.
+     */
+    public void invalidateAccount(final TradeAccount tradeAccount) {
+        tokens.asMap().keySet().removeIf(key -> Objects.equals(key.getUserId(), tradeAccount.getUserId())
+                && Objects.equals(key.getAccountNumber(), tradeAccount.getAccountNumber()));
+        log.info("BrokerTokenStore | Invalidated tokens for account {}", tradeAccount.getId());
+    }
+
+    // Expire each entry when neither its access token nor its refresh token can be used any more
+    private static class TokenExpiry implements Expiry<TokenKey, TokenInfo> {
+
+        @Override
+        public long expireAfterCreate(final TokenKey key, final TokenInfo tokenInfo, final long currentTime) {
+            return remaining(tokenInfo);
+        }
+
+        @Override
+        public long expireAfterUpdate(final TokenKey key, final TokenInfo tokenInfo,
+                                      final long currentTime, final long currentDuration) {
+            return remaining(tokenInfo);
+        }
+
+        @Override
+        public long expireAfterRead(final TokenKey key, final TokenInfo tokenInfo,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remaining(final TokenInfo tokenInfo) {
+            long usableUntil = tokenInfo.getRefreshToken() != null
+                    ? Math.max(tokenInfo.getExpiryTime(), tokenInfo.getRefreshExpiryTime())
+                    : tokenInfo.getExpiryTime();
+            long remainingMillis = usableUntil - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+    }
+
+}
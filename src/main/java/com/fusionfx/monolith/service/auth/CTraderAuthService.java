@@ -1,4 +1,44 @@
 package com.fusionfx.monolith.service.auth;
 
+import com.fusionfx.monolith.client.ctrader.CTraderSession;
+import com.fusionfx.monolith.client.ctrader.OpenApiMessages;
+import com.fusionfx.monolith.entity.TradeAccount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authorizes cTrader accounts on an Open API session.
+ * <p>
+ * The application itself is authorized by the session when it connects. Each trading account is then authorized
+ * with the OAuth access token the user granted the application, stored as the password of the trade account; the
+ * ctidTraderAccountId is stored as its account number.
+ */
+@Slf4j
+@Service
 public class CTraderAuthService {
+
+    /**
+     * Authorize the account on the session's current connection.
+     *
+     * @param session      The session of the account's host.
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Mono that completes once the account is authorized; an error if the access token is rejected.
+     */
+    public Mono<Void> authorizeAccount(final CTraderSession session, final TradeAccount tradeAccount) {
+        long ctidTraderAccountId = ctidTraderAccountId(tradeAccount);
+        return session.request(OpenApiMessages.accountAuth(ctidTraderAccountId, tradeAccount.getPassword()))
+                .doOnNext(response -> log.info("CTrader | Account {} authorized on {}", ctidTraderAccountId, session.host()))
+                .then();
+    }
+
+    public static long ctidTraderAccountId(final TradeAccount tradeAccount) {
+        String accountNumber = tradeAccount.getAccountNumber();
+        try {
+            return Long.parseLong(accountNumber == null ? "" : accountNumber.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("TradeAccount " + tradeAccount.getId() + " has no valid ctidTraderAccountId");
+        }
+    }
+
 }
@@ -1,16 +1,20 @@
 package com.fusionfx.monolith.service.auth;
 
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.BrokerMetrics;
+import com.fusionfx.monolith.client.WebClientRegistry;
 import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.enums.Upstream;
 import com.fusionfx.monolith.model.TokenInfo;
+import com.fusionfx.monolith.model.TokenKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
-import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
@@ -18,22 +22,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DxTradeAuthService {
 
-    private final CacheManager cacheManager;
-    private final WebClient.Builder webClientBuilder;
-
-    // Retrieve the token map for a user from the cache, or create a new one
-    @SuppressWarnings("unchecked")
-    private Map<String, TokenInfo> getTokenMapForUser(String userId) {
-        Map<String, TokenInfo> tokenMap = cacheManager.getCache("userTokens")
-                .get(userId, HashMap.class);
-
-        if (tokenMap == null) {
-            tokenMap = new HashMap<>();
-            cacheManager.getCache("userTokens").put(userId, tokenMap);
-        }
-
-        return tokenMap;
-    }
+    private final AppProperties appProperties;
+    private final BrokerMetrics brokerMetrics;
+    private final BrokerTokenStore brokerTokenStore;
+    private final WebClientRegistry webClientRegistry;
+    private final TokenRequestCoalescer tokenRequestCoalescer;
 
     // Login and get a new access token (baseUrl is passed dynamically)
     public Mono<String> login(TradeAccount tradeAccount) {
@@ -45,10 +38,10 @@ public class DxTradeAuthService {
 
         log.info("DX Trade | Performing Login for {}", tradeAccount.getAccountNumber());
 
-        // Use dynamic baseUrl for WebClient
-        WebClient webClient = webClientBuilder.baseUrl(tradeAccount.getConnectionUrl()).build();
+        // Use the shared WebClient for the account's connection URL
+        WebClient webClient = webClientRegistry.get(Upstream.DXTRADE, tradeAccount.getConnectionUrl());
 
-        return webClient.post()
+        return brokerMetrics.time(Upstream.DXTRADE, "login", webClient.post()
                 .uri("/dxsca-web/login")
                 .bodyValue(requestBody)
                 .retrieve()
@@ -60,35 +53,32 @@ public class DxTradeAuthService {
                         throw new RuntimeException("No access token returned");
                     }
 
-                    // Store tokens in the cache
-                    Map<String, TokenInfo> tokenMap = getTokenMapForUser(tradeAccount.getUserId());
-                    tokenMap.put(tradeAccount.getAccountNumber(), TokenInfo.builder()
+                    // Store tokens in the token store
+                    brokerTokenStore.put(TokenKey.of(Platform.DXTRADE, tradeAccount), TokenInfo.builder()
                             .accessToken(sessionToken)
                             .expiryTime(Instant.now().plusSeconds(1700L).toEpochMilli())
                             .build());
 
-                    // Update the cache with the new token map
-                    cacheManager.getCache("userTokens").put(tradeAccount.getUserId(), tokenMap);
-
                     return sessionToken;
-                });
+                }))
+                .doOnSuccess(token -> brokerMetrics.token(Upstream.DXTRADE, "login"));
     }
 
     // Refresh the access token using the refresh token (baseUrl is passed dynamically)
     public Mono<String> refreshAccessToken(TradeAccount tradeAccount) {
-        Map<String, TokenInfo> tokenMap = getTokenMapForUser(tradeAccount.getUserId());
-        TokenInfo tokenInfo = tokenMap.get(tradeAccount.getAccountNumber());
+        TokenKey tokenKey = TokenKey.of(Platform.DXTRADE, tradeAccount);
+        TokenInfo tokenInfo = brokerTokenStore.get(tokenKey);
 
         if (tokenInfo == null || tokenInfo.getRefreshToken() == null) {
-            throw new RuntimeException("No refresh token available for account: " + tradeAccount.getAccountNumber());
+            return Mono.error(new RuntimeException("No refresh token available for account: " + tradeAccount.getAccountNumber()));
         }
 
         Map<String, String> requestBody = Map.of("refresh_token", tokenInfo.getRefreshToken());
 
-        // Use dynamic baseUrl for WebClient
-        WebClient webClient = webClientBuilder.baseUrl(tradeAccount.getConnectionUrl()).build();
+        // Use the shared WebClient for the account's connection URL
+        WebClient webClient = webClientRegistry.get(Upstream.DXTRADE, tradeAccount.getConnectionUrl());
 
-        return webClient.post()
+        return brokerMetrics.time(Upstream.DXTRADE, "token-refresh", webClient.post()
                 .uri("/auth/jwt/refresh")
                 .bodyValue(requestBody)
                 .retrieve()
@@ -101,33 +91,56 @@ public class DxTradeAuthService {
                         throw new RuntimeException("No access token returned after refresh");
                     }
 
-                    // Update token info in the cache
-                    tokenInfo.setAccessToken(newAccessToken);
-                    tokenInfo.setExpiryTime(expiresAt.toEpochMilli());
-
-                    // Update the cache with new token info
-                    cacheManager.getCache("userTokens").put(tradeAccount.getUserId(), tokenMap);
+                    // Replace the token info in the token store
+                    brokerTokenStore.put(tokenKey, TokenInfo.builder()
+                            .accessToken(newAccessToken)
+                            .refreshToken(tokenInfo.getRefreshToken())
+                            .expiryTime(expiresAt.toEpochMilli())
+                            .refreshExpiryTime(tokenInfo.getRefreshExpiryTime())
+                            .build());
 
                     return newAccessToken;
-                });
+                }))
+                .doOnSuccess(token -> brokerMetrics.token(Upstream.DXTRADE, "refresh"));
     }
 
     // Get a valid token (login or refresh if necessary, with dynamic baseUrl)
     public Mono<String> getValidToken(final TradeAccount tradeAccount) {
-        Map<String, TokenInfo> tokenMap = getTokenMapForUser(tradeAccount.getUserId());
-        TokenInfo tokenInfo = tokenMap.get(tradeAccount.getAccountNumber());
+        TokenInfo tokenInfo = brokerTokenStore.get(TokenKey.of(Platform.DXTRADE, tradeAccount));
 
-        // If token is missing or expired, refresh or login
+        // If token is missing or expired, refresh or login (shared with concurrent callers)
         if (tokenInfo == null || tokenInfo.isExpired()) {
-            if (tokenInfo != null && tokenInfo.getRefreshToken() != null) {
-                return refreshAccessToken(tradeAccount);
-            } else {
-                return login(tradeAccount);
-            }
+            brokerMetrics.token(Upstream.DXTRADE, "miss");
+            return acquireToken(tradeAccount);
+        }
+
+        // If token is about to expire, refresh it in the background and keep serving the current one; only a request
+        // triggers this, so a token nobody uses within the window is renewed on the next request, which then waits for it
+        if (tokenInfo.isExpiringWithin(appProperties.getBrokerTokens().getRefreshAhead().toMillis())) {
+            brokerMetrics.token(Upstream.DXTRADE, "refresh-ahead");
+            acquireToken(tradeAccount)
+                    .subscribe(token -> { }, error -> log.warn("DX Trade | Background token refresh failed for {}: {}",
+                            tradeAccount.getAccountNumber(), error.getMessage()));
         }
 
         // Return the cached valid access token
+        brokerMetrics.token(Upstream.DXTRADE, "hit");
         return Mono.just(tokenInfo.getAccessToken());
     }
 
+    // Refresh when a refresh token is available, otherwise login; at most one call in flight per account
+    private Mono<String> acquireToken(final TradeAccount tradeAccount) {
+        TokenKey tokenKey = TokenKey.of(Platform.DXTRADE, tradeAccount);
+
+        return tokenRequestCoalescer.acquire(tokenKey, () -> {
+            TokenInfo tokenInfo = brokerTokenStore.get(tokenKey);
+
+            if (tokenInfo != null && tokenInfo.getRefreshToken() != null) {
+                return refreshAccessToken(tradeAccount)
+                        .onErrorResume(error -> login(tradeAccount));
+            }
+            return login(tradeAccount);
+        });
+    }
+
 }
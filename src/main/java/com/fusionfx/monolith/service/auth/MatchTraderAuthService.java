@@ -0,0 +1,107 @@
+package com.fusionfx.monolith.service.auth;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.BrokerMetrics;
+import com.fusionfx.monolith.client.WebClientRegistry;
+import com.fusionfx.monolith.dto.matchtrader.LoginResponseDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Upstream;
+import com.fusionfx.monolith.model.MatchTraderSession;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Match-Trader broker logins, one per (user, broker host, broker, email).
+ * <p>
+ * A Match-Trader login covers every trading account of the email at that broker, so all of a user's accounts share
+ * one session: concurrent misses for the same login wait for a single /login call, and a session is kept until
+ * {@code fusion.match-trader.session-ttl} or until the broker rejects it.
+ */
+@Slf4j
+@Service
+public class MatchTraderAuthService {
+
+    private final BrokerMetrics brokerMetrics;
+    private final WebClientRegistry webClientRegistry;
+    private final AsyncCache<SessionKey, MatchTraderSession> sessions;
+
+    public MatchTraderAuthService(final AppProperties appProperties,
+                                  final BrokerMetrics brokerMetrics,
+                                  final WebClientRegistry webClientRegistry) {
+        this.brokerMetrics = brokerMetrics;
+        this.webClientRegistry = webClientRegistry;
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterWrite(appProperties.getMatchTrader().getSessionTtl())
+                .maximumSize(appProperties.getMatchTrader().getMaximumSessions())
+                .buildAsync();
+    }
+
+    /**
+     * Get the broker session of the account's login, logging in if there is none.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Mono containing the session shared by every account of the login.
+     */
+    public Mono<MatchTraderSession> getSession(final TradeAccount tradeAccount) {
+        var key = SessionKey.of(tradeAccount);
+
+        return Mono.fromFuture(() -> sessions.get(key, (k, executor) -> {
+            brokerMetrics.token(Upstream.MATCHTRADER, "miss");
+            return login(tradeAccount).toFuture();
+        }), true);
+    }
+
+    /**
+     * Drop the session after the broker rejected it, unless it was already replaced by a newer login.
+     *
+     * @param tradeAccount The TradeAccount whose login the session belongs to.
+     * @param session      The rejected session.
+     */
+    public void invalidate(final TradeAccount tradeAccount, final MatchTraderSession session) {
+        sessions.asMap().computeIfPresent(SessionKey.of(tradeAccount),
+                (key, current) -> current.getNow(null) == session ? null : current);
+    }
+
+    // Login and get a new session token (baseUrl is the account's connection URL)
+    private Mono<MatchTraderSession> login(final TradeAccount tradeAccount) {
+        Map<String, String> requestBody = Map.of(
+                "email", tradeAccount.getEmail(),
+                "password", tradeAccount.getPassword(),
+                "brokerId", tradeAccount.getServer()
+        );
+
+        log.info("Match-Trader | Performing Login for broker {} at {}", tradeAccount.getServer(), tradeAccount.getConnectionUrl());
+
+        WebClient webClient = webClientRegistry.get(Upstream.MATCHTRADER, tradeAccount.getConnectionUrl());
+
+        return brokerMetrics.time(Upstream.MATCHTRADER, "login", webClient.post()
+                        .uri("/mtr-backend/login")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(LoginResponseDto.class)
+                        .map(MatchTraderSession::from))
+                .doOnSuccess(session -> brokerMetrics.token(Upstream.MATCHTRADER, "login"));
+    }
+
+    @Value
+    private static class SessionKey {
+        String userId;
+        String connectionUrl;
+        String brokerId;
+        String email;
+
+        static SessionKey of(final TradeAccount tradeAccount) {
+            return new SessionKey(tradeAccount.getUserId(), tradeAccount.getConnectionUrl(),
+                    tradeAccount.getServer(), tradeAccount.getEmail());
+        }
+    }
+
+}
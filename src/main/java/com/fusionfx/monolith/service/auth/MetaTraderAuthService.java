@@ -1,10 +1,11 @@
 package com.fusionfx.monolith.service.auth;
 
 import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.WebClientRegistry;
+import com.fusionfx.monolith.enums.Upstream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
@@ -16,9 +17,7 @@ import java.util.Map;
 public class MetaTraderAuthService {
 
     private final AppProperties appProperties;
-
-
-    private final WebClient.Builder webClient;
+    private final WebClientRegistry webClientRegistry;
 
     public Mono<String> getAuthToken(final String accountId, int validityInHours) {
         // Prepare the JSON body with explicit access to metaapi-api streaming
@@ -34,10 +33,8 @@ public class MetaTraderAuthService {
                 )
         });
 
-        return webClient.build().post()
+        return webClientRegistry.get(Upstream.METAAPI, appProperties.getMetaApi().getProfileApiUrl()).post()
                 .uri(uriBuilder -> uriBuilder
-                        .scheme("https")
-                        .host("profile-api-v1.agiliumtrade.agiliumtrade.ai")
                         .path("/users/current/narrow-down-auth-token")
                         .queryParam("validity-in-hours", validityInHours)
                         .build())
@@ -0,0 +1,44 @@
+package com.fusionfx.monolith.service.auth;
+
+import com.fusionfx.monolith.model.TokenKey;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight guard for broker logins and token refreshes.
+ * <p>
+ * Concurrent callers asking for the same {@link TokenKey} share one in-flight {@link Mono}, so a cold dashboard
+ * request that fans out into several broker calls performs a single login instead of one per call.
+ */
+@Component
+public class TokenRequestCoalescer {
+
+    private final ConcurrentMap<TokenKey, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run the token acquisition for the key, or join the one that is already in flight.
+     *
+     * @param key         The platform / user / account the token belongs to.
+     * @param acquisition Supplier of the login or refresh call, only invoked when nothing is in flight.
+     * @return A Mono emitting the access token, shared by all concurrent callers.
+     */
+    public Mono<String> acquire(final TokenKey key, final Supplier<Mono<String>> acquisition) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, acquisition)));
+    }
+
+    private Mono<String> share(final TokenKey key, final Supplier<Mono<String>> acquisition) {
+        var self = new AtomicReference<Mono<String>>();
+        Mono<String> shared = Mono.defer(acquisition)
+                // Remove only this attempt, so a failed login is retried by the next caller
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+}
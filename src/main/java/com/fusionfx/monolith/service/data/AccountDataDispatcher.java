@@ -0,0 +1,88 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.client.UpstreamResilience;
+import com.fusionfx.monolith.connector.PlatformConnector;
+import com.fusionfx.monolith.connector.PlatformConnectorRegistry;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.model.AccountSnapshot;
+import com.fusionfx.monolith.service.history.AccountSnapshotRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountDataDispatcher {
+
+    private final AccountSnapshotStore accountSnapshotStore;
+    private final AccountSnapshotRecorder accountSnapshotRecorder;
+    private final PlatformConnectorRegistry platformConnectorRegistry;
+
+    /**
+     * Fetch the normalized account details from the {@link PlatformConnector} of the account's platform.
+     * <p>
+     * Every result is kept in the {@link AccountSnapshotStore} and recorded to the snapshot history.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Mono containing the account details, or an error if the platform is not supported.
+     */
+    public Mono<AccountDto> fetchAccount(final TradeAccount tradeAccount) {
+        return fetchFromPlatform(tradeAccount)
+                .doOnNext(account -> keep(tradeAccount, account));
+    }
+
+    /**
+     * Keep the push channel of the account's {@link PlatformConnector} open, for connectors that have one, so fetches
+     * are served from it.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Disposable releasing the hold.
+     */
+    public Disposable retain(final TradeAccount tradeAccount) {
+        return platformConnectorRegistry.get(tradeAccount).retain(tradeAccount);
+    }
+
+    /**
+     * Serve the account details from the snapshot store when the background refresh has a fresh enough value,
+     * otherwise fetch them from the broker.
+     * <p>
+     * When the broker's circuit breaker is open or its bulkhead is full, the last known details are served
+     * regardless of their age; only accounts that were never fetched fail.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @param maxAge       The maximum age of a stored snapshot.
+     * @return A Mono containing the account details.
+     */
+    public Mono<AccountDto> getAccount(final TradeAccount tradeAccount, final Duration maxAge) {
+        return accountSnapshotStore.getFresh(tradeAccount.getId(), maxAge)
+                .map(Mono::just)
+                .orElseGet(() -> fetchAccount(tradeAccount)
+                        .onErrorResume(UpstreamResilience::isRejected, error -> lastKnown(tradeAccount, error)));
+    }
+
+    private Mono<AccountDto> lastKnown(final TradeAccount tradeAccount, final Throwable error) {
+        return accountSnapshotStore.get(tradeAccount.getId())
+                .map(AccountSnapshot::getAccount)
+                .map(account -> {
+                    log.debug("Dispatcher | Account {} served from the last snapshot: {}", tradeAccount.getId(), error.getMessage());
+                    return Mono.just(account);
+                })
+                .orElseGet(() -> Mono.error(error));
+    }
+
+    private void keep(final TradeAccount tradeAccount, final AccountDto account) {
+        accountSnapshotStore.put(tradeAccount.getId(), account);
+        accountSnapshotRecorder.record(tradeAccount.getId(), account);
+    }
+
+    private Mono<AccountDto> fetchFromPlatform(final TradeAccount tradeAccount) {
+        return Mono.defer(() -> platformConnectorRegistry.get(tradeAccount).fetchAccount(tradeAccount));
+    }
+
+}
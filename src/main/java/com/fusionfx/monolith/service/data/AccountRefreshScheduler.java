@@ -0,0 +1,241 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.Deadline;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.repo.TradeAccountCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refreshes recently used trade accounts in the background so user requests can be served from the
+ * {@link AccountSnapshotStore}.
+ * <p>
+ * An account joins the schedule when it is requested ({@link #touch}) or streamed ({@link #watch}) and drops out once
+ * it is no longer streamed and nobody requested it for {@code activity-timeout}. Streamed accounts refresh every
+ * {@code fusion.stream.poll-interval} and are picked before the others; their updates reach the streams through the
+ * {@link AccountSnapshotStore}. Only its id and platform are kept here; the credentials are resolved through the
+ * {@link TradeAccountCache} for every refresh, so they stay subject to its expiry and zeroing.
+ * <p>
+ * Accounts with open positions refresh every {@code active-interval}, idle ones every {@code idle-interval}, each
+ * with random jitter to spread the load. Every tick starts at most {@code platform-budgets} refreshes per platform,
+ * which keeps the request rate against each broker predictable.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountRefreshScheduler implements SmartLifecycle {
+
+    private final AppProperties appProperties;
+    private final TradeAccountCache tradeAccountCache;
+    private final AccountSnapshotStore accountSnapshotStore;
+    private final AccountDataDispatcher accountDataDispatcher;
+
+    private final ConcurrentMap<String, ScheduledAccount> accounts = new ConcurrentHashMap<>();
+    private volatile Disposable ticker;
+
+    /**
+     * Mark a trade account as in use, adding it to the background refresh if it is not scheduled yet.
+     *
+     * @param tradeAccount The TradeAccount entity that was requested.
+     */
+    public void touch(final TradeAccount tradeAccount) {
+        if (tradeAccount.getId() == null || tradeAccount.getPlatform() == null) {
+            return;
+        }
+        accounts.compute(tradeAccount.getId(), (id, existing) -> {
+            long now = System.currentTimeMillis();
+            ScheduledAccount account = existing;
+            if (account == null) {
+                // Spread first refreshes over one active interval so a dashboard load does not refresh all accounts at once
+                long firstRefreshAt = now + ThreadLocalRandom.current().nextLong(appProperties.getRefresh().getActiveInterval().toMillis() + 1);
+                account = new ScheduledAccount(id, tradeAccount.getPlatform(), firstRefreshAt);
+            }
+            account.lastUsedAt = now;
+            return account;
+        });
+    }
+
+    /**
+     * Refresh a trade account at the stream poll interval for as long as the returned hold is not disposed.
+     * The first watcher triggers an immediate refresh.
+     *
+     * @param tradeAccount The TradeAccount entity that is streamed.
+     * @return A Disposable releasing the hold.
+     */
+    public Disposable watch(final TradeAccount tradeAccount) {
+        if (tradeAccount.getId() == null || tradeAccount.getPlatform() == null) {
+            return Disposables.disposed();
+        }
+        ScheduledAccount watched = accounts.compute(tradeAccount.getId(), (id, existing) -> {
+            long now = System.currentTimeMillis();
+            ScheduledAccount account = existing != null ? existing : new ScheduledAccount(id, tradeAccount.getPlatform(), now);
+            if (account.watchers++ == 0) {
+                account.nextRefreshAt = now;
+            }
+            account.lastUsedAt = now;
+            return account;
+        });
+
+        var released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                accounts.computeIfPresent(watched.accountId, (id, current) -> {
+                    if (current == watched) {
+                        current.watchers--;
+                        current.lastUsedAt = System.currentTimeMillis();
+                    }
+                    return current;
+                });
+            }
+        };
+    }
+
+    public void unregister(final String accountId) {
+        accounts.remove(accountId);
+        accountSnapshotStore.remove(accountId);
+    }
+
+    @Override
+    public void start() {
+        var refresh = appProperties.getRefresh();
+        if (!refresh.isEnabled()) {
+            return;
+        }
+
+        ticker = Flux.interval(refresh.getTick())
+                .onBackpressureDrop()
+                .concatMapIterable(tick -> selectDueAccounts())
+                .flatMap(this::refresh, refresh.getMaxInFlight())
+                .subscribe();
+
+        log.info("Refresh | Background account refresh started");
+    }
+
+    @Override
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+            ticker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null && !ticker.isDisposed();
+    }
+
+    // Drop accounts nobody used lately along with their snapshots, then pick the most overdue ones, streamed ones
+    // first, at most the platform budget per platform
+    private List<ScheduledAccount> selectDueAccounts() {
+        long now = System.currentTimeMillis();
+        long unusedSince = now - appProperties.getRefresh().getActivityTimeout().toMillis();
+        accounts.forEach((id, account) -> {
+            if (isUnused(account, unusedSince)) {
+                accounts.computeIfPresent(id, (key, current) -> {
+                    if (!isUnused(current, unusedSince)) {
+                        return current;
+                    }
+                    accountSnapshotStore.remove(key); // Nothing refreshes it any more, so it would only go stale
+                    return null;
+                });
+            }
+        });
+
+        Map<Platform, Integer> started = new EnumMap<>(Platform.class);
+        List<ScheduledAccount> due = new ArrayList<>();
+
+        accounts.values().stream()
+                .filter(account -> account.nextRefreshAt <= now && !account.inFlight.get())
+                .sorted(Comparator.comparing((ScheduledAccount account) -> account.watchers == 0)
+                        .thenComparingLong(account -> account.nextRefreshAt))
+                .forEach(account -> {
+                    Platform platform = account.platform;
+                    int count = started.getOrDefault(platform, 0);
+                    if (count < appProperties.getRefresh().budget(platform) && account.inFlight.compareAndSet(false, true)) {
+                        started.put(platform, count + 1);
+                        due.add(account);
+                    }
+                });
+
+        return due;
+    }
+
+    private Mono<Void> refresh(final ScheduledAccount account) {
+        var refresh = appProperties.getRefresh();
+
+        return tradeAccountCache.findById(account.accountId)
+                .switchIfEmpty(Mono.fromRunnable(() -> unregister(account.accountId))) // Deleted meanwhile
+                .doOnNext(tradeAccount -> account.platform = tradeAccount.getPlatform())
+                .flatMap(accountDataDispatcher::fetchAccount)
+                .transform(Deadline.within(refresh.getTimeout()))
+                .map(accountDto -> interval(account, hasOpenPositions(accountDto) ? refresh.getActiveInterval() : refresh.getIdleInterval()))
+                .onErrorResume(error -> {
+                    log.warn("Refresh | Account {} ({}) failed: {}", account.accountId, account.platform, error.getMessage());
+                    return Mono.just(interval(account, refresh.getIdleInterval()));
+                })
+                .defaultIfEmpty(interval(account, refresh.getIdleInterval()))
+                .doOnNext(interval -> account.nextRefreshAt = System.currentTimeMillis() + withJitter(interval))
+                .doFinally(signal -> account.inFlight.set(false))
+                .then();
+    }
+
+    // Without a reported count, floating P&L is taken as the sign of open positions
+    private static boolean hasOpenPositions(final AccountDto accountDto) {
+        return accountDto.getPositionCount() != null
+                ? accountDto.getPositionCount() > 0
+                : Double.compare(accountDto.getOpenNetPnl(), 0) != 0;
+    }
+
+    private Duration interval(final ScheduledAccount account, final Duration unwatched) {
+        return account.watchers > 0 ? appProperties.getStream().getPollInterval() : unwatched;
+    }
+
+    private static boolean isUnused(final ScheduledAccount account, final long unusedSince) {
+        return account.watchers == 0 && account.lastUsedAt < unusedSince && !account.inFlight.get();
+    }
+
+    private long withJitter(final Duration interval) {
+        double jitter = appProperties.getRefresh().getJitter();
+        if (jitter <= 0) {
+            return interval.toMillis();
+        }
+        return (long) (interval.toMillis() * (1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter)));
+    }
+
+    private static class ScheduledAccount {
+
+        private final String accountId;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private volatile Platform platform;
+        private volatile long nextRefreshAt;
+        private volatile long lastUsedAt;
+        private volatile int watchers;   // Written under the accounts map compute lock of accountId
+
+        private ScheduledAccount(final String accountId, final Platform platform, final long nextRefreshAt) {
+            this.accountId = accountId;
+            this.platform = platform;
+            this.nextRefreshAt = nextRefreshAt;
+        }
+    }
+
+}
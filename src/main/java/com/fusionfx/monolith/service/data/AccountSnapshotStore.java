@@ -0,0 +1,79 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.model.AccountSnapshot;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory store of the latest {@link AccountDto} per trade account, fed by every broker fetch.
+ * <p>
+ * Every stored value is also pushed to the {@link #updates} subscribers of the account, which is how live streams
+ * follow the background refresh without polling the broker themselves.
+ */
+@Component
+public class AccountSnapshotStore {
+
+    private final ConcurrentMap<String, AccountSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<FluxSink<AccountDto>>> listeners = new ConcurrentHashMap<>();
+
+    public void put(final String accountId, final AccountDto account) {
+        snapshots.put(accountId, new AccountSnapshot(account, System.currentTimeMillis()));
+
+        Set<FluxSink<AccountDto>> sinks = listeners.get(accountId);
+        if (sinks != null) {
+            sinks.forEach(sink -> sink.next(account));
+        }
+    }
+
+    /**
+     * Follow the account details of a trade account: the current snapshot, if any, then every value stored after it.
+     * Slow subscribers only get the latest value.
+     *
+     * @param accountId The TradeAccount document ID.
+     * @return A Flux of account details that never completes.
+     */
+    public Flux<AccountDto> updates(final String accountId) {
+        return Flux.create(sink -> {
+            listeners.compute(accountId, (id, sinks) -> {
+                Set<FluxSink<AccountDto>> current = sinks != null ? sinks : ConcurrentHashMap.newKeySet();
+                current.add(sink);
+                return current;
+            });
+            sink.onDispose(() -> listeners.computeIfPresent(accountId, (id, sinks) -> {
+                sinks.remove(sink);
+                return sinks.isEmpty() ? null : sinks;
+            }));
+            get(accountId).ifPresent(snapshot -> sink.next(snapshot.getAccount()));
+        }, FluxSink.OverflowStrategy.LATEST);
+    }
+
+    public Optional<AccountSnapshot> get(final String accountId) {
+        return Optional.ofNullable(snapshots.get(accountId));
+    }
+
+    /**
+     * Get the latest account details if they were fetched within the given age.
+     *
+     * @param accountId The TradeAccount document ID.
+     * @param maxAge    The maximum age of the snapshot.
+     * @return The account details, or empty if there is no snapshot or it is too old.
+     */
+    public Optional<AccountDto> getFresh(final String accountId, final Duration maxAge) {
+        return get(accountId)
+                .filter(snapshot -> !snapshot.isOlderThan(maxAge.toMillis()))
+                .map(AccountSnapshot::getAccount);
+    }
+
+    public void remove(final String accountId) {
+        snapshots.remove(accountId);
+    }
+
+}
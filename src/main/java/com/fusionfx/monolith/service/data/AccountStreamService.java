@@ -0,0 +1,156 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.AccountUpdateDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.repo.TradeAccountCache;
+import com.fusionfx.monolith.repo.TradeAccountRepo;
+import com.fusionfx.monolith.repo.projection.TradeAccountListView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Live account updates over Server-Sent Events.
+ * <p>
+ * Streams do not poll the broker themselves: a streamed account is {@link AccountRefreshScheduler#watch watched} by
+ * the background refresh, which refreshes it every {@code fusion.stream.poll-interval} ahead of other accounts, and
+ * every refreshed value reaches the streams through the {@link AccountSnapshotStore}. Each trade account has at most
+ * one such subscription, multicast to every session, which is released shortly after the last session leaves.
+ * <p>
+ * The accounts of a user are listed again every {@code fusion.stream.accounts-refresh-interval}, so accounts added
+ * or deleted while a stream is open join or leave it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountStreamService {
+
+    private final AppProperties appProperties;
+    private final TradeAccountRepo tradeAccountRepo;
+    private final TradeAccountCache tradeAccountCache;
+    private final AccountSnapshotStore accountSnapshotStore;
+    private final AccountDataDispatcher accountDataDispatcher;
+    private final AccountRefreshScheduler accountRefreshScheduler;
+
+    private final ConcurrentMap<String, Flux<AccountDto>> accountStreams = new ConcurrentHashMap<>();
+
+    /**
+     * Stream updates for all trade accounts of a user. The first event per account holds every field, later
+     * events only the fields that changed.
+     *
+     * @param userId The owner of the trade accounts.
+     * @return A Flux of Server-Sent Events, interleaved with keep-alive comments.
+     */
+    public Flux<ServerSentEvent<AccountUpdateDto>> streamForUser(final String userId) {
+        Flux<ServerSentEvent<AccountUpdateDto>> updates = streamAccountsOf(userId)
+                .map(update -> ServerSentEvent.<AccountUpdateDto>builder()
+                        .event("account")
+                        .id(update.getAccountId())
+                        .data(update)
+                        .build());
+
+        Flux<ServerSentEvent<AccountUpdateDto>> keepAlive = Flux.interval(appProperties.getStream().getKeepAliveInterval())
+                .map(tick -> ServerSentEvent.<AccountUpdateDto>builder().comment("keep-alive").build());
+
+        return Flux.merge(updates, keepAlive);
+    }
+
+    // Follow the user's account set: start streaming added accounts, stop streaming deleted ones
+    private Flux<AccountUpdateDto> streamAccountsOf(final String userId) {
+        return Flux.defer(() -> {
+            Map<String, Sinks.Empty<Void>> streamed = new HashMap<>(); // Only touched by the serialized flatMap mapper
+
+            return Flux.interval(Duration.ZERO, appProperties.getStream().getAccountsRefreshInterval())
+                    .onBackpressureDrop()
+                    .concatMap(tick -> tradeAccountRepo.findAllByUserId(userId, TradeAccountListView.class)
+                            .map(TradeAccountListView::getId)
+                            .collect(Collectors.toSet())
+                            .onErrorResume(error -> {
+                                log.warn("Stream | Listing the accounts of user {} failed: {}", userId, error.getMessage());
+                                return Mono.empty();
+                            }))
+                    .flatMap(accountIds -> {
+                        stopRemoved(streamed, accountIds);
+                        return Flux.fromIterable(accountIds)
+                                .filter(accountId -> !streamed.containsKey(accountId))
+                                .flatMap(accountId -> {
+                                    Sinks.Empty<Void> removed = Sinks.empty();
+                                    streamed.put(accountId, removed);
+                                    return tradeAccountCache.findByIdAndUserId(accountId, userId)
+                                            .flatMapMany(this::streamChanges)
+                                            .takeUntilOther(removed.asMono());
+                                });
+                    }, Integer.MAX_VALUE);
+        });
+    }
+
+    private static void stopRemoved(final Map<String, Sinks.Empty<Void>> streamed, final Set<String> accountIds) {
+        streamed.entrySet().removeIf(entry -> {
+            if (accountIds.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().tryEmitEmpty();
+            return true;
+        });
+    }
+
+    // Per subscriber: diff each shared account value against the previous one this subscriber has seen
+    private Flux<AccountUpdateDto> streamChanges(final TradeAccount tradeAccount) {
+        return Flux.defer(() -> {
+            var previous = new AtomicReference<AccountDto>();
+            return accountStream(tradeAccount)
+                    .map(current -> AccountUpdateDto.of(tradeAccount.getId(), previous.getAndSet(current), current))
+                    .filter(update -> !update.getChanges().isEmpty());
+        });
+    }
+
+    private Flux<AccountDto> accountStream(final TradeAccount tradeAccount) {
+        return Flux.defer(() -> accountStreams.computeIfAbsent(tradeAccount.getId(), id -> createAccountStream(tradeAccount)));
+    }
+
+    private Flux<AccountDto> createAccountStream(final TradeAccount tradeAccount) {
+        String accountId = tradeAccount.getId();
+        var self = new AtomicReference<Flux<AccountDto>>();
+
+        // While subscribed: refreshed at the stream interval, and the connector's push channel is kept open
+        Flux<AccountDto> shared = Flux.using(
+                        () -> Disposables.composite(
+                                accountDataDispatcher.retain(tradeAccount), // Fails first for unsupported platforms
+                                accountRefreshScheduler.watch(tradeAccount)),
+                        holds -> accountSnapshotStore.updates(accountId),
+                        Disposable::dispose)
+                .onErrorResume(error -> {
+                    log.warn("Stream | Account {} cannot be streamed: {}", accountId, error.getMessage());
+                    return Flux.empty();
+                })
+                .distinctUntilChanged()
+                .doOnSubscribe(subscription -> log.info("Stream | Started following account {}", accountId))
+                .doFinally(signal -> {
+                    accountStreams.remove(accountId, self.get());
+                    log.info("Stream | Stopped following account {}", accountId);
+                })
+                .replay(1)
+                .refCount(1, appProperties.getStream().getIdleGracePeriod());
+
+        self.set(shared);
+        return shared;
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.ctrader.CTraderApiException;
+import com.fusionfx.monolith.client.ctrader.CTraderSession;
+import com.fusionfx.monolith.client.ctrader.OpenApiMessages;
+import com.fusionfx.monolith.client.ctrader.ProtoMessage;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.model.CTraderAccountState;
+import com.fusionfx.monolith.service.auth.CTraderAuthService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * cTrader account state, served from memory and kept current by the events of one Open API session per host.
+ * <p>
+ * The first read of an account authorizes it on the session and loads its balance, symbols, positions and orders;
+ * the symbols of open positions are subscribed to spots. From then on spot events update the prices, execution
+ * events update positions and orders and trigger a balance reload, and the unrealized P&L is re-requested at most
+ * once per {@code fusion.ctrader.pnl-refresh-interval} while prices move. Reads never call the server unless the
+ * account is not loaded on the current connection.
+ * <p>
+ * An account that was not read for {@code fusion.ctrader.idle-timeout}, or whose trade account was deleted, is
+ * unsubscribed from its spots and logged out of the session, so the session only carries events of accounts in use.
+ */
+@Slf4j
+@Service
+public class CTraderDataService implements DisposableBean {
+
+    private static final String ALREADY_SUBSCRIBED = "ALREADY_SUBSCRIBED";
+
+    private final AppProperties appProperties;
+    private final CTraderAuthService cTraderAuthService;
+    private final ConcurrentMap<String, CTraderSession> sessions = new ConcurrentHashMap<>();
+    private final Cache<Long, CTraderAccountState> states;
+    private final ConcurrentMap<Long, Mono<CTraderAccountState>> loading = new ConcurrentHashMap<>();
+
+    public CTraderDataService(final AppProperties appProperties, final CTraderAuthService cTraderAuthService) {
+        this.appProperties = appProperties;
+        this.cTraderAuthService = cTraderAuthService;
+        this.states = Caffeine.newBuilder()
+                .expireAfterAccess(appProperties.getCtrader().getIdleTimeout()) // Events read quietly, only reads count
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((Long id, CTraderAccountState state, RemovalCause cause) -> {
+                    if (state != null && cause.wasEvicted()) {
+                        log.info("CTrader | Account {} was not read for {}", id, appProperties.getCtrader().getIdleTimeout());
+                        release(state);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Get the live state of the account, authorizing and loading it first if it is not loaded on the current
+     * connection of its session. Concurrent loads of the same account are shared.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Mono containing the account state.
+     */
+    public Mono<CTraderAccountState> getAccountState(final TradeAccount tradeAccount) {
+        return Mono.defer(() -> {
+            long ctidTraderAccountId = CTraderAuthService.ctidTraderAccountId(tradeAccount);
+            CTraderSession session = session(tradeAccount.getType());
+
+            CTraderAccountState state = states.getIfPresent(ctidTraderAccountId);
+            if (state != null && state.isReady() && state.getGeneration() == session.generation()) {
+                return Mono.just(state);
+            }
+
+            return loading.computeIfAbsent(ctidTraderAccountId, id -> {
+                var self = new AtomicReference<Mono<CTraderAccountState>>();
+                Mono<CTraderAccountState> load = load(session, tradeAccount, id)
+                        .doFinally(signal -> loading.remove(id, self.get()))
+                        .cache();
+                self.set(load);
+                return load;
+            });
+        });
+    }
+
+    private Mono<CTraderAccountState> load(final CTraderSession session, final TradeAccount tradeAccount, final long ctidTraderAccountId) {
+        return cTraderAuthService.authorizeAccount(session, tradeAccount)
+                .then(session.request(OpenApiMessages.symbolsListRequest(ctidTraderAccountId)))
+                .map(symbols -> {
+                    // Registered before the reconcile, so events that arrive while it loads are not lost
+                    var state = new CTraderAccountState(ctidTraderAccountId, tradeAccount.getId(), session.host(),
+                            session.generation(), OpenApiMessages.parseSymbolNames(symbols));
+                    states.put(ctidTraderAccountId, state);
+                    return state;
+                })
+                .flatMap(state -> session.request(OpenApiMessages.traderRequest(ctidTraderAccountId))
+                        .doOnNext(trader -> state.applyTrader(OpenApiMessages.parseTrader(trader)))
+                        .then(session.request(OpenApiMessages.reconcileRequest(ctidTraderAccountId)))
+                        .doOnNext(reconcile -> state.applyReconcile(OpenApiMessages.parseReconcile(reconcile)))
+                        .then(Mono.defer(() -> subscribeSpots(session, state, state.getPositionSymbols())))
+                        .then(Mono.defer(() -> refreshPnl(session, state)))
+                        .thenReturn(state))
+                .doOnError(error -> {
+                    log.warn("CTrader | Account {} failed to load: {}", ctidTraderAccountId, error.getMessage());
+                    states.invalidate(ctidTraderAccountId);
+                });
+    }
+
+    private CTraderSession session(final AccountType accountType) {
+        AppProperties.CTrader properties = appProperties.getCtrader();
+        return sessions.computeIfAbsent(properties.host(accountType), host -> {
+            var session = new CTraderSession(host, properties.getPort(), properties);
+            session.events().subscribe(event -> onEvent(session, event));
+            return session;
+        });
+    }
+
+    // Runs on the session's event loop
+    private void onEvent(final CTraderSession session, final ProtoMessage message) {
+        try {
+            switch (message.getPayloadType()) {
+                case OpenApiMessages.SPOT_EVENT -> onSpot(session, OpenApiMessages.parseSpotEvent(message));
+                case OpenApiMessages.EXECUTION_EVENT -> onExecution(session, OpenApiMessages.parseExecutionEvent(message));
+                case OpenApiMessages.ACCOUNT_DISCONNECT_EVENT, OpenApiMessages.ACCOUNTS_TOKEN_INVALIDATED_EVENT ->
+                        OpenApiMessages.parseAccountIds(message).forEach(id -> {
+                            log.info("CTrader | Account {} logged out by the server", id);
+                            states.invalidate(id);
+                        });
+                default -> log.debug("CTrader | Session {} | Ignored event {}", session.host(), message.getPayloadType());
+            }
+        } catch (RuntimeException e) {
+            log.warn("CTrader | Session {} | Failed to handle event {}: {}", session.host(), message.getPayloadType(), e.getMessage());
+        }
+    }
+
+    private void onSpot(final CTraderSession session, final OpenApiMessages.SpotEvent event) {
+        CTraderAccountState state = states.policy().getIfPresentQuietly(event.getCtidTraderAccountId());
+        if (state == null) {
+            return;
+        }
+        state.applySpot(event);
+        if (state.claimPnlRefresh(appProperties.getCtrader().getPnlRefreshInterval().toMillis())) {
+            subscribeInBackground(refreshPnl(session, state), state);
+        }
+    }
+
+    private void onExecution(final CTraderSession session, final OpenApiMessages.ExecutionEvent event) {
+        CTraderAccountState state = states.policy().getIfPresentQuietly(event.getCtidTraderAccountId());
+        if (state == null) {
+            return;
+        }
+        state.applyExecution(event);
+
+        // Fills, closes and deposits change the balance, new positions may need prices
+        long ctidTraderAccountId = state.getCtidTraderAccountId();
+        subscribeInBackground(subscribeSpots(session, state, state.getPositionSymbols())
+                .then(session.request(OpenApiMessages.traderRequest(ctidTraderAccountId)))
+                .doOnNext(trader -> state.applyTrader(OpenApiMessages.parseTrader(trader)))
+                .then(Mono.defer(() -> refreshPnl(session, state))), state);
+    }
+
+    private Mono<Void> subscribeSpots(final CTraderSession session, final CTraderAccountState state, final Collection<Long> symbolIds) {
+        Set<Long> added = state.markSubscribed(symbolIds);
+        if (added.isEmpty()) {
+            return Mono.empty();
+        }
+        return session.request(OpenApiMessages.subscribeSpotsRequest(state.getCtidTraderAccountId(), added))
+                .onErrorResume(CTraderApiException.class,
+                        error -> ALREADY_SUBSCRIBED.equals(error.getErrorCode()) ? Mono.empty() : Mono.error(error))
+                .then();
+    }
+
+    private Mono<Void> refreshPnl(final CTraderSession session, final CTraderAccountState state) {
+        if (state.getPositions().isEmpty()) {
+            state.applyUnrealizedPnl(new OpenApiMessages.UnrealizedPnl(Map.of(), 2));
+            return Mono.empty();
+        }
+        return session.request(OpenApiMessages.unrealizedPnlRequest(state.getCtidTraderAccountId()))
+                .doOnNext(pnl -> state.applyUnrealizedPnl(OpenApiMessages.parseUnrealizedPnl(pnl)))
+                .then();
+    }
+
+    /**
+     * Release the account state loaded for a trade account, e.g. after the trade account was deleted.
+     *
+     * @param tradeAccountId The id of the TradeAccount entity.
+     */
+    public void remove(final String tradeAccountId) {
+        states.asMap().values().stream()
+                .filter(state -> tradeAccountId.equals(state.getTradeAccountId()))
+                .toList()
+                .forEach(state -> {
+                    if (states.asMap().remove(state.getCtidTraderAccountId(), state)) {
+                        release(state);
+                    }
+                });
+    }
+
+    // Unsubscribe the spots and log the account out, unless the connection it was authorized on is gone already
+    private void release(final CTraderAccountState state) {
+        CTraderSession session = sessions.get(state.getHost());
+        if (session == null || session.generation() != state.getGeneration()) {
+            return;
+        }
+
+        long ctidTraderAccountId = state.getCtidTraderAccountId();
+        Set<Long> symbolIds = state.getSubscribedSymbols();
+        Mono<Void> unsubscribe = symbolIds.isEmpty()
+                ? Mono.empty()
+                : session.request(OpenApiMessages.unsubscribeSpotsRequest(ctidTraderAccountId, symbolIds)).then();
+
+        unsubscribe.then(session.request(OpenApiMessages.accountLogoutRequest(ctidTraderAccountId)))
+                .subscribe(response -> log.info("CTrader | Account {} logged out of {}", ctidTraderAccountId, session.host()),
+                        error -> log.warn("CTrader | Account {} release failed: {}", ctidTraderAccountId, error.getMessage()));
+    }
+
+    private void subscribeInBackground(final Mono<Void> update, final CTraderAccountState state) {
+        update.subscribe(null, error -> log.warn("CTrader | Account {} update failed: {}",
+                state.getCtidTraderAccountId(), error.getMessage()));
+    }
+
+    @Override
+    public void destroy() {
+        sessions.values().forEach(CTraderSession::close);
+        sessions.clear();
+        states.invalidateAll();
+    }
+
+}
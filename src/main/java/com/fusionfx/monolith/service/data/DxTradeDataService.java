@@ -1,34 +1,49 @@
 package com.fusionfx.monolith.service.data;
 
-import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.BrokerMetrics;
+import com.fusionfx.monolith.client.WebClientRegistry;
 import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
 import com.fusionfx.monolith.dto.dxtrade.AccountMetricsDto;
 import com.fusionfx.monolith.dto.dxtrade.MetricsResponseDto;
+import com.fusionfx.monolith.dto.dxtrade.OrdersResponseDto;
+import com.fusionfx.monolith.dto.dxtrade.PositionsResponseDto;
 import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.PositionSide;
+import com.fusionfx.monolith.enums.Upstream;
 import com.fusionfx.monolith.service.auth.DxTradeAuthService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DxTradeDataService {
 
-    private final WebClient.Builder webClientBuilder;
+    private final BrokerMetrics brokerMetrics;
+    private final MarginCalculator marginCalculator;
+    private final WebClientRegistry webClientRegistry;
     private final DxTradeAuthService dxTradeAuthService;
 
     public Mono<AccountDto> getAccountMetrics(final TradeAccount tradeAccount) {
 
-        return dxTradeAuthService.getValidToken(tradeAccount)
+        return brokerMetrics.time(Upstream.DXTRADE, "account", dxTradeAuthService.getValidToken(tradeAccount)
                 .flatMap(token -> {
-                    WebClient webClient = webClientBuilder.build();
+                    WebClient webClient = webClientRegistry.get(Upstream.DXTRADE, tradeAccount.getConnectionUrl());
 
                     return webClient.get()
-                            .uri(tradeAccount.getConnectionUrl() + "/dxsca-web/accounts/default:{accountNumber}/metrics", tradeAccount.getAccountNumber())
+                            .uri("/dxsca-web/accounts/default:{accountNumber}/metrics", tradeAccount.getAccountNumber())
                             .header(HttpHeaders.AUTHORIZATION, "DXAPI " + token)
                             .retrieve()
                             .bodyToMono(MetricsResponseDto.class)
@@ -41,10 +56,91 @@ public class DxTradeDataService {
                                                 .balance(accountMetricsDto.getBalance())
                                                 .equity(accountMetricsDto.getEquity())
                                                 .openNetPnl(accountMetricsDto.getOpenPL())
-                                                .marginLevel(accountMetricsDto.getMargin())
+                                                .marginLevel(marginCalculator.marginLevel(accountMetricsDto.getEquity(), accountMetricsDto.getMargin()))
                                                 .positionCount(accountMetricsDto.getOpenPositionsCount())
                                                 .build());
                             });
+                }));
+    }
+
+    // The positions carry no price or P&L; both come from the position metrics, requested alongside
+    public Flux<PositionDto> getPositions(final TradeAccount tradeAccount) {
+        return brokerMetrics.time(Upstream.DXTRADE, "positions", dxTradeAuthService.getValidToken(tradeAccount)
+                        .flatMap(token -> {
+                            WebClient webClient = webClientRegistry.get(Upstream.DXTRADE, tradeAccount.getConnectionUrl());
+
+                            Mono<PositionsResponseDto> positions = webClient.get()
+                                    .uri("/dxsca-web/accounts/default:{accountNumber}/positions", tradeAccount.getAccountNumber())
+                                    .header(HttpHeaders.AUTHORIZATION, "DXAPI " + token)
+                                    .retrieve()
+                                    .bodyToMono(PositionsResponseDto.class);
+                            Mono<MetricsResponseDto> metrics = webClient.get()
+                                    .uri("/dxsca-web/accounts/default:{accountNumber}/metrics?include-positions=true", tradeAccount.getAccountNumber())
+                                    .header(HttpHeaders.AUTHORIZATION, "DXAPI " + token)
+                                    .retrieve()
+                                    .bodyToMono(MetricsResponseDto.class);
+
+                            return Mono.zip(positions, metrics);
+                        }))
+                .flatMapIterable(tuple -> {
+                    List<PositionsResponseDto.Position> positions = tuple.getT1().getPositions();
+                    if (positions == null) {
+                        return List.of();
+                    }
+                    Map<String, AccountMetricsDto.PositionMetrics> metrics = positionMetrics(tuple.getT2());
+
+                    return positions.stream()
+                            .map(position -> {
+                                var positionMetrics = metrics.getOrDefault(position.getPositionCode(), new AccountMetricsDto.PositionMetrics());
+
+                                return PositionDto.builder()
+                                        .id(position.getPositionCode())
+                                        .symbol(position.getSymbol())
+                                        .side("SELL".equalsIgnoreCase(position.getSide()) ? PositionSide.SELL : PositionSide.BUY)
+                                        .volume(position.getQuantity())
+                                        .openPrice(position.getOpenPrice())
+                                        .currentPrice(positionMetrics.getCurrentPrice())
+                                        .profit(positionMetrics.getFpl())
+                                        .openTime(position.getOpenTime())
+                                        .build();
+                            })
+                            .toList();
+                });
+    }
+
+    private static Map<String, AccountMetricsDto.PositionMetrics> positionMetrics(final MetricsResponseDto response) {
+        if (response.getMetrics() == null || response.getMetrics().isEmpty() || response.getMetrics().get(0).getPositions() == null) {
+            return Map.of();
+        }
+        return response.getMetrics().get(0).getPositions().stream()
+                .collect(Collectors.toMap(AccountMetricsDto.PositionMetrics::getPositionCode, Function.identity(), (first, second) -> first));
+    }
+
+    public Flux<OrderDto> getOrders(final TradeAccount tradeAccount) {
+        return brokerMetrics.time(Upstream.DXTRADE, "orders", dxTradeAuthService.getValidToken(tradeAccount)
+                        .flatMap(token -> webClientRegistry.get(Upstream.DXTRADE, tradeAccount.getConnectionUrl()).get()
+                                .uri("/dxsca-web/accounts/default:{accountNumber}/orders", tradeAccount.getAccountNumber())
+                                .header(HttpHeaders.AUTHORIZATION, "DXAPI " + token)
+                                .retrieve()
+                                .bodyToMono(OrdersResponseDto.class)))
+                .flatMapIterable(response -> response.getOrders() == null ? List.of() : response.getOrders())
+                .map(order -> {
+                    // Single-leg orders only; the first leg carries the prices and quantities
+                    var leg = order.getLegs() == null || order.getLegs().isEmpty()
+                            ? new OrdersResponseDto.Leg() : order.getLegs().get(0);
+
+                    return OrderDto.builder()
+                            .id(order.getOrderId())
+                            .symbol(order.getInstrument())
+                            .side("SELL".equalsIgnoreCase(order.getSide()) ? PositionSide.SELL : PositionSide.BUY)
+                            .type(order.getType())
+                            .status(order.getStatus())
+                            .volume(leg.getQuantity())
+                            .filledVolume(leg.getFilledQuantity())
+                            .price(leg.getPrice())
+                            .stopPrice(leg.getStopPrice())
+                            .createdTime(order.getIssueTime())
+                            .build();
                 });
     }
 
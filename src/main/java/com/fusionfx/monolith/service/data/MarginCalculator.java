@@ -0,0 +1,39 @@
+package com.fusionfx.monolith.service.data;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Margin math shared by the data services of all platforms, in primitive doubles.
+ * <p>
+ * The margin level is a ratio (equity / used margin, 2.5 = 250%). How it is rendered is left to the JSON output mode
+ * ({@code fusion.json.number-mode}).
+ */
+@Component
+public class MarginCalculator {
+
+    /**
+     * Margin level of an account.
+     *
+     * @param equity     The account equity.
+     * @param usedMargin The margin in use.
+     * @return equity / usedMargin, or null when no margin is in use or either value is not a finite number.
+     */
+    public Double marginLevel(final double equity, final double usedMargin) {
+        if (!(usedMargin > 0) || !Double.isFinite(usedMargin) || !Double.isFinite(equity)) {
+            return null;
+        }
+        return equity / usedMargin;
+    }
+
+    /**
+     * Used margin of a TradeLocker account, whose maintMarginReq column is reported before leverage.
+     *
+     * @param maintMarginReq The maintenance margin requirement.
+     * @param leverage       The leverage of the account.
+     * @return maintMarginReq / leverage, or 0 when the leverage is unknown.
+     */
+    public double tradeLockerUsedMargin(final double maintMarginReq, final int leverage) {
+        return leverage > 0 ? maintMarginReq / leverage : 0;
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.client.BrokerMetrics;
+import com.fusionfx.monolith.client.WebClientRegistry;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.dto.matchtrader.ActiveOrdersResponseDto;
+import com.fusionfx.monolith.dto.matchtrader.BalanceDto;
+import com.fusionfx.monolith.dto.matchtrader.OpenPositionsResponseDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.PositionSide;
+import com.fusionfx.monolith.enums.Upstream;
+import com.fusionfx.monolith.model.MatchTraderSession;
+import com.fusionfx.monolith.service.auth.MatchTraderAuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Match-Trader account data over the shared broker session of the account's login.
+ * <p>
+ * Every call costs one request on the pooled connection of the broker host; the login is only repeated when the
+ * session expired or the broker answered 401, in which case the call is retried once on a new session.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchTraderDataService {
+
+    private final BrokerMetrics brokerMetrics;
+    private final MarginCalculator marginCalculator;
+    private final WebClientRegistry webClientRegistry;
+    private final MatchTraderAuthService matchTraderAuthService;
+
+    // The balance carries no position count; it stays unknown rather than costing an open-positions call per refresh
+    public Mono<AccountDto> getBalance(final TradeAccount tradeAccount) {
+        return brokerMetrics.time(Upstream.MATCHTRADER, "balance", withSession(tradeAccount, "balance", (session, account) ->
+                        webClientRegistry.get(Upstream.MATCHTRADER, tradeAccount.getConnectionUrl()).get()
+                                .uri("/mtr-api/{systemUuid}/balance", account.getSystemUuid())
+                                .headers(headers -> authorize(headers, session, account))
+                                .retrieve()
+                                .bodyToMono(BalanceDto.class)))
+                .map(balance -> AccountDto.builder()
+                        .balance(balance.getBalance())
+                        .equity(balance.getEquity())
+                        .openNetPnl(balance.getEquity() - balance.getBalance())
+                        .marginLevel(marginCalculator.marginLevel(balance.getEquity(), balance.getMargin()))
+                        .currency(balance.getCurrency())
+                        .build());
+    }
+
+    public Flux<PositionDto> getPositions(final TradeAccount tradeAccount) {
+        return brokerMetrics.time(Upstream.MATCHTRADER, "positions", withSession(tradeAccount, "positions", (session, account) ->
+                        webClientRegistry.get(Upstream.MATCHTRADER, tradeAccount.getConnectionUrl()).get()
+                                .uri("/mtr-api/{systemUuid}/open-positions", account.getSystemUuid())
+                                .headers(headers -> authorize(headers, session, account))
+                                .retrieve()
+                                .bodyToMono(OpenPositionsResponseDto.class)))
+                .flatMapIterable(response -> response.getPositions() == null ? List.of() : response.getPositions())
+                .map(position -> PositionDto.builder()
+                        .id(position.getId())
+                        .symbol(position.getSymbol())
+                        .side("SELL".equalsIgnoreCase(position.getSide()) ? PositionSide.SELL : PositionSide.BUY)
+                        .volume(position.getVolume())
+                        .openPrice(position.getOpenPrice())
+                        .currentPrice(position.getCurrentPrice())
+                        .profit(position.getNetProfit())
+                        .openTime(position.getOpenTime())
+                        .build());
+    }
+
+    public Flux<OrderDto> getOrders(final TradeAccount tradeAccount) {
+        return brokerMetrics.time(Upstream.MATCHTRADER, "orders", withSession(tradeAccount, "orders", (session, account) ->
+                        webClientRegistry.get(Upstream.MATCHTRADER, tradeAccount.getConnectionUrl()).get()
+                                .uri("/mtr-api/{systemUuid}/active-orders", account.getSystemUuid())
+                                .headers(headers -> authorize(headers, session, account))
+                                .retrieve()
+                                .bodyToMono(ActiveOrdersResponseDto.class)))
+                .flatMapIterable(response -> response.getOrders() == null ? List.of() : response.getOrders())
+                .map(order -> {
+                    boolean stop = "STOP".equalsIgnoreCase(order.getType());
+
+                    return OrderDto.builder()
+                            .id(order.getId())
+                            .symbol(order.getSymbol())
+                            .side("SELL".equalsIgnoreCase(order.getSide()) ? PositionSide.SELL : PositionSide.BUY)
+                            .type(order.getType())
+                            .status(order.getStatus())
+                            .volume(order.getVolume())
+                            .price(stop ? 0 : order.getActivationPrice())
+                            .stopPrice(stop ? order.getActivationPrice() : 0)
+                            .createdTime(order.getCreationTime())
+                            .build();
+                });
+    }
+
+    // Run the call on the login's session, once more on a new session if the broker rejected the current one
+    private <T> Mono<T> withSession(final TradeAccount tradeAccount, final String operation, final SessionCall<T> call) {
+        return matchTraderAuthService.getSession(tradeAccount)
+                .flatMap(session -> onAccount(tradeAccount, session, call)
+                        .onErrorResume(WebClientResponseException.Unauthorized.class, error -> {
+                            log.info("Match-Trader | Session rejected for account {}, logging in again", tradeAccount.getId());
+                            brokerMetrics.retry(Upstream.MATCHTRADER, operation);
+                            matchTraderAuthService.invalidate(tradeAccount, session);
+                            return matchTraderAuthService.getSession(tradeAccount)
+                                    .flatMap(renewed -> onAccount(tradeAccount, renewed, call));
+                        }));
+    }
+
+    private <T> Mono<T> onAccount(final TradeAccount tradeAccount, final MatchTraderSession session, final SessionCall<T> call) {
+        MatchTraderSession.Account account = session.getAccounts().get(tradeAccount.getAccountNumber());
+        if (account == null) {
+            return Mono.error(new IllegalArgumentException(
+                    "Match-Trader account " + tradeAccount.getAccountNumber() + " not found for this login"));
+        }
+        return call.apply(session, account);
+    }
+
+    private static void authorize(final HttpHeaders headers, final MatchTraderSession session, final MatchTraderSession.Account account) {
+        headers.set("Auth-trading-api", account.getTradingApiToken());
+        headers.set(HttpHeaders.COOKIE, "co-auth=" + session.getToken());
+    }
+
+    @FunctionalInterface
+    private interface SessionCall<T> {
+        Mono<T> apply(MatchTraderSession session, MatchTraderSession.Account account);
+    }
+
+}
@@ -1,16 +1,23 @@
 package com.fusionfx.monolith.service.data;
 
 import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.BrokerMetrics;
+import com.fusionfx.monolith.client.UpstreamResilience;
+import com.fusionfx.monolith.client.WebClientRegistry;
 import com.fusionfx.monolith.dto.metatrader.AccountDetailsDto;
+import com.fusionfx.monolith.dto.metatrader.OrderDetailsDto;
+import com.fusionfx.monolith.dto.metatrader.PositionDetailsDto;
 import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.Upstream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -18,7 +25,29 @@ import java.time.Duration;
 public class MetaTraderDataService {
 
     private final AppProperties appProperties;
-    private final WebClient.Builder webClientBuilder;
+    private final BrokerMetrics brokerMetrics;
+    private final WebClientRegistry webClientRegistry;
+    private final MetaTraderStreamingService metaTraderStreamingService;
+
+    /**
+     * Fetches account information for the given account.
+     * <p>
+     * When streaming is enabled and a subscriber holds the account's MetaApi streaming connection open, the
+     * information is read from its synchronized terminal state; otherwise it falls back to the REST API.
+     *
+     * @param tradeAccount The {@link TradeAccount} entity containing the account ID and other account details.
+     * @return A {@link Mono} containing the account information mapped to {@link AccountDetailsDto}.
+     */
+    public Mono<AccountDetailsDto> fetchAccountInformation(TradeAccount tradeAccount) {
+        if (!appProperties.getMetaApi().isStreamingEnabled()) {
+            return fetchAccountInformationFromRest(tradeAccount);
+        }
+
+        return brokerMetrics.time(Upstream.METAAPI, "account-information-streaming",
+                        metaTraderStreamingService.getAccountInformation(tradeAccount.getCloudAccountNumber()))
+                .map(acctInfo -> applyAccountDefaults(tradeAccount, acctInfo))
+                .switchIfEmpty(Mono.defer(() -> fetchAccountInformationFromRest(tradeAccount)));
+    }
 
     /**
      * Fetches account information from the MetaTrader API for the given account.
@@ -32,29 +61,115 @@ public class MetaTraderDataService {
      * @param tradeAccount The {@link TradeAccount} entity containing the account ID and other account details.
      * @return A {@link Mono} containing the account information mapped to {@link AccountDetailsDto}.
      */
-    public Mono<AccountDetailsDto> fetchAccountInformation(TradeAccount tradeAccount) {
-        WebClient webClient = webClientBuilder.build();
+    private Mono<AccountDetailsDto> fetchAccountInformationFromRest(TradeAccount tradeAccount) {
+        WebClient webClient = webClientRegistry.get(Upstream.METAAPI, appProperties.getMetaApi().getClientApiUrl());
 
-        return webClient.get()
-                .uri("https://mt-client-api-v1.london.agiliumtrade.ai/users/current/accounts/{accountId}/account-information", tradeAccount.getCloudAccountNumber())
+        Mono<AccountDetailsDto> request = webClient.get()
+                .uri("/users/current/accounts/{accountId}/account-information", tradeAccount.getCloudAccountNumber())
                 .header("Accept", "application/json")
                 .header("auth-token", appProperties.getMetaApi().getApiKey())
                 .retrieve()
                 .bodyToMono(AccountDetailsDto.class) // Map the response directly to the DTO
                 .doOnSuccess(response -> log.info("Successfully retrieved account information: {}", response))
                 .doOnError(error -> log.error("Error retrieving account information: {}", error.getMessage()))
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2)) // Retry 3 times with a 2-second backoff
-                        .doBeforeRetry(retrySignal -> log.warn("Retrying to fetch account information, attempt: {}", retrySignal.totalRetries() + 1)))
-                .map(acctInfo -> {
-                    // Set tradeAccount fields if null
-                    if (tradeAccount.getBroker() == null) {
-                        tradeAccount.setBroker(acctInfo.getBroker());
-                    }
-                    if (tradeAccount.getLeverage() == 0) { // Assuming leverage defaults to 0 when unset
-                        tradeAccount.setLeverage(acctInfo.getLeverage());
-                    }
-                    return acctInfo;
-                });
+                .retryWhen(UpstreamResilience.retry(2, Duration.ofMillis(250)) // Transient failures only, within the caller's deadline
+                        .doBeforeRetry(retrySignal -> {
+                            brokerMetrics.retry(Upstream.METAAPI, "account-information");
+                            log.warn("Retrying to fetch account information, attempt: {}", retrySignal.totalRetries() + 1);
+                        }));
+
+        return brokerMetrics.time(Upstream.METAAPI, "account-information-rest", request)
+                .map(acctInfo -> applyAccountDefaults(tradeAccount, acctInfo));
+    }
+
+    /**
+     * Fetches the open positions of the given account.
+     * <p>
+     * Like {@link #fetchAccountInformation}, the positions are read from the account's synchronized streaming
+     * connection when one is open, and from the REST API otherwise.
+     *
+     * @param tradeAccount The {@link TradeAccount} entity containing the account ID and other account details.
+     * @return A {@link Flux} of the open positions.
+     */
+    public Flux<PositionDetailsDto> fetchPositions(TradeAccount tradeAccount) {
+        if (!appProperties.getMetaApi().isStreamingEnabled()) {
+            return fetchPositionsFromRest(tradeAccount);
+        }
+
+        return metaTraderStreamingService.getPositions(tradeAccount.getCloudAccountNumber())
+                .switchIfEmpty(Mono.defer(() -> fetchPositionsFromRest(tradeAccount).collectList()))
+                .flatMapIterable(positions -> positions);
+    }
+
+    /**
+     * Counts the open positions of the given account without an extra REST call.
+     * <p>
+     * The count is read from the synchronized terminal state of an open streaming connection. Without one the
+     * result is empty, unless {@code fusion.meta-api.rest-position-count} allows listing the positions over REST.
+     *
+     * @param tradeAccount The {@link TradeAccount} entity containing the account ID and other account details.
+     * @return A {@link Mono} of the open position count, empty when it is not known.
+     */
+    public Mono<Integer> fetchPositionCount(TradeAccount tradeAccount) {
+        Mono<Integer> rest = appProperties.getMetaApi().isRestPositionCount()
+                ? fetchPositionsFromRest(tradeAccount).count().map(Long::intValue)
+                : Mono.empty();
+        if (!appProperties.getMetaApi().isStreamingEnabled()) {
+            return rest;
+        }
+
+        return metaTraderStreamingService.getPositions(tradeAccount.getCloudAccountNumber())
+                .map(List::size)
+                .switchIfEmpty(rest);
+    }
+
+    private Flux<PositionDetailsDto> fetchPositionsFromRest(TradeAccount tradeAccount) {
+        WebClient webClient = webClientRegistry.get(Upstream.METAAPI, appProperties.getMetaApi().getClientApiUrl());
+
+        Mono<List<PositionDetailsDto>> request = webClient.get()
+                .uri("/users/current/accounts/{accountId}/positions", tradeAccount.getCloudAccountNumber())
+                .header("Accept", "application/json")
+                .header("auth-token", appProperties.getMetaApi().getApiKey())
+                .retrieve()
+                .bodyToFlux(PositionDetailsDto.class)
+                .collectList()
+                .doOnError(error -> log.error("Error retrieving positions: {}", error.getMessage()));
+
+        return brokerMetrics.time(Upstream.METAAPI, "positions", request)
+                .flatMapIterable(positions -> positions);
+    }
+
+    /**
+     * Fetches the pending orders of the given account from the MetaTrader API.
+     *
+     * @param tradeAccount The {@link TradeAccount} entity containing the account ID and other account details.
+     * @return A {@link Flux} of the pending orders.
+     */
+    public Flux<OrderDetailsDto> fetchOrders(TradeAccount tradeAccount) {
+        WebClient webClient = webClientRegistry.get(Upstream.METAAPI, appProperties.getMetaApi().getClientApiUrl());
+
+        Mono<List<OrderDetailsDto>> request = webClient.get()
+                .uri("/users/current/accounts/{accountId}/orders", tradeAccount.getCloudAccountNumber())
+                .header("Accept", "application/json")
+                .header("auth-token", appProperties.getMetaApi().getApiKey())
+                .retrieve()
+                .bodyToFlux(OrderDetailsDto.class)
+                .collectList()
+                .doOnError(error -> log.error("Error retrieving orders: {}", error.getMessage()));
+
+        return brokerMetrics.time(Upstream.METAAPI, "orders", request)
+                .flatMapIterable(orders -> orders);
+    }
+
+    // Set tradeAccount fields if null
+    private AccountDetailsDto applyAccountDefaults(TradeAccount tradeAccount, AccountDetailsDto acctInfo) {
+        if (tradeAccount.getBroker() == null) {
+            tradeAccount.setBroker(acctInfo.getBroker());
+        }
+        if (tradeAccount.getLeverage() == 0) { // Assuming leverage defaults to 0 when unset
+            tradeAccount.setLeverage(acctInfo.getLeverage());
+        }
+        return acctInfo;
     }
 
 }
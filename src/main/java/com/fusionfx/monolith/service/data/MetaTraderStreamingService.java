@@ -0,0 +1,278 @@
+package com.fusionfx.monolith.service.data;
+
+import cloud.metaapi.sdk.clients.meta_api.models.MetatraderAccountInformation;
+import cloud.metaapi.sdk.clients.meta_api.models.MetatraderPosition;
+import cloud.metaapi.sdk.clients.models.IsoTime;
+import cloud.metaapi.sdk.meta_api.MetaApi;
+import cloud.metaapi.sdk.meta_api.StreamingMetaApiConnectionInstance;
+import cloud.metaapi.sdk.meta_api.TerminalState;
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.dto.metatrader.AccountDetailsDto;
+import com.fusionfx.monolith.dto.metatrader.PositionDetailsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared MetaApi streaming connections, one per cloud account.
+ * <p>
+ * A connection keeps the terminal state (balance, equity, margin, positions) of its account in memory once it is
+ * synchronized, so reads are served without a REST round trip. Connections are reference-counted per active
+ * subscriber (a live account stream or position book, see {@link #retain}); reads only use a connection that is
+ * already open and never keep it alive, so background refreshes alone do not hold a connection per account. A
+ * connection without references for {@code fusion.meta-api.streaming-idle-timeout} is closed.
+ * <p>
+ * Off by default ({@code fusion.meta-api.streaming-enabled}): the SDK types used here have not yet been checked against
+ * the published {@code metaapi-java-sdk} artifact, so every read goes through REST until they are.
+ */
+@Slf4j
+@Service
+public class MetaTraderStreamingService implements DisposableBean {
+
+    private final MetaApi metaApi;
+    private final AppProperties appProperties;
+    private final Scheduler blockingScheduler;
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public MetaTraderStreamingService(final MetaApi metaApi,
+                                      final AppProperties appProperties,
+                                      final Scheduler blockingScheduler) {
+        this.metaApi = metaApi;
+        this.appProperties = appProperties;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Hold a reference on the account's streaming connection, opening it in the background if there is none.
+     *
+     * @param cloudAccountNumber The MetaApi account ID.
+     * @return A Disposable releasing the reference; a no-op when streaming is disabled.
+     */
+    public Disposable retain(final String cloudAccountNumber) {
+        if (!appProperties.getMetaApi().isStreamingEnabled()) {
+            return Disposables.disposed();
+        }
+        Session session = acquire(cloudAccountNumber);
+        var released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                release(session);
+            }
+        };
+    }
+
+    /**
+     * Read the account information from the synchronized terminal state of the account's streaming connection.
+     *
+     * @param cloudAccountNumber The MetaApi account ID.
+     * @return A Mono containing the account information, or empty while no synchronized connection is open;
+     * callers fall back to REST.
+     */
+    public Mono<AccountDetailsDto> getAccountInformation(final String cloudAccountNumber) {
+        return readTerminalState(cloudAccountNumber)
+                .mapNotNull(TerminalState::getAccountInformation)
+                .map(MetaTraderStreamingService::toAccountDetails);
+    }
+
+    /**
+     * Read the open positions from the synchronized terminal state of the account's streaming connection.
+     *
+     * @param cloudAccountNumber The MetaApi account ID.
+     * @return A Mono containing the open positions, or empty while no synchronized connection is open.
+     */
+    public Mono<List<PositionDetailsDto>> getPositions(final String cloudAccountNumber) {
+        return readTerminalState(cloudAccountNumber)
+                .mapNotNull(TerminalState::getPositions)
+                .map(positions -> positions.stream().map(MetaTraderStreamingService::toPositionDetails).toList());
+    }
+
+    /**
+     * Read the synchronized terminal state of an open streaming connection, without opening one or keeping it open.
+     *
+     * @param cloudAccountNumber The MetaApi account ID.
+     * @return A Mono containing the terminal state, or empty while no synchronized connection is open.
+     */
+    public Mono<TerminalState> readTerminalState(final String cloudAccountNumber) {
+        return Mono.fromSupplier(() -> Optional.ofNullable(sessions.get(cloudAccountNumber)))
+                .flatMap(session -> Mono.justOrEmpty(session.flatMap(Session::terminalState)));
+    }
+
+    private Session acquire(final String accountId) {
+        return sessions.compute(accountId, (id, existing) -> {
+            Session session = existing != null && !existing.failed.get() ? existing : new Session(id);
+            session.references++;
+            if (session.pendingClose != null) {
+                session.pendingClose.dispose();
+                session.pendingClose = null;
+            }
+            return session;
+        });
+    }
+
+    private void release(final Session session) {
+        sessions.computeIfPresent(session.accountId, (id, current) -> {
+            if (current == session && --session.references == 0) {
+                session.pendingClose = Mono.delay(appProperties.getMetaApi().getStreamingIdleTimeout())
+                        .subscribe(tick -> closeIfIdle(session));
+            }
+            return current;
+        });
+    }
+
+    private void closeIfIdle(final Session session) {
+        var idle = new AtomicBoolean();
+        sessions.computeIfPresent(session.accountId, (id, current) -> {
+            if (current == session && session.references == 0) {
+                idle.set(true);
+                return null;
+            }
+            return current;
+        });
+        if (idle.get()) {
+            session.close();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sessions.values().forEach(Session::close);
+        sessions.clear();
+    }
+
+    private static AccountDetailsDto toAccountDetails(final MetatraderAccountInformation info) {
+        var accountDetails = new AccountDetailsDto();
+        accountDetails.setPlatform(info.platform);
+        accountDetails.setBroker(info.broker);
+        accountDetails.setCurrency(info.currency);
+        accountDetails.setServer(info.server);
+        accountDetails.setBalance(info.balance);
+        accountDetails.setEquity(info.equity);
+        accountDetails.setMargin(info.margin);
+        accountDetails.setFreeMargin(info.freeMargin);
+        accountDetails.setLeverage((int) toDouble(info.leverage));
+        accountDetails.setName(info.name);
+        accountDetails.setLogin((long) toDouble(info.login));
+        accountDetails.setCredit(toDouble(info.credit));
+        accountDetails.setTradeAllowed(Boolean.TRUE.equals(info.tradeAllowed));
+        accountDetails.setInvestorMode(Boolean.TRUE.equals(info.investorMode));
+        accountDetails.setMarginMode(info.marginMode);
+        accountDetails.setType(info.type);
+        return accountDetails;
+    }
+
+    private static PositionDetailsDto toPositionDetails(final MetatraderPosition position) {
+        var positionDetails = new PositionDetailsDto();
+        positionDetails.setId(position.id);
+        positionDetails.setType(position.type == null ? null : position.type.name());
+        positionDetails.setSymbol(position.symbol);
+        positionDetails.setVolume(position.volume);
+        positionDetails.setOpenPrice(position.openPrice);
+        positionDetails.setCurrentPrice(toDouble(position.currentPrice));
+        positionDetails.setProfit(position.profit);
+        positionDetails.setUnrealizedProfit(toDouble(position.unrealizedProfit));
+        positionDetails.setTime(toInstant(position.time != null ? position.time : position.updateTime));
+        return positionDetails;
+    }
+
+    private static Instant toInstant(final IsoTime time) {
+        return time == null || time.getDate() == null ? null : time.getDate().toInstant();
+    }
+
+    // SDK models expose boxed and primitive numbers (and numeric strings) depending on the field
+    private static double toDouble(final Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            return Double.parseDouble(text);
+        }
+        return 0;
+    }
+
+    private class Session {
+
+        private final String accountId;
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Disposable connecting;
+        private final AtomicReference<StreamingMetaApiConnectionInstance> connection = new AtomicReference<>();
+
+        // Guarded by the sessions map compute lock of accountId
+        private int references;
+        private Disposable pendingClose;
+
+        private Session(final String accountId) {
+            this.accountId = accountId;
+            // Connect off the calling thread: the SDK blocks, and this runs inside the sessions map compute lock
+            this.connecting = connect()
+                    .subscribeOn(blockingScheduler)
+                    .subscribe(connected -> {
+                        connection.set(connected);
+                        if (closed.get()) { // Closed while synchronizing: close() may have missed the connection
+                            closeConnection(connection.getAndSet(null));
+                            return;
+                        }
+                        log.info("MetaApi | Streaming connection synchronized for {}", accountId);
+                    }, error -> {
+                        failed.set(true);
+                        sessions.remove(accountId, this);
+                        log.warn("MetaApi | Streaming connection failed for {}: {}", accountId, error.getMessage());
+                    });
+        }
+
+        // An instance that does not synchronize in time, or whose session is closed meanwhile, is closed right away
+        private Mono<StreamingMetaApiConnectionInstance> connect() {
+            var opened = new AtomicReference<StreamingMetaApiConnectionInstance>();
+
+            return Mono.fromFuture(() -> metaApi.getMetatraderAccountApi().getAccount(accountId))
+                    .flatMap(account -> {
+                        StreamingMetaApiConnectionInstance instance = account.getStreamingConnection();
+                        opened.set(instance);
+                        return Mono.fromFuture(instance::connect)
+                                .then(Mono.fromFuture(instance::waitSynchronized))
+                                .thenReturn(instance);
+                    })
+                    .timeout(appProperties.getMetaApi().getStreamingSyncTimeout())
+                    .doOnNext(instance -> opened.set(null)) // Handed over to the session
+                    .onErrorResume(error -> {
+                        closeConnection(opened.getAndSet(null));
+                        return Mono.error(error);
+                    })
+                    .doOnCancel(() -> closeConnection(opened.getAndSet(null)));
+        }
+
+        private Optional<TerminalState> terminalState() {
+            var current = connection.get();
+            if (current == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(current.getTerminalState())
+                    .filter(TerminalState::isConnected);
+        }
+
+        private void close() {
+            closed.set(true);
+            connecting.dispose();
+            closeConnection(connection.getAndSet(null));
+        }
+
+        private void closeConnection(final StreamingMetaApiConnectionInstance instance) {
+            if (instance != null) {
+                instance.close().whenComplete((ignored, error) -> log.info("MetaApi | Closed streaming connection for {}", accountId));
+            }
+        }
+    }
+
+}
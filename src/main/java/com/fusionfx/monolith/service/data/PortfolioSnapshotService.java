@@ -0,0 +1,95 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.Deadline;
+import com.fusionfx.monolith.client.UpstreamResilience;
+import com.fusionfx.monolith.client.ctrader.CTraderApiException;
+import com.fusionfx.monolith.dto.AccountSnapshotDto;
+import com.fusionfx.monolith.dto.PortfolioSnapshotDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.repo.TradeAccountCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PortfolioSnapshotService {
+
+    private static final Set<String> CTRADER_UNAUTHORIZED = Set.of("CH_ACCESS_TOKEN_INVALID", "OA_AUTH_TOKEN_EXPIRED");
+
+    private final AppProperties appProperties;
+    private final TradeAccountCache tradeAccountCache;
+    private final AccountDataDispatcher accountDataDispatcher;
+    private final AccountRefreshScheduler accountRefreshScheduler;
+
+    /**
+     * Fetch all trade accounts of a user across platforms in one bounded fan-out.
+     * <p>
+     * Accounts are fetched with at most {@code fusion.snapshot.concurrency} broker calls in flight; an account that
+     * fails or exceeds {@code fusion.snapshot.account-timeout} is reported as unavailable instead of failing the
+     * whole snapshot. The timeout is a {@link Deadline}, so token and data calls of a slow account stop with it.
+     * Only a fixed reason reaches the client; the broker's error is logged.
+     *
+     * @param userId     The owner of the trade accounts.
+     * @param accountIds The trade accounts to include, all accounts of the user when null or empty.
+     * @return A Mono containing the per-account details and the aggregated totals.
+     */
+    public Mono<PortfolioSnapshotDto> getSnapshot(final String userId, final Collection<String> accountIds) {
+        Flux<TradeAccount> tradeAccounts = accountIds == null || accountIds.isEmpty()
+                ? tradeAccountCache.findAllByUserId(userId)
+                : tradeAccountCache.findAllByIdInAndUserId(accountIds, userId); // Ids the user does not own are skipped
+
+        return tradeAccounts
+                .flatMapSequential(this::fetchSnapshot, appProperties.getSnapshot().getConcurrency())
+                .collectList()
+                .map(PortfolioSnapshotDto::of);
+    }
+
+    private Mono<AccountSnapshotDto> fetchSnapshot(final TradeAccount tradeAccount) {
+        accountRefreshScheduler.touch(tradeAccount);
+
+        return accountDataDispatcher.getAccount(tradeAccount, appProperties.getRefresh().getMaxSnapshotAge())
+                .transform(Deadline.within(appProperties.getSnapshot().getAccountTimeout()))
+                .map(account -> AccountSnapshotDto.available(tradeAccount, account))
+                .onErrorResume(error -> {
+                    String reason = reason(error);
+                    log.warn("Snapshot | Account {} ({}) unavailable, {}: {}", tradeAccount.getId(), tradeAccount.getPlatform(), reason, error.toString());
+                    return Mono.just(AccountSnapshotDto.unavailable(tradeAccount, reason));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Snapshot | Account {} ({}) unavailable: no data returned", tradeAccount.getId(), tradeAccount.getPlatform());
+                    return AccountSnapshotDto.unavailable(tradeAccount, AccountSnapshotDto.UPSTREAM_ERROR);
+                }));
+    }
+
+    // Connectors wrap broker errors, so the whole cause chain is inspected
+    private static String reason(final Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return AccountSnapshotDto.TIMEOUT;
+            }
+            if (UpstreamResilience.isRejected(cause)) {
+                return AccountSnapshotDto.REJECTED;
+            }
+            if (cause instanceof WebClientResponseException response
+                    && (response.getStatusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED) || response.getStatusCode().isSameCodeAs(HttpStatus.FORBIDDEN))) {
+                return AccountSnapshotDto.UNAUTHORIZED;
+            }
+            if (cause instanceof CTraderApiException apiError && CTRADER_UNAUTHORIZED.contains(apiError.getErrorCode())) {
+                return AccountSnapshotDto.UNAUTHORIZED;
+            }
+        }
+        return AccountSnapshotDto.UPSTREAM_ERROR;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.connector.PlatformConnectorRegistry;
+import com.fusionfx.monolith.dto.BookDeltaDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.model.VersionedBook;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Open positions and working orders per trade account, served as deltas against a client-supplied version.
+ * <p>
+ * Each account has one {@link VersionedBook} of positions and one of orders. A request polls the broker through the
+ * account's connector unless the book was refreshed within {@code fusion.books.min-refresh-interval}; concurrent
+ * requests for the same book share one broker call. Books nobody asked for within {@code idle-timeout} are dropped;
+ * while a book lives it {@link com.fusionfx.monolith.connector.PlatformConnector#retain retains} the connector's push
+ * channel, so connectors that have one serve the polls from it.
+ */
+@Service
+public class PositionBookService {
+
+    private final AppProperties appProperties;
+    private final PlatformConnectorRegistry platformConnectorRegistry;
+    private final Cache<String, AccountBooks> books;
+    private final ConcurrentMap<String, Mono<Long>> inFlight = new ConcurrentHashMap<>();
+
+    public PositionBookService(final AppProperties appProperties,
+                               final PlatformConnectorRegistry platformConnectorRegistry) {
+        this.appProperties = appProperties;
+        this.platformConnectorRegistry = platformConnectorRegistry;
+        this.books = Caffeine.newBuilder()
+                .expireAfterAccess(appProperties.getBooks().getIdleTimeout())
+                .maximumSize(appProperties.getBooks().getMaximumSize())
+                .scheduler(Scheduler.systemScheduler()) // Expire idle books on time, releasing their push channel
+                .removalListener((String id, AccountBooks accountBooks, RemovalCause cause) -> {
+                    if (accountBooks != null) {
+                        accountBooks.getHold().dispose();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Get the open positions of the account that changed since the given version.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @param since        The version token the client holds, null for a full snapshot.
+     * @return A Mono containing the delta.
+     */
+    public Mono<BookDeltaDto<PositionDto>> getPositions(final TradeAccount tradeAccount, final String since) {
+        VersionedBook<PositionDto> book = booksOf(tradeAccount).getPositions();
+        return refresh("positions:" + tradeAccount.getId(), book,
+                () -> platformConnectorRegistry.get(tradeAccount).fetchPositions(tradeAccount))
+                .then(Mono.fromSupplier(() -> book.since(tradeAccount.getId(), since)));
+    }
+
+    /**
+     * Get the working orders of the account that changed since the given version.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @param since        The version token the client holds, null for a full snapshot.
+     * @return A Mono containing the delta.
+     */
+    public Mono<BookDeltaDto<OrderDto>> getOrders(final TradeAccount tradeAccount, final String since) {
+        VersionedBook<OrderDto> book = booksOf(tradeAccount).getOrders();
+        return refresh("orders:" + tradeAccount.getId(), book,
+                () -> platformConnectorRegistry.get(tradeAccount).fetchOrders(tradeAccount))
+                .then(Mono.fromSupplier(() -> book.since(tradeAccount.getId(), since)));
+    }
+
+    public void remove(final String accountId) {
+        books.invalidate(accountId);
+    }
+
+    private AccountBooks booksOf(final TradeAccount tradeAccount) {
+        int retainedVersions = appProperties.getBooks().getRetainedVersions();
+        return books.get(tradeAccount.getId(), id -> new AccountBooks(
+                new VersionedBook<>(PositionDto::getId, retainedVersions),
+                new VersionedBook<>(OrderDto::getId, retainedVersions),
+                platformConnectorRegistry.get(tradeAccount).retain(tradeAccount)));
+    }
+
+    // Poll the broker into the book unless it is fresh, sharing a running poll with concurrent callers
+    private <T> Mono<Long> refresh(final String key, final VersionedBook<T> book, final Supplier<Flux<T>> fetch) {
+        if (!book.isOlderThan(appProperties.getBooks().getMinRefreshInterval().toMillis())) {
+            return Mono.empty();
+        }
+
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> {
+            var self = new AtomicReference<Mono<Long>>();
+            Mono<Long> shared = Flux.defer(fetch)
+                    .collectList()
+                    .map(book::apply)
+                    // Remove only this poll, so a failed poll is retried by the next caller
+                    .doFinally(signal -> inFlight.remove(k, self.get()))
+                    .cache();
+            self.set(shared);
+            return shared;
+        }));
+    }
+
+    @Value
+    private static class AccountBooks {
+        VersionedBook<PositionDto> positions;
+        VersionedBook<OrderDto> orders;
+        Disposable hold;
+    }
+
+}
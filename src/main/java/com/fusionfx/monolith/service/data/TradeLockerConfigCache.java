@@ -0,0 +1,87 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.dto.tradelocker.AccountDetailsConfigDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.model.TradeLockerColumnLayout;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Caches the TradeLocker /trade/config column layout per environment and server.
+ * <p>
+ * The layout almost never changes, so it is kept for a long TTL and refreshed in the background once it is older
+ * than the refresh interval; callers keep using the cached layout while the refresh is running.
+ */
+@Slf4j
+@Component
+public class TradeLockerConfigCache {
+
+    private final AppProperties appProperties;
+    private final AsyncCache<ConfigKey, TradeLockerColumnLayout> layouts;
+
+    public TradeLockerConfigCache(final AppProperties appProperties) {
+        this.appProperties = appProperties;
+        this.layouts = Caffeine.newBuilder()
+                .expireAfterWrite(appProperties.getTradeLocker().getConfigTtl())
+                .maximumSize(1_000)
+                .buildAsync();
+    }
+
+    /**
+     * Get the column layout for the account's environment and server.
+     * <p>
+     * Concurrent misses for the same server share a single /trade/config call.
+     *
+     * @param tradeAccount The TradeAccount whose environment and server select the layout.
+     * @param loader       Fetches the config from TradeLocker when the layout is missing or stale.
+     * @return A Mono containing the column layout.
+     */
+    public Mono<TradeLockerColumnLayout> getLayout(final TradeAccount tradeAccount,
+                                                   final Supplier<Mono<AccountDetailsConfigDto>> loader) {
+        var key = new ConfigKey(tradeAccount.getType(), tradeAccount.getServer());
+
+        return Mono.fromFuture(() -> layouts.get(key, (k, executor) -> load(loader)), true)
+                .doOnNext(layout -> refreshIfStale(key, layout, loader));
+    }
+
+    private CompletableFuture<TradeLockerColumnLayout> load(final Supplier<Mono<AccountDetailsConfigDto>> loader) {
+        return loader.get()
+                .map(TradeLockerColumnLayout::from)
+                .toFuture();
+    }
+
+    private void refreshIfStale(final ConfigKey key,
+                                final TradeLockerColumnLayout layout,
+                                final Supplier<Mono<AccountDetailsConfigDto>> loader) {
+        long refreshAfter = appProperties.getTradeLocker().getConfigRefreshAfter().toMillis();
+
+        if (!layout.isOlderThan(refreshAfter) || !layout.getRefreshing().compareAndSet(false, true)) {
+            return;
+        }
+
+        load(loader).whenComplete((refreshed, error) -> {
+            if (error != null) {
+                log.warn("TradeLocker | Background config refresh failed for {}: {}", key, error.getMessage());
+                layout.getRefreshing().set(false);
+            } else {
+                layouts.put(key, CompletableFuture.completedFuture(refreshed));
+            }
+        });
+    }
+
+    @Value
+    private static class ConfigKey {
+        AccountType environment;
+        String server;
+    }
+
+}
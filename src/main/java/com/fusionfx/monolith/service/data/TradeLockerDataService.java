@@ -1,36 +1,39 @@
 package com.fusionfx.monolith.service.data;
 
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.BrokerMetrics;
+import com.fusionfx.monolith.client.WebClientRegistry;
 import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
 import com.fusionfx.monolith.dto.tradelocker.AccountDetailsConfigDto;
+import com.fusionfx.monolith.dto.tradelocker.TradeRowsDto;
 import com.fusionfx.monolith.entity.TradeAccount;
-import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.enums.Upstream;
+import com.fusionfx.monolith.model.TradeLockerAccountState;
+import com.fusionfx.monolith.model.TradeLockerColumnLayout;
 import com.fusionfx.monolith.service.auth.TradeLockerAuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class TradeLockerDataService {
 
-    private static final String DEMO_BASE_URL = "https://demo.tradelocker.com/backend-api";
-    private static final String LIVE_BASE_URL = "https://live.tradelocker.com/backend-api";
-
-    private final WebClient.Builder webClientBuilder;
+    private final AppProperties appProperties;
+    private final BrokerMetrics brokerMetrics;
+    private final MarginCalculator marginCalculator;
+    private final WebClientRegistry webClientRegistry;
+    private final TradeLockerConfigCache tradeLockerConfigCache;
     private final TradeLockerAuthService tradeLockerAuthService;
 
-    // Get the base URL based on the account type (LIVE or DEMO)
-    private String getBaseUrl(AccountType accountType) {
-        return accountType == AccountType.LIVE ? LIVE_BASE_URL : DEMO_BASE_URL;
-    }
-
     /**
      * Fetch account configuration details from the TradeLocker API.
      *
@@ -38,36 +41,46 @@ public class TradeLockerDataService {
      * @return A Mono containing AccountDetailsConfigDto.
      */
     private Mono<AccountDetailsConfigDto> getAccountDetailsConfig(TradeAccount tradeAccount) {
-        String baseUrl = getBaseUrl(tradeAccount.getType());
+        String baseUrl = appProperties.getTradeLocker().baseUrl(tradeAccount.getType());
 
         return tradeLockerAuthService.getValidToken(tradeAccount, baseUrl)
                 .flatMap(token -> {
-                    WebClient webClient = webClientBuilder.baseUrl(baseUrl).build();
+                    WebClient webClient = webClientRegistry.get(Upstream.TRADELOCKER, baseUrl);
 
-                    return webClient.get()
+                    return brokerMetrics.time(Upstream.TRADELOCKER, "trade-config", webClient.get()
                             .uri("/trade/config")
                             .headers(headers -> {
                                 headers.set("accNum", "1");
                                 headers.setBearerAuth(token);
                             })
                             .retrieve()
-                            .bodyToMono(AccountDetailsConfigDto.class)  // Map response to DTO
+                            .bodyToMono(AccountDetailsConfigDto.class))  // Map response to DTO
                             .onErrorMap(error -> new RuntimeException("Error fetching account details config", error));
                 });
     }
 
     /**
-     * Fetch account state and map it to the accountDetailsConfig columns.
+     * Get the cached column layout of the account's server, fetching /trade/config only when it is not cached.
      *
      * @param tradeAccount The TradeAccount entity containing account details.
-     * @return A Mono containing the mapped account details.
+     * @return A Mono containing the column layout.
      */
-    private Mono<Map<String, Object>> getAccountState(TradeAccount tradeAccount) {
-        String baseUrl = getBaseUrl(tradeAccount.getType());
+    private Mono<TradeLockerColumnLayout> getColumnLayout(TradeAccount tradeAccount) {
+        return tradeLockerConfigCache.getLayout(tradeAccount, () -> getAccountDetailsConfig(tradeAccount));
+    }
 
-        return tradeLockerAuthService.getValidToken(tradeAccount, baseUrl)
+    /**
+     * Fetch account state and read it through the account's column layout.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Mono containing the account state.
+     */
+    private Mono<TradeLockerAccountState> getAccountState(TradeAccount tradeAccount) {
+        String baseUrl = appProperties.getTradeLocker().baseUrl(tradeAccount.getType());
+
+        Mono<double[]> accountDetailsData = tradeLockerAuthService.getValidToken(tradeAccount, baseUrl)
                 .flatMap(token -> {
-                    WebClient webClient = webClientBuilder.baseUrl(baseUrl).build();
+                    WebClient webClient = webClientRegistry.get(Upstream.TRADELOCKER, baseUrl);
 
                     return webClient.get()
                             .uri("/trade/accounts/{accountId}/state", tradeAccount.getAccountNumber())
@@ -76,64 +89,86 @@ public class TradeLockerDataService {
                                 headers.setBearerAuth(token);
                             })
                             .retrieve()
-                            .bodyToMono(Map.class)
-                            .flatMap(stateResponse -> {
-                                List<Double> accountDetailsData = (List<Double>) ((Map<String, Object>) stateResponse.get("d")).get("accountDetailsData");
-
-                                // Fetch the account details config and map it to the state data
-                                return getAccountDetailsConfig(tradeAccount)
-                                        .map(accountDetailsConfig -> {
-                                            Map<String, Object> mappedAccountDetails = new HashMap<>();
-                                            List<AccountDetailsConfigDto.Config.Column> columns = accountDetailsConfig.getD().getAccountDetailsConfig().getColumns();
-
-                                            // Ensure the number of columns matches the data in accountDetailsData
-                                            for (int i = 0; i < columns.size(); i++) {
-                                                String columnId = columns.get(i).getId();
-                                                // Map the column ID to the corresponding accountDetailsData value
-                                                mappedAccountDetails.put(columnId, accountDetailsData.get(i));
-                                            }
-
-                                            return mappedAccountDetails;
-                                        });
-                            });
-                })
+                            .bodyToMono(DataBuffer.class)
+                            .map(TradeLockerStateDecoder::decode); // Stream the row straight into a double[]
+                });
+
+        // Fetch the state and the (usually cached) column layout in parallel and read one through the other
+        return Mono.zip(accountDetailsData, getColumnLayout(tradeAccount))
+                .map(tuple -> tuple.getT2().toAccountState(tuple.getT1()))
                 .onErrorMap(error -> new RuntimeException("Error fetching or mapping account state", error));
     }
 
     /**
-     * Fetch the complete account details from TradeLocker by running parallel calls for account state and account config.
+     * Fetch the complete account details from TradeLocker.
+     * <p>
+     * With a valid token and a cached column layout this costs a single /state call.
      *
      * @param tradeAccount The TradeAccount entity containing account details.
      * @return A Mono containing the final account details.
      */
     public Mono<AccountDto> fetchTradeLockerAccount(TradeAccount tradeAccount) {
-        // Run getAccountState and getAccountDetailsConfig in parallel
-        return Mono.zip(getAccountState(tradeAccount), getAccountDetailsConfig(tradeAccount))
-                .map(tuple -> {
-                    Map<String, Object> accountState = tuple.getT1(); // getAccountState response
-                    AccountDetailsConfigDto accountDetailsConfig = tuple.getT2(); // getAccountDetailsConfig response
-
-                    // Build the AccountDto from accountState
-                    var account = AccountDto.builder()
-                            .balance((Double) accountState.get("balance"))
-                            .equity((Double) accountState.get("projectedBalance"))
-                            .openNetPnl((Double) accountState.get("openNetPnL"))
-                            .positionCount((Integer) accountState.get("positionsCount"))
-                            .build();
-
-                    // Use BigDecimal to calculate margin level and avoid scientific notation
-                    BigDecimal equity = BigDecimal.valueOf(account.getEquity());
-                    BigDecimal maintMarginReq = BigDecimal.valueOf((Double) accountState.get("maintMarginReq"));
-                    BigDecimal leverage = BigDecimal.valueOf(tradeAccount.getLeverage());
-
-                    // Calculate the margin level
-                    BigDecimal marginLevel = equity.divide(maintMarginReq.divide(leverage, 10, RoundingMode.HALF_UP), 10, RoundingMode.HALF_UP);
-
-                    // Set the margin level
-                    account.setMarginLevel(marginLevel.doubleValue());
-
-                    return account;
-                })
+        return brokerMetrics.time(Upstream.TRADELOCKER, "account", getAccountState(tradeAccount)
+                .map(accountState -> toAccountDto(accountState, tradeAccount.getLeverage())))
                 .onErrorMap(error -> new RuntimeException("Error fetching TradeLocker account", error));
     }
+
+    /**
+     * Fetch the open positions from TradeLocker, read through the account's column layout.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Flux of the open positions.
+     */
+    public Flux<PositionDto> fetchPositions(TradeAccount tradeAccount) {
+        return fetchRows(tradeAccount, "positions")
+                .flatMapIterable(tuple -> {
+                    List<List<String>> rows = tuple.getT1().getD() == null ? null : tuple.getT1().getD().getPositions();
+                    return rows == null ? List.<PositionDto>of() : rows.stream().map(tuple.getT2()::toPosition).toList();
+                });
+    }
+
+    /**
+     * Fetch the working orders from TradeLocker, read through the account's column layout.
+     *
+     * @param tradeAccount The TradeAccount entity containing account details.
+     * @return A Flux of the working orders.
+     */
+    public Flux<OrderDto> fetchOrders(TradeAccount tradeAccount) {
+        return fetchRows(tradeAccount, "orders")
+                .flatMapIterable(tuple -> {
+                    List<List<String>> rows = tuple.getT1().getD() == null ? null : tuple.getT1().getD().getOrders();
+                    return rows == null ? List.<OrderDto>of() : rows.stream().map(tuple.getT2()::toOrder).toList();
+                });
+    }
+
+    // Fetch /positions or /orders together with the (usually cached) column layout
+    private Mono<Tuple2<TradeRowsDto, TradeLockerColumnLayout>> fetchRows(TradeAccount tradeAccount, String resource) {
+        String baseUrl = appProperties.getTradeLocker().baseUrl(tradeAccount.getType());
+
+        Mono<TradeRowsDto> rows = tradeLockerAuthService.getValidToken(tradeAccount, baseUrl)
+                .flatMap(token -> webClientRegistry.get(Upstream.TRADELOCKER, baseUrl).get()
+                        .uri("/trade/accounts/{accountId}/{resource}", tradeAccount.getAccountNumber(), resource)
+                        .headers(headers -> {
+                            headers.set("accNum", "1");
+                            headers.setBearerAuth(token);
+                        })
+                        .retrieve()
+                        .bodyToMono(TradeRowsDto.class));
+
+        return brokerMetrics.time(Upstream.TRADELOCKER, resource, Mono.zip(rows, getColumnLayout(tradeAccount)))
+                .onErrorMap(error -> new RuntimeException("Error fetching TradeLocker " + resource, error));
+    }
+
+    // Build the AccountDto from an account state
+    private AccountDto toAccountDto(TradeLockerAccountState accountState, int leverage) {
+        double usedMargin = marginCalculator.tradeLockerUsedMargin(accountState.getMaintMarginReq(), leverage);
+
+        return AccountDto.builder()
+                .balance(accountState.getBalance())
+                .equity(accountState.getProjectedBalance())
+                .openNetPnl(accountState.getOpenNetPnl())
+                .positionCount(accountState.getPositionsCount())
+                .marginLevel(marginCalculator.marginLevel(accountState.getProjectedBalance(), usedMargin))
+                .build();
+    }
 }
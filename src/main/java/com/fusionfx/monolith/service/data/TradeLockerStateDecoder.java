@@ -0,0 +1,116 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Streams the d.accountDetailsData row of a TradeLocker /state response into a {@code double[]}.
+ * <p>
+ * Uses the Jackson token API, so no Map, List or boxed number is created for the row; every other field is skipped.
+ * Null cells are NaN.
+ */
+public final class TradeLockerStateDecoder {
+
+    // The fast double parser roughly halves the garbage of the fractional cells
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+    private static final int INITIAL_CAPACITY = 32;
+
+    private TradeLockerStateDecoder() {
+    }
+
+    /**
+     * Decode a response body, releasing the buffer.
+     *
+     * @param body The joined response body.
+     * @return The accountDetailsData row.
+     */
+    public static double[] decode(final DataBuffer body) {
+        try (InputStream in = body.asInputStream(true)) {
+            return decode(JSON_FACTORY.createParser(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error decoding TradeLocker account state", e);
+        }
+    }
+
+    public static double[] decode(final byte[] body) {
+        try {
+            return decode(JSON_FACTORY.createParser(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error decoding TradeLocker account state", e);
+        }
+    }
+
+    private static double[] decode(final JsonParser parser) throws IOException {
+        try (parser) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object");
+            }
+
+            // { ..., "d": { ..., "accountDetailsData": [ ... ] } }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("d".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String dataField = parser.currentName();
+                        JsonToken dataValue = parser.nextToken();
+
+                        if ("accountDetailsData".equals(dataField) && dataValue == JsonToken.START_ARRAY) {
+                            return readRow(parser);
+                        }
+                        parser.skipChildren();
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            throw new IOException("No d.accountDetailsData in response");
+        }
+    }
+
+    private static double[] readRow(final JsonParser parser) throws IOException {
+        double[] row = new double[INITIAL_CAPACITY];
+        int size = 0;
+
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == null) {
+                throw new IOException("Unterminated accountDetailsData");
+            }
+            if (size == row.length) {
+                row = Arrays.copyOf(row, size * 2);
+            }
+
+            row[size++] = switch (token) {
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+                case VALUE_STRING -> parseDouble(parser.getText());
+                default -> {
+                    parser.skipChildren();
+                    yield Double.NaN;
+                }
+            };
+        }
+
+        return size == row.length ? row : Arrays.copyOf(row, size);
+    }
+
+    private static double parseDouble(final String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.fusionfx.monolith.service.history;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.entity.TradeAccountSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.List;
+
+/**
+ * Records account snapshots into the {@code trade_account_snapshots} time-series collection.
+ * <p>
+ * Snapshots are buffered in memory and written with one unordered bulk insert per batch of
+ * {@code fusion.history.batch-size} or per {@code fusion.history.flush-interval}, whichever comes first, instead of
+ * one insert per refresh. When the buffer is full new snapshots are dropped rather than slowing down refreshes.
+ * Concurrent refreshes emit under a short lock instead of retrying, so an event loop never spins on a busy sink.
+ */
+@Slf4j
+@Service
+public class AccountSnapshotRecorder implements SmartLifecycle {
+
+    private final AppProperties appProperties;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final Sinks.Many<TradeAccountSnapshot> sink; // Not thread-safe: every emission holds emitLock
+    private final Object emitLock = new Object();
+    private volatile Disposable writer;
+    private volatile Runnable stopCallback;
+
+    public AccountSnapshotRecorder(final AppProperties appProperties,
+                                   final ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.appProperties = appProperties;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.sink = Sinks.unsafe().many().unicast().onBackpressureBuffer(
+                Queues.<TradeAccountSnapshot>get(appProperties.getHistory().getBufferCapacity()).get());
+    }
+
+    /**
+     * Queue the account details for the next bulk write.
+     *
+     * @param tradeAccountId The TradeAccount document ID.
+     * @param account        The account details fetched from the broker.
+     */
+    public void record(final String tradeAccountId, final AccountDto account) {
+        if (!appProperties.getHistory().isEnabled() || tradeAccountId == null) {
+            return;
+        }
+
+        TradeAccountSnapshot snapshot = TradeAccountSnapshot.of(tradeAccountId, account);
+        Sinks.EmitResult result;
+        synchronized (emitLock) {
+            result = sink.tryEmitNext(snapshot);
+        }
+        if (result.isFailure()) {
+            log.warn("History | Dropped snapshot for account {}: {}", tradeAccountId, result);
+        }
+    }
+
+    @Override
+    public void start() {
+        var history = appProperties.getHistory();
+        if (!history.isEnabled()) {
+            return;
+        }
+
+        writer = createCollectionIfMissing()
+                .thenMany(sink.asFlux())
+                .bufferTimeout(history.getBatchSize(), history.getFlushInterval())
+                .concatMap(this::write)
+                .doFinally(signal -> {
+                    // Runs once the buffered snapshots were flushed after stop()
+                    Runnable callback = stopCallback;
+                    if (callback != null) {
+                        callback.run();
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<Void> write(final List<TradeAccountSnapshot> snapshots) {
+        return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TradeAccountSnapshot.class)
+                .insert(snapshots)
+                .execute()
+                .doOnNext(result -> log.debug("History | Inserted {} snapshots", result.getInsertedCount()))
+                .onErrorResume(error -> {
+                    log.error("History | Bulk insert of {} snapshots failed: {}", snapshots.size(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Create the time-series collection with its TTL, or apply the configured TTL to the existing one
+    private Mono<Void> createCollectionIfMissing() {
+        String collection = reactiveMongoTemplate.getCollectionName(TradeAccountSnapshot.class);
+        long expireAfterSeconds = appProperties.getHistory().getRawRetention().toSeconds();
+
+        return reactiveMongoTemplate.collectionExists(collection)
+                .flatMap(exists -> reactiveMongoTemplate.executeCommand(exists
+                        ? new Document("collMod", collection)
+                                .append("expireAfterSeconds", expireAfterSeconds)
+                        : new Document("create", collection)
+                                .append("timeseries", new Document("timeField", "timestamp")
+                                        .append("metaField", "tradeAccountId")
+                                        .append("granularity", "seconds"))
+                                .append("expireAfterSeconds", expireAfterSeconds)))
+                .onErrorResume(error -> {
+                    log.error("History | Preparing the snapshot collection failed: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @Override
+    public void stop() {
+        complete();
+    }
+
+    // Complete the sink so the last partial batch is written before shutdown continues
+    @Override
+    public void stop(final Runnable callback) {
+        if (!isRunning()) {
+            callback.run();
+            return;
+        }
+        stopCallback = callback;
+        complete();
+    }
+
+    private void complete() {
+        synchronized (emitLock) {
+            sink.tryEmitComplete();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null && !writer.isDisposed();
+    }
+
+}
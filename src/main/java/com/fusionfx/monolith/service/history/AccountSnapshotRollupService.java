@@ -0,0 +1,191 @@
+package com.fusionfx.monolith.service.history;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.entity.TradeAccountSnapshot;
+import com.fusionfx.monolith.enums.SnapshotResolution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Downsamples the raw account snapshots into 1-minute, 1-hour and 1-day rollups.
+ * <p>
+ * Every {@code fusion.history.rollup-interval} the buckets touched since the previous run are recomputed on the
+ * server with {@code $dateTrunc} and merged into {@code trade_account_snapshots_1m}, {@code _1h} and {@code _1d}.
+ * Each level is computed from the level below, and each rollup collection has its own TTL.
+ * <p>
+ * The start of the last successful run of each level is kept as its high-water mark in
+ * {@code trade_account_snapshot_rollups}. A run recomputes from the bucket before the mark, so buckets missed while
+ * the service was down or a run failed are filled in by the next run. Without a mark the whole source is rolled up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountSnapshotRollupService implements SmartLifecycle {
+
+    private static final String MARK_COLLECTION = "trade_account_snapshot_rollups";
+
+    private final AppProperties appProperties;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private volatile Disposable scheduler;
+
+    @Override
+    public void start() {
+        var history = appProperties.getHistory();
+        if (!history.isEnabled()) {
+            return;
+        }
+
+        scheduler = ensureIndexes()
+                .thenMany(Flux.interval(history.getRollupInterval(), history.getRollupInterval()))
+                .onBackpressureDrop()
+                .concatMap(tick -> rollup())
+                .subscribe();
+    }
+
+    private Mono<Void> rollup() {
+        String rawCollection = reactiveMongoTemplate.getCollectionName(TradeAccountSnapshot.class);
+
+        // A level only advances its mark after the level below succeeded
+        return rollup(rawCollection, "timestamp", false, SnapshotResolution.MINUTE)
+                .then(rollup(SnapshotResolution.MINUTE.getCollection(), "bucket", true, SnapshotResolution.HOUR))
+                .then(rollup(SnapshotResolution.HOUR.getCollection(), "bucket", true, SnapshotResolution.DAY))
+                .onErrorResume(error -> {
+                    log.error("History | Rollup failed: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Recompute from the bucket before the level's mark, so late snapshots are still included, then advance the mark
+    private Mono<Void> rollup(final String sourceCollection,
+                              final String timeField,
+                              final boolean fromRollup,
+                              final SnapshotResolution target) {
+        return Mono.defer(() -> {
+            Instant startedAt = Instant.now();
+            return highWaterMark(target)
+                    .map(mark -> previousBucket(mark, target))
+                    .defaultIfEmpty(Instant.EPOCH)
+                    .flatMap(from -> merge(sourceCollection, timeField, fromRollup, target, from))
+                    .then(advanceHighWaterMark(target, startedAt));
+        });
+    }
+
+    private Mono<Instant> highWaterMark(final SnapshotResolution target) {
+        return reactiveMongoTemplate.findById(target.name(), Document.class, MARK_COLLECTION)
+                .mapNotNull(mark -> mark.getDate("rolledUpTo"))
+                .map(Date::toInstant);
+    }
+
+    // $max keeps the mark from moving back when two instances roll up at the same time
+    private Mono<Void> advanceHighWaterMark(final SnapshotResolution target, final Instant rolledUpTo) {
+        return reactiveMongoTemplate.upsert(Query.query(Criteria.where("_id").is(target.name())),
+                        new Update().max("rolledUpTo", Date.from(rolledUpTo)), MARK_COLLECTION)
+                .then();
+    }
+
+    private static Instant previousBucket(final Instant mark, final SnapshotResolution target) {
+        ChronoUnit unit = switch (target) {
+            case MINUTE -> ChronoUnit.MINUTES;
+            case HOUR -> ChronoUnit.HOURS;
+            case DAY -> ChronoUnit.DAYS;
+        };
+        return mark.minus(1, unit).truncatedTo(unit);
+    }
+
+    /**
+     * Group the source documents since {@code from} into buckets of the target resolution and merge them into the
+     * target collection. Rollup sources carry min / max equity per bucket, raw sources a single equity value.
+     */
+    private Mono<Void> merge(final String sourceCollection,
+                             final String timeField,
+                             final boolean fromRollup,
+                             final SnapshotResolution target,
+                             final Instant from) {
+        String equityMin = fromRollup ? "$equityMin" : "$equity";
+        String equityMax = fromRollup ? "$equityMax" : "$equity";
+        Object samples = fromRollup ? "$samples" : 1;
+
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(timeField).gte(Date.from(from))),
+                Aggregation.sort(Sort.Direction.ASC, timeField),
+                Aggregation.stage(new Document("$group", new Document("_id", new Document("tradeAccountId", "$tradeAccountId")
+                        .append("bucket", new Document("$dateTrunc", new Document("date", "$" + timeField).append("unit", target.getUnit()))))
+                        .append("equityMin", new Document("$min", equityMin))
+                        .append("equityMax", new Document("$max", equityMax))
+                        .append("equity", new Document("$last", "$equity"))
+                        .append("balance", new Document("$last", "$balance"))
+                        .append("marginLevel", new Document("$last", "$marginLevel"))
+                        .append("openNetPnl", new Document("$last", "$openNetPnl"))
+                        .append("positionCount", new Document("$last", "$positionCount"))
+                        .append("samples", new Document("$sum", samples)))),
+                Aggregation.stage(new Document("$set", new Document("tradeAccountId", "$_id.tradeAccountId")
+                        .append("bucket", "$_id.bucket"))),
+                Aggregation.stage(new Document("$merge", new Document("into", target.getCollection())
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert"))));
+
+        return reactiveMongoTemplate.aggregate(aggregation, sourceCollection, Document.class).then();
+    }
+
+    // Query index plus TTL on the bucket time of every rollup collection
+    private Mono<Void> ensureIndexes() {
+        var history = appProperties.getHistory();
+
+        return Flux.just(SnapshotResolution.values())
+                .concatMap(resolution -> {
+                    Duration retention = switch (resolution) {
+                        case MINUTE -> history.getMinuteRetention();
+                        case HOUR -> history.getHourRetention();
+                        case DAY -> history.getDayRetention();
+                    };
+                    var indexOps = reactiveMongoTemplate.indexOps(resolution.getCollection());
+                    var ttlIndex = new Index().on("bucket", Sort.Direction.ASC).named("bucket_ttl");
+                    if (retention != null) {
+                        ttlIndex.expire(retention);
+                    }
+                    return indexOps.ensureIndex(new Index()
+                                    .on("tradeAccountId", Sort.Direction.ASC)
+                                    .on("bucket", Sort.Direction.ASC)
+                                    .named("tradeAccountId_bucket"))
+                            .then(indexOps.ensureIndex(ttlIndex));
+                })
+                .onErrorResume(error -> {
+                    log.error("History | Creating rollup indexes failed: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null && !scheduler.isDisposed();
+    }
+
+}
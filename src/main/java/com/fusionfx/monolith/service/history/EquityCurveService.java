@@ -0,0 +1,151 @@
+package com.fusionfx.monolith.service.history;
+
+import com.fusionfx.monolith.dto.EquityCurveDto;
+import com.fusionfx.monolith.enums.SnapshotResolution;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+
+@Service
+@RequiredArgsConstructor
+public class EquityCurveService {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * Read the equity curve of a trade account from the snapshot rollups.
+     * <p>
+     * The rollups of the requested resolution are bucketed again on the server with {@code $dateTrunc}, so only one
+     * small document per {@code step} units leaves the database. Max drawdown and daily loss are computed while the
+     * buckets are copied into the columnar result.
+     *
+     * @param tradeAccountId The TradeAccount ID.
+     * @param from           Start of the range (inclusive).
+     * @param to             End of the range (exclusive).
+     * @param resolution     The bucket unit.
+     * @param step           The bucket size in units of the resolution.
+     * @return A Mono containing the equity curve, empty arrays if no snapshots were recorded in the range.
+     */
+    public Mono<EquityCurveDto> getEquityCurve(final String tradeAccountId,
+                                               final Instant from,
+                                               final Instant to,
+                                               final SnapshotResolution resolution,
+                                               final int step) {
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("tradeAccountId").is(tradeAccountId)
+                        .and("bucket").gte(Date.from(from)).lt(Date.from(to))),
+                Aggregation.sort(Sort.Direction.ASC, "bucket"),
+                Aggregation.stage(new Document("$group", new Document("_id", new Document("$dateTrunc", new Document("date", "$bucket")
+                        .append("unit", resolution.getUnit())
+                        .append("binSize", step)))
+                        .append("equity", new Document("$last", "$equity"))
+                        .append("equityMin", new Document("$min", "$equityMin"))
+                        .append("equityMax", new Document("$max", "$equityMax"))
+                        .append("balance", new Document("$last", "$balance")))),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+
+        return reactiveMongoTemplate.aggregate(aggregation, resolution.getCollection(), Document.class)
+                .collect(CurveBuilder::new, CurveBuilder::add)
+                .map(curve -> curve.build(tradeAccountId, resolution, step));
+    }
+
+    /**
+     * Appends buckets to growing primitive arrays and tracks drawdown and daily loss on the way.
+     */
+    static final class CurveBuilder {
+
+        private int size;
+        private long[] timestamps = new long[64];
+        private double[] equity = new double[64];
+        private double[] equityMin = new double[64];
+        private double[] equityMax = new double[64];
+        private double[] balance = new double[64];
+
+        private double peak = Double.NaN;
+        private double maxDrawdown;
+        private double maxDrawdownPercent;
+
+        private long day = Long.MIN_VALUE;
+        private double dayStartEquity;
+        private double maxDailyLoss;
+        private double maxDailyLossPercent;
+
+        void add(final Document bucket) {
+            if (size == timestamps.length) {
+                int capacity = size * 2;
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                equity = Arrays.copyOf(equity, capacity);
+                equityMin = Arrays.copyOf(equityMin, capacity);
+                equityMax = Arrays.copyOf(equityMax, capacity);
+                balance = Arrays.copyOf(balance, capacity);
+            }
+
+            long timestamp = bucket.getDate("_id").getTime();
+            double last = toDouble(bucket.get("equity"));
+            double low = toDouble(bucket.get("equityMin"));
+            double high = toDouble(bucket.get("equityMax"));
+
+            // Drawdown against the peak of the previous buckets, the order of min and max within a bucket is unknown
+            if (!Double.isNaN(peak) && peak > low) {
+                double drawdown = peak - low;
+                if (drawdown > maxDrawdown) {
+                    maxDrawdown = drawdown;
+                    maxDrawdownPercent = peak > 0 ? drawdown / peak * 100 : 0;
+                }
+            }
+            peak = Double.isNaN(peak) ? high : Math.max(peak, high);
+
+            // A day starts at the closing equity of the previous bucket, or the opening bucket if there is none
+            long bucketDay = Math.floorDiv(timestamp, DAY_MILLIS);
+            if (bucketDay != day) {
+                dayStartEquity = size > 0 ? equity[size - 1] : last;
+                day = bucketDay;
+            }
+            double dailyLoss = dayStartEquity - low;
+            if (dailyLoss > maxDailyLoss) {
+                maxDailyLoss = dailyLoss;
+                maxDailyLossPercent = dayStartEquity > 0 ? dailyLoss / dayStartEquity * 100 : 0;
+            }
+
+            timestamps[size] = timestamp;
+            equity[size] = last;
+            equityMin[size] = low;
+            equityMax[size] = high;
+            balance[size] = toDouble(bucket.get("balance"));
+            size++;
+        }
+
+        EquityCurveDto build(final String tradeAccountId, final SnapshotResolution resolution, final int step) {
+            return EquityCurveDto.builder()
+                    .tradeAccountId(tradeAccountId)
+                    .resolution(resolution.getUnit())
+                    .step(step)
+                    .timestamps(Arrays.copyOf(timestamps, size))
+                    .equity(Arrays.copyOf(equity, size))
+                    .equityMin(Arrays.copyOf(equityMin, size))
+                    .equityMax(Arrays.copyOf(equityMax, size))
+                    .balance(Arrays.copyOf(balance, size))
+                    .maxDrawdown(maxDrawdown)
+                    .maxDrawdownPercent(maxDrawdownPercent)
+                    .maxDailyLoss(maxDailyLoss)
+                    .maxDailyLossPercent(maxDailyLossPercent)
+                    .build();
+        }
+
+        private static double toDouble(final Object value) {
+            return value instanceof Number number ? number.doubleValue() : 0;
+        }
+    }
+
+}
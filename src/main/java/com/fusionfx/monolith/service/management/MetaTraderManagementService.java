@@ -1,10 +1,12 @@
 package com.fusionfx.monolith.service.management;
 
 import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.WebClientRegistry;
 import com.fusionfx.monolith.dto.metatrader.AccountCreationResponseDto;
 import com.fusionfx.monolith.dto.metatrader.AccountCreationRequestDto;
 import com.fusionfx.monolith.entity.TradeAccount;
 import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.enums.Upstream;
 import com.fusionfx.monolith.repo.TradeAccountRepo;
 import com.fusionfx.monolith.service.data.MetaTraderDataService;
 import lombok.RequiredArgsConstructor;
@@ -24,7 +26,7 @@ public class MetaTraderManagementService {
 
     private final AppProperties appProperties;
     private final TradeAccountRepo tradeAccountRepo;
-    private final WebClient.Builder webClientBuilder;
+    private final WebClientRegistry webClientRegistry;
     private final MetaTraderDataService metaTraderDataService;
 
 
@@ -49,8 +51,7 @@ public class MetaTraderManagementService {
             platform = Platform.METATRADER5;
         }
 
-        WebClient webClient = webClientBuilder
-                .baseUrl("https://mt-provisioning-api-v1.agiliumtrade.agiliumtrade.ai").build();
+        WebClient webClient = webClientRegistry.get(Upstream.METAAPI, appProperties.getMetaApi().getProvisioningApiUrl());
 
         return webClient.post()
                 .uri("/users/current/accounts")
@@ -1,7 +1,7 @@
 package com.fusionfx.monolith.service.management;
 
+import com.fusionfx.monolith.AppProperties;
 import com.fusionfx.monolith.entity.TradeAccount;
-import com.fusionfx.monolith.enums.AccountType;
 import com.fusionfx.monolith.repo.TradeAccountRepo;
 import com.fusionfx.monolith.service.auth.TradeLockerAuthService;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +12,7 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class TradeLockerManagementService {
 
+    private final AppProperties appProperties;
     private final TradeAccountRepo tradeAccountRepo;
     private final TradeLockerAuthService tradeLockerAuthService;
 
@@ -23,9 +24,7 @@ public class TradeLockerManagementService {
      */
     public Mono<Boolean> checkLoginAndSave(TradeAccount tradeAccount) {
         // Use the TradeLockerAuthService to perform login check
-        String baseUrl = tradeAccount.getType() == AccountType.LIVE
-                ? "https://live.tradelocker.com/backend-api"
-                : "https://demo.tradelocker.com/backend-api";
+        String baseUrl = appProperties.getTradeLocker().baseUrl(tradeAccount.getType());
 
         return tradeLockerAuthService.getValidToken(tradeAccount, baseUrl)
                 .flatMap(token -> {
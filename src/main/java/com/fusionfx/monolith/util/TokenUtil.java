@@ -1,28 +1,29 @@
 package com.fusionfx.monolith.util;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
 public class TokenUtil {
 
-    private final JwtDecoder jwtDecoder;
+    private final ReactiveJwtDecoder jwtDecoder;
 
     /**
      * Extracts the userId from the JWT token.
+     * <p>
+     * Tokens already verified by the resource server are served from the decoder cache without another signature check.
      *
      * @param token The JWT token.
-     * @return The userId if present, otherwise null.
+     * @return A Mono containing the userId, empty if the token has no subject.
      */
-    public String extractUserId(String token) {
+    public Mono<String> extractUserId(String token) {
         // Decode the JWT token
-        Jwt decodedJwt = jwtDecoder.decode(token);
-
-        // Extract the userId from the token claims
-        // This assumes the userId is stored as the "sub" (subject) claim
-        return decodedJwt.getClaim("sub");
+        return jwtDecoder.decode(token)
+                // Extract the userId from the token claims
+                // This assumes the userId is stored as the "sub" (subject) claim
+                .mapNotNull(decodedJwt -> decodedJwt.getClaimAsString("sub"));
     }
 }
@@ -1,9 +1,31 @@
 package com.fusionfx.monolith;
 
+import com.mongodb.reactivestreams.client.MongoClient;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 
-@SpringBootTest
+/**
+ * Loads the full application context against a mock MongoDB client; nothing reaches a database at startup.
+ */
+@SpringBootTest(properties = {
+        "mongo-uri=mongodb://localhost:27017",
+        "mongo-db=fusion-test",
+        "auth0-issuer=https://test.local/",
+        "auth0-oauth-issuer=https://test.local/",
+        "auth0-audience=test",
+        "auth0-client-id=test",
+        "auth0-connection=test",
+        "auth0-client-secret=test",
+        "meta-api-key=test"
+})
 class MonolithApplicationTests {
 
+    @MockBean
+    private MongoClient mongoClient;
+
+    @Test
+    void contextLoads() {
+    }
+
 }
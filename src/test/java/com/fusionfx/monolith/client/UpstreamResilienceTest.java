@@ -0,0 +1,149 @@
+package com.fusionfx.monolith.client;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.enums.Upstream;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The per-host circuit breaker and bulkhead and the caller's deadline, against an in-process HTTP server.
+ */
+class UpstreamResilienceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private DisposableServer server;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/unavailable", (request, response) -> {
+                            calls.incrementAndGet();
+                            return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send();
+                        })
+                        .get("/missing", (request, response) -> {
+                            calls.incrementAndGet();
+                            return response.status(HttpResponseStatus.NOT_FOUND).send();
+                        })
+                        .get("/slow", (request, response) -> {
+                            calls.incrementAndGet();
+                            return Mono.delay(Duration.ofSeconds(2)).then(response.sendString(Mono.just("late")).then());
+                        })
+                        .get("/slow-body", (request, response) -> {
+                            calls.incrementAndGet();
+                            return response.sendString(Flux.concat(Mono.just("head"), Mono.delay(Duration.ofMillis(500)).thenReturn("tail")));
+                        }))
+                .bindNow();
+
+        var appProperties = new AppProperties();
+        var resilience = appProperties.getHttp().resilience(Upstream.DXTRADE);
+        resilience.setSlidingWindowSize(4);
+        resilience.setMinimumNumberOfCalls(4);
+        resilience.setWaitDurationInOpenState(Duration.ofMinutes(1));
+        resilience.setMaxConcurrentCalls(1);
+
+        String baseUrl = "http://127.0.0.1:" + server.port();
+        webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .filter(new UpstreamResilience(appProperties, new SimpleMeterRegistry()).filter(Upstream.DXTRADE, baseUrl))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void breakerOpensOnServerErrorsAndRejectsWithoutCallingTheHost() {
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(get("/unavailable"))
+                    .expectError(WebClientResponseException.ServiceUnavailable.class)
+                    .verify(TIMEOUT);
+        }
+
+        StepVerifier.create(get("/unavailable"))
+                .expectErrorMatches(error -> error instanceof CallNotPermittedException && UpstreamResilience.isRejected(error))
+                .verify(TIMEOUT);
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheBreaker() {
+        for (int i = 0; i < 8; i++) {
+            StepVerifier.create(get("/missing"))
+                    .expectError(WebClientResponseException.NotFound.class)
+                    .verify(TIMEOUT);
+        }
+        assertThat(calls.get()).isEqualTo(8);
+    }
+
+    @Test
+    void bulkheadSlotIsHeldUntilTheBodyWasRead() {
+        StepVerifier.create(Mono.zip(
+                        get("/slow-body"),
+                        Mono.delay(Duration.ofMillis(250)).then(get("/missing").onErrorResume(error -> Mono.just(error.getClass().getSimpleName())))))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).isEqualTo("headtail");
+                    assertThat(results.getT2()).isEqualTo(BulkheadFullException.class.getSimpleName());
+                })
+                .verifyComplete();
+
+        // Released once the body completed
+        StepVerifier.create(get("/missing"))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify(TIMEOUT);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void callsEndWithTheCallersDeadline() {
+        long start = System.nanoTime();
+
+        StepVerifier.create(get("/slow").transform(Deadline.within(Duration.ofMillis(200))))
+                .expectError(TimeoutException.class)
+                .verify(TIMEOUT);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void nestedDeadlinesKeepTheEarlierOne() {
+        Mono<String> inner = get("/slow").transform(Deadline.within(Duration.ofSeconds(10)));
+
+        StepVerifier.create(inner.transform(Deadline.within(Duration.ofMillis(200))))
+                .expectError(TimeoutException.class)
+                .verify(TIMEOUT);
+    }
+
+    private Mono<String> get(final String path) {
+        return webClient.get()
+                .uri(path)
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.fusionfx.monolith.config;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.enums.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+/**
+ * BlockHound is installed for every test by blockhound-junit-platform; these checks make sure it is active and that
+ * the blocking scheduler is exempt from it in both execution modes.
+ */
+class SchedulerConfigTest {
+
+    private final SchedulerConfig schedulerConfig = new SchedulerConfig();
+
+    @Test
+    void blockingOnNonBlockingThreadIsDetected() {
+        Mono<Void> blocking = Mono.fromRunnable(SchedulerConfigTest::sleep)
+                .subscribeOn(Schedulers.parallel())
+                .then();
+
+        StepVerifier.create(blocking)
+                .expectErrorMatches(error -> error instanceof BlockingOperationError)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void blockingOnBlockingSchedulerIsAllowed() {
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            var appProperties = new AppProperties();
+            appProperties.getBlocking().setMode(mode);
+            Scheduler scheduler = schedulerConfig.blockingScheduler(appProperties);
+
+            try {
+                Mono<Void> blocking = Mono.fromRunnable(SchedulerConfigTest::sleep)
+                        .subscribeOn(scheduler)
+                        .then();
+
+                StepVerifier.create(blocking).verifyComplete();
+            } finally {
+                scheduler.dispose();
+            }
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.client.ctrader.CTraderApiException;
+import com.fusionfx.monolith.client.ctrader.CTraderSession;
+import com.fusionfx.monolith.client.ctrader.OpenApiMessages;
+import com.fusionfx.monolith.client.ctrader.ProtoMessage;
+import com.fusionfx.monolith.dto.AccountDto;
+import com.fusionfx.monolith.dto.OrderDto;
+import com.fusionfx.monolith.dto.PositionDto;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.enums.PositionSide;
+import com.fusionfx.monolith.service.auth.CTraderAuthService;
+import com.fusionfx.monolith.service.data.CTraderDataService;
+import com.fusionfx.monolith.service.data.MarginCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The cTrader connector against {@link FakeCTraderServer}: framing, request correlation, heartbeats and account
+ * state kept from pushed events, all over a single connection.
+ */
+class CTraderConnectorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private FakeCTraderServer server;
+    private AppProperties appProperties;
+    private AppProperties.CTrader properties;
+    private CTraderDataService dataService;
+    private CTraderConnector connector;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeCTraderServer();
+
+        appProperties = new AppProperties();
+        properties = appProperties.getCtrader();
+        properties.setClientId("client");
+        properties.setClientSecret("secret");
+        properties.setDemoHost("127.0.0.1");
+        properties.setPort(server.port());
+        properties.setTls(false);
+        properties.setRequestTimeout(Duration.ofSeconds(2));
+        properties.setHeartbeatInterval(Duration.ofMillis(100));
+        properties.setPnlRefreshInterval(Duration.ZERO);
+
+        dataService = new CTraderDataService(appProperties, new CTraderAuthService());
+        connector = new CTraderConnector(new MarginCalculator(), dataService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataService.destroy();
+        server.close();
+    }
+
+    @Test
+    void accountStateIsLoadedOnceOverOneConnection() {
+        TradeAccount tradeAccount = tradeAccount(FakeCTraderServer.ACCESS_TOKEN);
+
+        StepVerifier.create(connector.fetchAccount(tradeAccount))
+                .assertNext(account -> {
+                    assertThat(account.getBalance()).isEqualTo(10_000.0);
+                    assertThat(account.getOpenNetPnl()).isEqualTo(12.34);
+                    assertThat(account.getEquity()).isEqualTo(10_012.34);
+                    assertThat(account.getPositionCount()).isEqualTo(1);
+                    assertThat(account.getMarginLevel()).isEqualTo(10_012.34 / 50.0);
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        List<PositionDto> positions = connector.fetchPositions(tradeAccount).collectList().block(TIMEOUT);
+        assertThat(positions).singleElement().satisfies(position -> {
+            assertThat(position.getId()).isEqualTo(String.valueOf(FakeCTraderServer.POSITION_ID));
+            assertThat(position.getSymbol()).isEqualTo("EURUSD");
+            assertThat(position.getSide()).isEqualTo(PositionSide.BUY);
+            assertThat(position.getVolume()).isEqualTo(1_000.0);
+            assertThat(position.getOpenPrice()).isEqualTo(1.1);
+            assertThat(position.getProfit()).isEqualTo(12.34);
+        });
+
+        List<OrderDto> orders = connector.fetchOrders(tradeAccount).collectList().block(TIMEOUT);
+        assertThat(orders).singleElement().satisfies(order -> {
+            assertThat(order.getSymbol()).isEqualTo("XAUUSD");
+            assertThat(order.getSide()).isEqualTo(PositionSide.SELL);
+            assertThat(order.getType()).isEqualTo("LIMIT");
+            assertThat(order.getPrice()).isEqualTo(2400.5);
+        });
+
+        // Reads after the first are served from memory
+        assertThat(server.connections()).isEqualTo(1);
+        assertThat(server.count(OpenApiMessages.APPLICATION_AUTH_REQ)).isEqualTo(1);
+        assertThat(server.count(OpenApiMessages.ACCOUNT_AUTH_REQ)).isEqualTo(1);
+        assertThat(server.count(OpenApiMessages.RECONCILE_REQ)).isEqualTo(1);
+        assertThat(server.isSubscribed(FakeCTraderServer.EURUSD)).isTrue();
+    }
+
+    @Test
+    void spotAndExecutionEventsUpdateTheState() {
+        TradeAccount tradeAccount = tradeAccount(FakeCTraderServer.ACCESS_TOKEN);
+        connector.fetchAccount(tradeAccount).block(TIMEOUT);
+
+        server.pushSpot(FakeCTraderServer.EURUSD, 110_050, 110_070);
+        await(() -> currentPrice(tradeAccount) == 1.1005); // A buy position is priced at the bid
+
+        server.setBalance(1_012_340);
+        server.pushPositionClosed();
+        await(() -> connector.fetchPositions(tradeAccount).collectList().block(TIMEOUT).isEmpty());
+        await(() -> connector.fetchAccount(tradeAccount).map(AccountDto::getBalance).block(TIMEOUT) == 10_123.4);
+
+        assertThat(connector.fetchAccount(tradeAccount).block(TIMEOUT).getOpenNetPnl()).isZero();
+        assertThat(server.count(OpenApiMessages.RECONCILE_REQ)).isEqualTo(1);
+    }
+
+    @Test
+    void removedAccountIsUnsubscribedAndLoggedOut() {
+        TradeAccount tradeAccount = tradeAccount(FakeCTraderServer.ACCESS_TOKEN);
+        connector.fetchAccount(tradeAccount).block(TIMEOUT);
+        assertThat(server.isSubscribed(FakeCTraderServer.EURUSD)).isTrue();
+
+        dataService.remove(tradeAccount.getId());
+        await(() -> server.count(OpenApiMessages.ACCOUNT_LOGOUT_REQ) == 1);
+        assertThat(server.count(OpenApiMessages.UNSUBSCRIBE_SPOTS_REQ)).isEqualTo(1);
+        assertThat(server.isSubscribed(FakeCTraderServer.EURUSD)).isFalse();
+
+        // The next read loads the account again
+        connector.fetchAccount(tradeAccount).block(TIMEOUT);
+        assertThat(server.count(OpenApiMessages.ACCOUNT_AUTH_REQ)).isEqualTo(2);
+    }
+
+    @Test
+    void idleAccountIsLoggedOut() {
+        properties.setIdleTimeout(Duration.ofMillis(200));
+        dataService.destroy();
+        dataService = new CTraderDataService(appProperties, new CTraderAuthService());
+        connector = new CTraderConnector(new MarginCalculator(), dataService);
+
+        connector.fetchAccount(tradeAccount(FakeCTraderServer.ACCESS_TOKEN)).block(TIMEOUT);
+        server.pushSpot(FakeCTraderServer.EURUSD, 110_050, 110_070); // Events do not keep the account in use
+
+        await(() -> server.count(OpenApiMessages.ACCOUNT_LOGOUT_REQ) == 1);
+        assertThat(server.isSubscribed(FakeCTraderServer.EURUSD)).isFalse();
+    }
+
+    @Test
+    void responsesAreCorrelatedByClientMsgId() {
+        var session = new CTraderSession("127.0.0.1", server.port(), properties);
+        try {
+            // The trader response is delayed, so the symbols response arrives first
+            Mono<ProtoMessage> trader = session.request(OpenApiMessages.traderRequest(FakeCTraderServer.ACCOUNT_ID));
+            Mono<ProtoMessage> symbols = session.request(OpenApiMessages.symbolsListRequest(FakeCTraderServer.ACCOUNT_ID));
+
+            StepVerifier.create(Mono.zip(trader, symbols))
+                    .assertNext(responses -> {
+                        assertThat(responses.getT1().getPayloadType()).isEqualTo(OpenApiMessages.TRADER_RES);
+                        assertThat(responses.getT2().getPayloadType()).isEqualTo(OpenApiMessages.SYMBOLS_LIST_RES);
+                    })
+                    .expectComplete()
+                    .verify(TIMEOUT);
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    void heartbeatsAreSentWhileIdle() {
+        var session = new CTraderSession("127.0.0.1", server.port(), properties);
+        try {
+            session.request(OpenApiMessages.symbolsListRequest(FakeCTraderServer.ACCOUNT_ID)).block(TIMEOUT);
+            await(() -> server.count(OpenApiMessages.HEARTBEAT_EVENT) >= 3);
+            assertThat(session.generation()).isEqualTo(1);
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    void rejectedAccessTokenFails() {
+        StepVerifier.create(connector.fetchAccount(tradeAccount("revoked")))
+                .expectErrorMatches(error -> error instanceof CTraderApiException apiError
+                        && "CH_ACCESS_TOKEN_INVALID".equals(apiError.getErrorCode()))
+                .verify(TIMEOUT);
+    }
+
+    private double currentPrice(final TradeAccount tradeAccount) {
+        return connector.fetchPositions(tradeAccount).blockFirst(TIMEOUT).getCurrentPrice();
+    }
+
+    private static TradeAccount tradeAccount(final String accessToken) {
+        var tradeAccount = new TradeAccount();
+        tradeAccount.setId("ctrader-1");
+        tradeAccount.setPlatform(Platform.CTRADER);
+        tradeAccount.setType(AccountType.DEMO);
+        tradeAccount.setAccountNumber(String.valueOf(FakeCTraderServer.ACCOUNT_ID));
+        tradeAccount.setPassword(accessToken);
+        return tradeAccount;
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,273 @@
+package com.fusionfx.monolith.connector;
+
+import com.fusionfx.monolith.client.ctrader.OpenApiMessages;
+import com.fusionfx.monolith.client.ctrader.ProtoMessage;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.tcp.TcpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process stand-in for a cTrader Open API host, speaking the same length-prefixed protobuf framing.
+ * <p>
+ * It knows one account ({@link #ACCOUNT_ID}) with one open EURUSD position and one working XAUUSD limit order,
+ * answers the requests the connector sends, records every payload type it receives and can push spot and
+ * execution events to the connected client. Like the real server it sends a heartbeat every
+ * {@link #HEARTBEAT_INTERVAL}. Trader responses are delayed by {@link #TRADER_DELAY} so tests can check that
+ * responses arriving out of order still reach their requests.
+ */
+final class FakeCTraderServer implements AutoCloseable {
+
+    static final long ACCOUNT_ID = 1001;
+    static final String ACCESS_TOKEN = "access-token";
+    static final long POSITION_ID = 11;
+    static final long ORDER_ID = 21;
+    static final long EURUSD = 1;
+    static final long XAUUSD = 2;
+    static final Duration TRADER_DELAY = Duration.ofMillis(200);
+    static final Duration HEARTBEAT_INTERVAL = Duration.ofMillis(100);
+
+    private final DisposableServer server;
+    private final AtomicReference<Connection> client = new AtomicReference<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<Integer> received = new CopyOnWriteArrayList<>();
+    private final Map<Long, Boolean> subscribedSymbols = new ConcurrentHashMap<>();
+    private final AtomicLong balance = new AtomicLong(1_000_000); // 10000.00 with 2 money digits
+    private volatile boolean positionOpen = true;
+
+    FakeCTraderServer() {
+        server = TcpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .doOnConnection(connection -> {
+                    connection.addHandlerLast("frameDecoder", new LengthFieldBasedFrameDecoder(1 << 20, 0, 4, 0, 4))
+                            .addHandlerLast("frameEncoder", new LengthFieldPrepender(4));
+                    client.set(connection);
+                    connections.incrementAndGet();
+                })
+                .handle((inbound, outbound) -> {
+                    Disposable heartbeats = Flux.interval(HEARTBEAT_INTERVAL)
+                            .subscribe(tick -> send(OpenApiMessages.heartbeat(), null));
+                    return inbound.receive().asByteArray()
+                            .doOnNext(frame -> respond(ProtoMessage.parse(frame)))
+                            .doFinally(signal -> heartbeats.dispose())
+                            .then();
+                })
+                .bindNow();
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    long count(final int payloadType) {
+        return received.stream().filter(type -> type == payloadType).count();
+    }
+
+    boolean isSubscribed(final long symbolId) {
+        return subscribedSymbols.containsKey(symbolId);
+    }
+
+    void setBalance(final long balance) {
+        this.balance.set(balance);
+    }
+
+    void pushSpot(final long symbolId, final long bid, final long ask) {
+        send(message(OpenApiMessages.SPOT_EVENT, out -> {
+            out.writeInt64(2, ACCOUNT_ID);
+            out.writeInt64(3, symbolId);
+            out.writeUInt64(4, bid);
+            out.writeUInt64(5, ask);
+        }), null);
+    }
+
+    // An ORDER_FILLED execution that closes the open position
+    void pushPositionClosed() {
+        positionOpen = false;
+        send(message(OpenApiMessages.EXECUTION_EVENT, out -> {
+            out.writeInt64(2, ACCOUNT_ID);
+            out.writeEnum(3, 3);
+            writeMessage(out, 4, this::writeClosedPosition);
+        }), null);
+    }
+
+    private void respond(final ProtoMessage request) {
+        received.add(request.getPayloadType());
+        String clientMsgId = request.getClientMsgId();
+
+        switch (request.getPayloadType()) {
+            case OpenApiMessages.APPLICATION_AUTH_REQ -> send(message(OpenApiMessages.APPLICATION_AUTH_RES, out -> { }), clientMsgId);
+            case OpenApiMessages.ACCOUNT_AUTH_REQ -> send(new String(request.getPayload()).contains(ACCESS_TOKEN)
+                    ? message(OpenApiMessages.ACCOUNT_AUTH_RES, out -> out.writeInt64(2, ACCOUNT_ID))
+                    : message(OpenApiMessages.OA_ERROR_RES, out -> {
+                        out.writeString(3, "CH_ACCESS_TOKEN_INVALID");
+                        out.writeString(4, "Access token is invalid");
+                    }), clientMsgId);
+            case OpenApiMessages.SYMBOLS_LIST_REQ -> send(message(OpenApiMessages.SYMBOLS_LIST_RES, out -> {
+                out.writeInt64(2, ACCOUNT_ID);
+                writeMessage(out, 3, symbol -> {
+                    symbol.writeInt64(1, EURUSD);
+                    symbol.writeString(2, "EURUSD");
+                });
+                writeMessage(out, 3, symbol -> {
+                    symbol.writeInt64(1, XAUUSD);
+                    symbol.writeString(2, "XAUUSD");
+                });
+            }), clientMsgId);
+            case OpenApiMessages.TRADER_REQ -> {
+                ProtoMessage response = message(OpenApiMessages.TRADER_RES, out -> {
+                    out.writeInt64(2, ACCOUNT_ID);
+                    writeMessage(out, 3, trader -> {
+                        trader.writeInt64(1, ACCOUNT_ID);
+                        trader.writeInt64(2, balance.get());
+                        trader.writeInt64(8, 1);
+                        trader.writeUInt32(20, 2);
+                    });
+                });
+                Mono.delay(TRADER_DELAY).subscribe(tick -> send(response, clientMsgId));
+            }
+            case OpenApiMessages.RECONCILE_REQ -> send(message(OpenApiMessages.RECONCILE_RES, out -> {
+                out.writeInt64(2, ACCOUNT_ID);
+                if (positionOpen) {
+                    writeMessage(out, 3, this::writeOpenPosition);
+                }
+                writeMessage(out, 4, order -> {
+                    order.writeInt64(1, ORDER_ID);
+                    writeMessage(order, 2, trade -> writeTradeData(trade, XAUUSD, 2, 1_000));
+                    order.writeEnum(3, 2); // LIMIT
+                    order.writeEnum(4, 1); // ACCEPTED
+                    order.writeDouble(13, 2400.5);
+                });
+            }), clientMsgId);
+            case OpenApiMessages.SUBSCRIBE_SPOTS_REQ -> {
+                symbolIds(request.getPayload()).forEach(id -> subscribedSymbols.put(id, true));
+                send(message(OpenApiMessages.SUBSCRIBE_SPOTS_RES, out -> out.writeInt64(2, ACCOUNT_ID)), clientMsgId);
+            }
+            case OpenApiMessages.UNSUBSCRIBE_SPOTS_REQ -> {
+                symbolIds(request.getPayload()).forEach(subscribedSymbols::remove);
+                send(message(OpenApiMessages.UNSUBSCRIBE_SPOTS_RES, out -> out.writeInt64(2, ACCOUNT_ID)), clientMsgId);
+            }
+            case OpenApiMessages.ACCOUNT_LOGOUT_REQ -> send(message(OpenApiMessages.ACCOUNT_LOGOUT_RES, out -> out.writeInt64(2, ACCOUNT_ID)), clientMsgId);
+            case OpenApiMessages.GET_POSITION_UNREALIZED_PNL_REQ -> send(message(OpenApiMessages.GET_POSITION_UNREALIZED_PNL_RES, out -> {
+                out.writeInt64(2, ACCOUNT_ID);
+                if (positionOpen) {
+                    writeMessage(out, 3, pnl -> {
+                        pnl.writeInt64(1, POSITION_ID);
+                        pnl.writeInt64(2, 1_300);
+                        pnl.writeInt64(3, 1_234); // 12.34 net
+                    });
+                }
+                out.writeUInt32(4, 2);
+            }), clientMsgId);
+            default -> { } // Heartbeats
+        }
+    }
+
+    private void writeOpenPosition(final CodedOutputStream position) throws IOException {
+        position.writeInt64(1, POSITION_ID);
+        writeMessage(position, 2, trade -> writeTradeData(trade, EURUSD, 1, 100_000));
+        position.writeEnum(3, OpenApiMessages.POSITION_STATUS_OPEN);
+        position.writeDouble(5, 1.1);
+        position.writeUInt64(13, 5_000); // 50.00 used margin
+        position.writeUInt32(15, 2);
+    }
+
+    private void writeClosedPosition(final CodedOutputStream position) throws IOException {
+        position.writeInt64(1, POSITION_ID);
+        writeMessage(position, 2, trade -> writeTradeData(trade, EURUSD, 1, 100_000));
+        position.writeEnum(3, 2); // CLOSED
+        position.writeDouble(5, 1.1);
+    }
+
+    private static void writeTradeData(final CodedOutputStream trade, final long symbolId, final int side, final long volume) throws IOException {
+        trade.writeInt64(1, symbolId);
+        trade.writeInt64(2, volume);
+        trade.writeEnum(3, side);
+        trade.writeInt64(4, 1_700_000_000_000L);
+    }
+
+    // The symbolId fields (3) of a ProtoOASubscribeSpotsReq
+    private static List<Long> symbolIds(final byte[] payload) {
+        try {
+            List<Long> symbolIds = new ArrayList<>();
+            var in = CodedInputStream.newInstance(payload);
+            int tag;
+            while ((tag = in.readTag()) != 0) {
+                if (WireFormat.getTagFieldNumber(tag) == 3) {
+                    symbolIds.add(in.readInt64());
+                } else {
+                    in.skipField(tag);
+                }
+            }
+            return symbolIds;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void send(final ProtoMessage message, final String clientMsgId) {
+        Connection connection = client.get();
+        if (connection != null) {
+            connection.channel().writeAndFlush(Unpooled.wrappedBuffer(message.withClientMsgId(clientMsgId).toByteArray()));
+        }
+    }
+
+    private static ProtoMessage message(final int payloadType, final Writer writer) {
+        return new ProtoMessage(payloadType, encode(out -> {
+            out.writeEnum(1, payloadType);
+            writer.write(out);
+        }), null);
+    }
+
+    private static void writeMessage(final CodedOutputStream out, final int field, final Writer writer) throws IOException {
+        out.writeByteArray(field, encode(writer));
+    }
+
+    private static byte[] encode(final Writer writer) {
+        try {
+            var bytes = new ByteArrayOutputStream();
+            var out = CodedOutputStream.newInstance(bytes);
+            writer.write(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(CodedOutputStream out) throws IOException;
+    }
+
+}
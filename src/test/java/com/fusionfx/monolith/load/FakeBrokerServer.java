@@ -0,0 +1,148 @@
+package com.fusionfx.monolith.load;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-process stand-in for the TradeLocker, DX Trade, Match-Trader and MetaApi endpoints the data services call.
+ * <p>
+ * Every response is delayed by {@code latency} +/- 50% and fails with a 503 at {@code errorRate}; calls are counted
+ * per route so the harness can report the upstream amplification of a user request.
+ */
+final class FakeBrokerServer implements AutoCloseable {
+
+    static final String TRADELOCKER_PATH = "/backend-api";
+
+    // Every Match-Trader login returns these trading accounts
+    static final List<String> MATCHTRADER_ACCOUNTS = List.of("2000001", "2000002");
+
+    // A realistic subset of the TradeLocker account details columns, in server order
+    private static final List<String> COLUMNS = List.of("balance", "projectedBalance", "availableFunds", "blockedBalance",
+            "cashBalance", "unsettledCash", "withdrawalAvailable", "stocksValue", "optionValue", "initialMarginReq",
+            "maintMarginReq", "marginWarningLevel", "blockedForStocks", "stockOrdersReq", "stopOutLevel", "warningMarginReq",
+            "marginBeforeWarning", "todayGross", "todayNet", "todayFees", "todayVolume", "todayTradesCount", "openGrossPnL",
+            "openNetPnL", "positionsCount", "ordersCount");
+
+    private static final String TRADELOCKER_CONFIG = "{\"s\":\"ok\",\"d\":{\"accountDetailsConfig\":{\"id\":\"accountDetails\","
+            + "\"title\":\"Account Details\",\"columns\":["
+            + COLUMNS.stream().map(id -> "{\"id\":\"" + id + "\",\"description\":\"" + id + "\"}").collect(Collectors.joining(","))
+            + "]}}}";
+
+    private static final String TRADELOCKER_STATE = "{\"s\":\"ok\",\"d\":{\"accountDetailsData\":[100250.5,100812.25,99210.0,"
+            + "0.0,100250.5,0.0,99210.0,0.0,0.0,1602.5,801.25,0.0,0.0,0.0,50.0,0.0,0.0,312.4,298.1,14.3,4.0,12,575.35,561.75,3,2]}}";
+
+    private static final String DXTRADE_METRICS = "{\"metrics\":[{\"account\":\"default:1\",\"version\":1,\"equity\":50812.42,"
+            + "\"balance\":50000.0,\"availableBalance\":48211.0,\"availableFunds\":48211.0,\"credit\":0.0,\"marginFree\":48211.0,"
+            + "\"openPL\":812.42,\"totalPL\":812.42,\"margin\":2601.42,\"openPositionsCount\":4,\"openOrdersCount\":1}]}";
+
+    private static final String METAAPI_ACCOUNT_INFORMATION = "{\"platform\":\"mt5\",\"broker\":\"Load Markets\","
+            + "\"currency\":\"USD\",\"server\":\"LoadMarkets-Live\",\"balance\":25000.0,\"equity\":25433.18,\"margin\":512.9,"
+            + "\"freeMargin\":24920.28,\"leverage\":100,\"name\":\"Load\",\"login\":51234567,\"credit\":0.0,"
+            + "\"tradeAllowed\":true,\"investorMode\":false,\"type\":\"ACCOUNT_TRADE_MODE_DEMO\"}";
+
+    private static final String METAAPI_POSITIONS = "[{\"id\":\"1\",\"type\":\"POSITION_TYPE_BUY\",\"symbol\":\"EURUSD\","
+            + "\"volume\":1.0,\"openPrice\":1.0812,\"currentPrice\":1.0846,\"unrealizedProfit\":340.0}]";
+
+    private static final String MATCHTRADER_BALANCE = "{\"balance\":\"10000.00\",\"equity\":\"10142.50\",\"margin\":\"350.00\","
+            + "\"freeMargin\":\"9792.50\",\"profit\":\"142.50\",\"currency\":\"USD\"}";
+
+    private static final String MATCHTRADER_POSITIONS = "{\"positions\":[{\"id\":\"1\",\"symbol\":\"EURUSD\",\"volume\":1.0,"
+            + "\"side\":\"BUY\",\"openPrice\":1.0812,\"currentPrice\":1.0826,\"netProfit\":142.5}]}";
+
+    private final Duration latency;
+    private final double errorRate;
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final DisposableServer server;
+
+    private FakeBrokerServer(final Duration latency, final double errorRate) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post(TRADELOCKER_PATH + "/auth/jwt/token", (request, response) -> respond("tradelocker login", response, this::tradeLockerToken))
+                        .post(TRADELOCKER_PATH + "/auth/jwt/refresh", (request, response) -> respond("tradelocker refresh", response, this::tradeLockerToken))
+                        .get(TRADELOCKER_PATH + "/trade/config", (request, response) -> respond("tradelocker config", response, () -> TRADELOCKER_CONFIG))
+                        .get(TRADELOCKER_PATH + "/trade/accounts/{accountId}/state", (request, response) -> respond("tradelocker state", response, () -> TRADELOCKER_STATE))
+                        .post("/dxsca-web/login", (request, response) -> respond("dxtrade login", response,
+                                () -> "{\"sessionToken\":\"dx-" + System.nanoTime() + "\"}"))
+                        .get("/dxsca-web/accounts/{account}/metrics", (request, response) -> respond("dxtrade metrics", response, () -> DXTRADE_METRICS))
+                        .post("/mtr-backend/login", (request, response) -> respond("matchtrader login", response, this::matchTraderLogin))
+                        .get("/mtr-api/{systemUuid}/balance", (request, response) -> respond("matchtrader balance", response, () -> MATCHTRADER_BALANCE))
+                        .get("/mtr-api/{systemUuid}/open-positions", (request, response) -> respond("matchtrader open-positions", response, () -> MATCHTRADER_POSITIONS))
+                        .get("/users/current/accounts/{accountId}/account-information", (request, response) -> respond("metaapi account-information", response, () -> METAAPI_ACCOUNT_INFORMATION))
+                        .get("/users/current/accounts/{accountId}/positions", (request, response) -> respond("metaapi positions", response, () -> METAAPI_POSITIONS)))
+                .bindNow();
+    }
+
+    static FakeBrokerServer start(final Duration latency, final double errorRate) {
+        return new FakeBrokerServer(latency, errorRate);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    // Calls per route since the last reset, sorted by route
+    Map<String, Long> calls() {
+        return calls.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum(), Long::sum, TreeMap::new));
+    }
+
+    void resetCalls() {
+        calls.values().forEach(LongAdder::reset);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private String tradeLockerToken() {
+        return "{\"accessToken\":\"tl-" + System.nanoTime() + "\",\"refreshToken\":\"tl-refresh\",\"expireDate\":\""
+                + Instant.now().plus(Duration.ofHours(1)) + "\"}";
+    }
+
+    private String matchTraderLogin() {
+        return "{\"token\":\"mtr-" + System.nanoTime() + "\",\"accounts\":[" + MATCHTRADER_ACCOUNTS.stream()
+                .map(id -> "{\"tradingAccountId\":\"" + id + "\",\"tradingApiToken\":\"mtr-api-" + id
+                        + "\",\"offer\":{\"system\":{\"uuid\":\"system-1\"}}}")
+                .collect(Collectors.joining(",")) + "]}";
+    }
+
+    private Mono<Void> respond(final String route,
+                               final HttpServerResponse response,
+                               final Supplier<String> body) {
+        calls.computeIfAbsent(route, key -> new LongAdder()).increment();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latencyMillis = latency.toMillis();
+        Duration delay = Duration.ofMillis(latencyMillis / 2 + (latencyMillis > 0 ? random.nextLong(latencyMillis + 1) : 0));
+
+        if (random.nextDouble() < errorRate) {
+            return Mono.delay(delay).then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then());
+        }
+
+        return Mono.delay(delay).then(response
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendString(Mono.fromSupplier(body))
+                .then());
+    }
+
+}
@@ -0,0 +1,280 @@
+package com.fusionfx.monolith.load;
+
+import com.fusionfx.monolith.Application;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.enums.AccountType;
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.repo.TradeAccountRepo;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load harness: drives the real application against in-process broker stand-ins, an embedded MongoDB and
+ * stubbed JWTs, and reports throughput, latency percentiles and upstream calls per user request.
+ * <p>
+ * Excluded from the regular build; run it with {@code mvn test -Pload-test}. Tunable through system properties:
+ * <ul>
+ *     <li>{@code load.users} (50), {@code load.concurrency} (32) - virtual users and requests in flight</li>
+ *     <li>{@code load.duration} (30s), {@code load.warmup} (5s) - measured and discarded run time</li>
+ *     <li>{@code load.path} (/api/trade-accounts/snapshot) - the endpoint every request hits</li>
+ *     <li>{@code load.latency} (50ms), {@code load.error-rate} (0.0) - behaviour of the broker stand-ins</li>
+ *     <li>{@code load.mongo-uri} - use this MongoDB (5.0+) instead of starting an embedded one</li>
+ *     <li>any {@code fusion.*} property, e.g. {@code -Dfusion.refresh.enabled=true}</li>
+ * </ul>
+ * Every user owns one TradeLocker, one DX Trade and one MetaTrader 5 account, and two Match-Trader accounts behind one
+ * login.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoadHarnessTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+    private static final Duration WARMUP = Duration.parse("PT" + System.getProperty("load.warmup", "5s"));
+    private static final String PATH = System.getProperty("load.path", "/api/trade-accounts/snapshot");
+    private static final Duration BROKER_LATENCY = Duration.ofMillis(Long.getLong("load.latency", 50));
+    private static final double BROKER_ERROR_RATE = Double.parseDouble(System.getProperty("load.error-rate", "0.0"));
+
+    private static FakeBrokerServer brokers;
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TradeAccountRepo tradeAccountRepo;
+
+    @DynamicPropertySource
+    static void properties(final DynamicPropertyRegistry registry) {
+        brokers = FakeBrokerServer.start(BROKER_LATENCY, BROKER_ERROR_RATE);
+
+        // An embedded mongod (downloaded on first use) unless an existing server is given
+        String mongoUri = System.getProperty("load.mongo-uri");
+        if (mongoUri == null) {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            var mongoAddress = mongod.current().getServerAddress();
+            mongoUri = "mongodb://" + mongoAddress.getHost() + ":" + mongoAddress.getPort();
+        }
+
+        String resolvedMongoUri = mongoUri;
+        registry.add("mongo-uri", () -> resolvedMongoUri);
+        registry.add("mongo-db", () -> "fusion-load");
+        registry.add("auth0-issuer", () -> "https://load.test/");
+        registry.add("auth0-oauth-issuer", () -> "https://load.test/");
+        registry.add("auth0-audience", () -> "load");
+        registry.add("auth0-client-id", () -> "load");
+        registry.add("auth0-connection", () -> "load");
+        registry.add("auth0-client-secret", () -> "load");
+        registry.add("meta-api-key", () -> "load");
+
+        // Point every upstream at the stand-ins; DX Trade and Match-Trader accounts carry their own connection URL
+        defaultProperty(registry, "fusion.trade-locker.live-base-url", brokers.baseUrl() + FakeBrokerServer.TRADELOCKER_PATH);
+        defaultProperty(registry, "fusion.trade-locker.demo-base-url", brokers.baseUrl() + FakeBrokerServer.TRADELOCKER_PATH);
+        defaultProperty(registry, "fusion.meta-api.client-api-url", brokers.baseUrl());
+        defaultProperty(registry, "fusion.meta-api.streaming-enabled", "false");
+
+        // Background refreshes would be counted as upstream calls of the measured requests
+        defaultProperty(registry, "fusion.refresh.enabled", "false");
+    }
+
+    // System properties win, so a run can override any setting with -D
+    private static void defaultProperty(final DynamicPropertyRegistry registry, final String name, final String value) {
+        registry.add(name, () -> System.getProperty(name, value));
+    }
+
+    @AfterAll
+    static void stop() {
+        if (brokers != null) {
+            brokers.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void load() {
+        seedAccounts();
+
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+
+        run(client, WARMUP);
+        brokers.resetCalls();
+
+        Result result = run(client, DURATION);
+        report(result, brokers.calls());
+
+        assertThat(result.completed()).isPositive();
+    }
+
+    private void seedAccounts() {
+        List<TradeAccount> accounts = new ArrayList<>();
+        for (int user = 0; user < USERS; user++) {
+            int index = user;
+            String userId = userId(index);
+            accounts.add(account(userId, Platform.TRADELOCKER, user, tradeAccount -> {
+                tradeAccount.setEmail(userId + "@load.test");
+                tradeAccount.setPassword("load");
+                tradeAccount.setServer("LOAD");
+                tradeAccount.setType(AccountType.LIVE);
+            }));
+            accounts.add(account(userId, Platform.DXTRADE, user, tradeAccount -> {
+                tradeAccount.setUsername(userId);
+                tradeAccount.setPassword("load");
+                tradeAccount.setConnectionUrl(brokers.baseUrl());
+            }));
+            accounts.add(account(userId, Platform.METATRADER5, user, tradeAccount -> {
+                tradeAccount.setCloudAccountNumber("cloud-" + index);
+                tradeAccount.setBroker("Load Markets");
+            }));
+            for (String matchTraderAccount : FakeBrokerServer.MATCHTRADER_ACCOUNTS) {
+                accounts.add(account(userId, Platform.MATCHTRADER, user, tradeAccount -> {
+                    tradeAccount.setAccountNumber(matchTraderAccount);
+                    tradeAccount.setEmail(userId + "@load.test");
+                    tradeAccount.setPassword("load");
+                    tradeAccount.setServer("load-broker");
+                    tradeAccount.setConnectionUrl(brokers.baseUrl());
+                }));
+            }
+        }
+        tradeAccountRepo.saveAll(accounts).then().block();
+    }
+
+    private static TradeAccount account(final String userId,
+                                        final Platform platform,
+                                        final int user,
+                                        final Consumer<TradeAccount> customizer) {
+        TradeAccount tradeAccount = new TradeAccount();
+        tradeAccount.setUserId(userId);
+        tradeAccount.setName(platform + " " + user);
+        tradeAccount.setPlatform(platform);
+        tradeAccount.setAccountNumber(String.valueOf(1_000_000 + user));
+        tradeAccount.setLeverage(100);
+        customizer.accept(tradeAccount);
+        return tradeAccount;
+    }
+
+    // Closed loop: CONCURRENCY workers each send the next request as soon as the previous one completed
+    private Result run(final WebClient client, final Duration duration) {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        LongAdder failed = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        Flux.range(0, CONCURRENCY)
+                .flatMap(worker -> Mono.defer(() -> request(client, latencies, failed))
+                        .repeat(() -> System.nanoTime() < deadline), CONCURRENCY)
+                .blockLast();
+
+        return new Result(latencies, failed.sum(), System.nanoTime() - start);
+    }
+
+    private Mono<Void> request(final WebClient client, final Histogram latencies, final LongAdder failed) {
+        String userId = userId(ThreadLocalRandom.current().nextInt(USERS));
+        long start = System.nanoTime();
+
+        return client.get()
+                .uri(PATH)
+                .headers(headers -> headers.setBearerAuth(userId))
+                .retrieve()
+                .toBodilessEntity()
+                .doOnSuccess(response -> latencies.recordValue(Math.min(System.nanoTime() - start, latencies.getHighestTrackableValue())))
+                .doOnError(error -> failed.increment())
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private static void report(final Result result, final Map<String, Long> upstreamCalls) {
+        long completed = result.completed();
+        double seconds = result.elapsedNanos() / 1e9;
+        long upstreamTotal = upstreamCalls.values().stream().mapToLong(Long::longValue).sum();
+
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%n=== Load report: GET %s, %d users, %d in flight, %.0fs, broker latency %dms, error rate %.2f ===%n",
+                        PATH, USERS, CONCURRENCY, seconds, BROKER_LATENCY.toMillis(), BROKER_ERROR_RATE))
+                .append(String.format("requests    %d ok, %d failed, %.1f req/s%n", completed, result.failed(), completed / seconds))
+                .append(String.format("latency ms  p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                        percentile(result, 50), percentile(result, 90), percentile(result, 99), percentile(result, 99.9),
+                        result.latencies().getMaxValue() / 1e6))
+                .append(String.format("upstream    %d calls, %.2f per request%n", upstreamTotal, perRequest(upstreamTotal, completed)));
+
+        upstreamCalls.forEach((route, calls) -> report.append(String.format("  %-28s %8d  %.2f per request%n",
+                route, calls, perRequest(calls, completed))));
+
+        log.info("LoadHarness | {}", report);
+    }
+
+    private static double percentile(final Result result, final double percentile) {
+        return result.latencies().getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static double perRequest(final long calls, final long requests) {
+        return requests == 0 ? 0 : (double) calls / requests;
+    }
+
+    private static String userId(final int user) {
+        return "load-user-" + user;
+    }
+
+    private record Result(Histogram latencies, long failed, long elapsedNanos) {
+
+        long completed() {
+            return latencies.getTotalCount();
+        }
+    }
+
+    // Accept any bearer token as a JWT whose subject is the token itself
+    @TestConfiguration
+    static class StubJwtConfig {
+
+        @Bean
+        @Primary
+        ReactiveJwtDecoder reactiveJwtDecoder() {
+            return token -> Mono.just(Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject(token)
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plus(Duration.ofHours(1)))
+                    .build());
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.fusionfx.monolith.model;
+
+import com.fusionfx.monolith.dto.BookDeltaDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deltas of a book of "id:value" entries across opens, modifications, closes and the retained history.
+ */
+class VersionedBookTest {
+
+    private static final String ACCOUNT_ID = "account-1";
+
+    @Test
+    void firstRequestGetsASnapshot() {
+        var book = book(100);
+        book.apply(List.of("a:1", "b:1"));
+
+        BookDeltaDto<String> delta = book.since(ACCOUNT_ID, null);
+
+        assertThat(delta.isSnapshot()).isTrue();
+        assertThat(delta.getOpened()).containsExactly("a:1", "b:1");
+        assertThat(delta.getClosed()).isEmpty();
+        assertThat(delta.getVersion()).endsWith(".1");
+    }
+
+    @Test
+    void deltaHoldsWhatWasOpenedModifiedAndClosed() {
+        var book = book(100);
+        book.apply(List.of("a:1", "b:1"));
+        String version = book.since(ACCOUNT_ID, null).getVersion();
+
+        book.apply(List.of("a:2", "c:1"));
+        BookDeltaDto<String> delta = book.since(ACCOUNT_ID, version);
+
+        assertThat(delta.isSnapshot()).isFalse();
+        assertThat(delta.getFromVersion()).isEqualTo(version);
+        assertThat(delta.getOpened()).containsExactly("c:1");
+        assertThat(delta.getModified()).containsExactly("a:2");
+        assertThat(delta.getClosed()).containsExactly("b");
+    }
+
+    @Test
+    void unchangedPollKeepsTheVersion() {
+        var book = book(100);
+        long first = book.apply(List.of("a:1"));
+        String version = book.since(ACCOUNT_ID, null).getVersion();
+
+        assertThat(book.apply(List.of("a:1"))).isEqualTo(first);
+        BookDeltaDto<String> delta = book.since(ACCOUNT_ID, version);
+
+        assertThat(delta.getVersion()).isEqualTo(version);
+        assertThat(delta.getOpened()).isEmpty();
+        assertThat(delta.getModified()).isEmpty();
+        assertThat(delta.getClosed()).isEmpty();
+    }
+
+    @Test
+    void reopenedIdIsReportedAsOpenedNotClosed() {
+        var book = book(100);
+        book.apply(List.of("a:1"));
+        String version = book.since(ACCOUNT_ID, null).getVersion();
+
+        book.apply(List.of());
+        book.apply(List.of("a:3"));
+        BookDeltaDto<String> delta = book.since(ACCOUNT_ID, version);
+
+        assertThat(delta.getOpened()).containsExactly("a:3");
+        assertThat(delta.getClosed()).isEmpty();
+    }
+
+    @Test
+    void versionsOlderThanTheRetainedHistoryGetASnapshot() {
+        var book = book(2);
+        book.apply(List.of("a:1"));                                  // v1
+        String v1 = book.since(ACCOUNT_ID, null).getVersion();
+        book.apply(List.of());                                       // v2: a closed
+        String v2 = book.since(ACCOUNT_ID, v1).getVersion();
+        book.apply(List.of("b:1"));                                  // v3
+        book.apply(List.of("c:1"));                                  // v4: b closed, history of a forgotten
+
+        BookDeltaDto<String> fromV1 = book.since(ACCOUNT_ID, v1);
+        assertThat(fromV1.isSnapshot()).isTrue();
+        assertThat(fromV1.getOpened()).containsExactly("c:1");
+
+        BookDeltaDto<String> fromV2 = book.since(ACCOUNT_ID, v2);
+        assertThat(fromV2.isSnapshot()).isFalse();
+        assertThat(fromV2.getOpened()).containsExactly("c:1");
+        assertThat(fromV2.getClosed()).containsExactly("b");
+    }
+
+    @Test
+    void tokenOfAnotherBookGetsASnapshot() {
+        var previous = book(100);
+        previous.apply(List.of("a:1"));
+        String version = previous.since(ACCOUNT_ID, null).getVersion();
+
+        // Same history, as after an eviction or on another instance, but a different epoch
+        var book = book(100);
+        book.apply(List.of("a:1"));
+        book.apply(List.of("a:1", "b:1"));
+        BookDeltaDto<String> delta = book.since(ACCOUNT_ID, version);
+
+        assertThat(delta.isSnapshot()).isTrue();
+        assertThat(delta.getOpened()).containsExactly("a:1", "b:1");
+    }
+
+    @Test
+    void malformedOrFutureTokensGetASnapshot() {
+        var book = book(100);
+        book.apply(List.of("a:1"));
+        String version = book.since(ACCOUNT_ID, null).getVersion();
+        String epoch = version.substring(0, version.lastIndexOf('.'));
+
+        assertThat(book.since(ACCOUNT_ID, "0").isSnapshot()).isTrue();
+        assertThat(book.since(ACCOUNT_ID, epoch + ".x").isSnapshot()).isTrue();
+        assertThat(book.since(ACCOUNT_ID, epoch + ".7").isSnapshot()).isTrue();
+    }
+
+    private static VersionedBook<String> book(final int retainedVersions) {
+        return new VersionedBook<>(entry -> entry.substring(0, entry.indexOf(':')), retainedVersions);
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.fusionfx.monolith.repo;
+
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.entity.TradeAccount;
+import com.fusionfx.monolith.service.data.AccountRefreshScheduler;
+import com.fusionfx.monolith.service.data.CTraderDataService;
+import com.fusionfx.monolith.service.data.PositionBookService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Decrypted accounts are zeroed when they leave the cache, and saves and deletes take them out of it.
+ */
+class TradeAccountCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String ACCOUNT_ID = "account-1";
+
+    private final Map<String, TradeAccount> stored = new HashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+    private AppProperties appProperties;
+    private TradeAccountRepo tradeAccountRepo;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        tradeAccountRepo = mock(TradeAccountRepo.class);
+        when(tradeAccountRepo.findById(anyString())).thenAnswer(invocation -> Mono.fromSupplier(() -> {
+            reads.incrementAndGet();
+            return stored.get(invocation.<String>getArgument(0));
+        }));
+        stored.put(ACCOUNT_ID, tradeAccount("secret"));
+    }
+
+    @Test
+    void readsAreServedFromTheCache() {
+        TradeAccountCache cache = cache();
+
+        TradeAccount first = cache.findById(ACCOUNT_ID).block(TIMEOUT);
+        first.setPassword("changed by the caller");
+        TradeAccount second = cache.findById(ACCOUNT_ID).block(TIMEOUT);
+
+        assertThat(second.getPassword()).isEqualTo("secret");
+        assertThat(second).isNotSameAs(first);
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void credentialsAreZeroedOnInvalidation() {
+        TradeAccountCache cache = cache();
+        cache.findById(ACCOUNT_ID).block(TIMEOUT);
+        char[] password = cache.getIfPresent(ACCOUNT_ID).password();
+        assertThat(password).containsExactly("secret".toCharArray());
+
+        cache.invalidate(ACCOUNT_ID);
+
+        await(() -> new String(password).equals("\0".repeat(6)));
+        assertThat(cache.getIfPresent(ACCOUNT_ID)).isNull();
+    }
+
+    @Test
+    void credentialsAreZeroedOnExpiry() throws InterruptedException {
+        appProperties.getAccountCache().setTtl(Duration.ofMillis(50));
+        TradeAccountCache cache = cache();
+        cache.findById(ACCOUNT_ID).block(TIMEOUT);
+        char[] password = cache.getIfPresent(ACCOUNT_ID).password();
+
+        Thread.sleep(100);
+        TradeAccount reloaded = cache.findById(ACCOUNT_ID).block(TIMEOUT);
+
+        assertThat(reloaded.getPassword()).isEqualTo("secret");
+        assertThat(reads).hasValue(2);
+        await(() -> new String(password).equals("\0".repeat(6)));
+    }
+
+    @Test
+    void saveInvalidatesTheEntry() {
+        TradeAccountCache cache = cache();
+        TradeAccountEventListener listener = listener(cache);
+        cache.findById(ACCOUNT_ID).block(TIMEOUT);
+        char[] password = cache.getIfPresent(ACCOUNT_ID).password();
+
+        TradeAccount saved = tradeAccount("rotated");
+        stored.put(ACCOUNT_ID, saved);
+        listener.onAfterSave(new AfterSaveEvent<>(saved, new Document("_id", ACCOUNT_ID), "trade_accounts"));
+
+        assertThat(cache.findById(ACCOUNT_ID).block(TIMEOUT).getPassword()).isEqualTo("rotated");
+        assertThat(reads).hasValue(2);
+        await(() -> new String(password).equals("\0".repeat(6)));
+    }
+
+    @Test
+    void deleteInvalidatesTheEntry() {
+        TradeAccountCache cache = cache();
+        var accountRefreshScheduler = mock(AccountRefreshScheduler.class);
+        var positionBookService = mock(PositionBookService.class);
+        var cTraderDataService = mock(CTraderDataService.class);
+        var listener = new TradeAccountEventListener(accountRefreshScheduler, cache, positionBookService, cTraderDataService);
+        cache.findById(ACCOUNT_ID).block(TIMEOUT);
+
+        stored.remove(ACCOUNT_ID);
+        listener.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", ACCOUNT_ID), TradeAccount.class, "trade_accounts"));
+
+        assertThat(cache.findById(ACCOUNT_ID).blockOptional(TIMEOUT)).isEmpty();
+        verify(accountRefreshScheduler).unregister(ACCOUNT_ID);
+        verify(positionBookService).remove(ACCOUNT_ID);
+        verify(cTraderDataService).remove(ACCOUNT_ID);
+    }
+
+    private TradeAccountCache cache() {
+        return new TradeAccountCache(appProperties, tradeAccountRepo, new SimpleMeterRegistry());
+    }
+
+    private static TradeAccountEventListener listener(final TradeAccountCache cache) {
+        return new TradeAccountEventListener(mock(AccountRefreshScheduler.class), cache,
+                mock(PositionBookService.class), mock(CTraderDataService.class));
+    }
+
+    private static TradeAccount tradeAccount(final String password) {
+        var tradeAccount = new TradeAccount();
+        tradeAccount.setId(ACCOUNT_ID);
+        tradeAccount.setUserId("user-1");
+        tradeAccount.setAccountNumber("1001");
+        tradeAccount.setEmail("trader@example.com");
+        tradeAccount.setPassword(password);
+        return tradeAccount;
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.fusionfx.monolith.service.auth;
+
+import com.fusionfx.monolith.enums.Platform;
+import com.fusionfx.monolith.model.TokenKey;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent token requests of one key share a single upstream call, which is forgotten once it completes or fails.
+ */
+class TokenRequestCoalescerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final TokenKey KEY = new TokenKey(Platform.TRADELOCKER, "user-1", "1001");
+    private static final int CALLERS = 16;
+
+    private final TokenRequestCoalescer coalescer = new TokenRequestCoalescer();
+
+    @Test
+    void concurrentMissesMakeOneUpstreamCall() throws Exception {
+        var calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        var start = new CountDownLatch(1);
+        var subscribed = new CountDownLatch(CALLERS);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<CompletableFuture<String>> tokens = IntStream.range(0, CALLERS)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        CompletableFuture<String> token = coalescer.acquire(KEY, () -> {
+                            calls.incrementAndGet();
+                            return upstream.asMono();
+                        }).toFuture();
+                        subscribed.countDown();
+                        return token;
+                    }, executor).thenCompose(token -> token))
+                    .toList();
+
+            start.countDown();
+            assertThat(subscribed.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+            upstream.tryEmitValue("token-1");
+
+            for (CompletableFuture<String> token : tokens) {
+                assertThat(token.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo("token-1");
+            }
+            assertThat(calls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedCallIsSharedAndThenRemoved() {
+        var calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = coalescer.acquire(KEY, () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = coalescer.acquire(KEY, () -> {
+            calls.incrementAndGet();
+            return Mono.just("unused");
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitError(new IllegalStateException("login rejected")))
+                .expectErrorMessage("login rejected")
+                .verify(TIMEOUT);
+        assertThat(calls).hasValue(1);
+
+        // The failed attempt is gone, so the next caller tries again
+        StepVerifier.create(coalescer.acquire(KEY, () -> {
+                    calls.incrementAndGet();
+                    return Mono.just("token-2");
+                }))
+                .expectNext("token-2")
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        var calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(coalescer.acquire(KEY, () -> Mono.just("token-" + calls.incrementAndGet())))
+                    .expectNext("token-" + (i + 1))
+                    .expectComplete()
+                    .verify(TIMEOUT);
+        }
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        var calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        var otherKey = new TokenKey(Platform.TRADELOCKER, "user-1", "1002");
+
+        Mono<String> first = coalescer.acquire(KEY, () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> other = coalescer.acquire(otherKey, () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        StepVerifier.create(Mono.zip(first, other))
+                .then(() -> upstream.tryEmitValue("token"))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(calls).hasValue(2);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
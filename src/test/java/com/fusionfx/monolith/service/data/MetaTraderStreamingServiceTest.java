@@ -0,0 +1,179 @@
+package com.fusionfx.monolith.service.data;
+
+import cloud.metaapi.sdk.clients.meta_api.models.MetatraderAccountInformation;
+import cloud.metaapi.sdk.clients.meta_api.models.MetatraderPosition;
+import cloud.metaapi.sdk.clients.models.IsoTime;
+import cloud.metaapi.sdk.meta_api.MetaApi;
+import cloud.metaapi.sdk.meta_api.MetatraderAccount;
+import cloud.metaapi.sdk.meta_api.MetatraderAccountApi;
+import cloud.metaapi.sdk.meta_api.StreamingMetaApiConnectionInstance;
+import cloud.metaapi.sdk.meta_api.TerminalState;
+import com.fusionfx.monolith.AppProperties;
+import com.fusionfx.monolith.dto.metatrader.AccountDetailsDto;
+import com.fusionfx.monolith.dto.metatrader.PositionDetailsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reference counting, idle close and terminal-state reads of the streaming connections, driven through the SDK types.
+ */
+class MetaTraderStreamingServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String CLOUD_ACCOUNT = "cloud-1";
+    private static final Instant OPENED_AT = Instant.parse("2026-10-16T08:30:00Z");
+
+    private MetatraderAccountApi accountApi;
+    private StreamingMetaApiConnectionInstance connection;
+    private TerminalState terminalState;
+    private MetaTraderStreamingService streamingService;
+
+    @BeforeEach
+    void setUp() {
+        var info = new MetatraderAccountInformation();
+        info.balance = 10_000;
+        info.equity = 10_250;
+        info.currency = "USD";
+        info.login = 1001;
+
+        var position = new MetatraderPosition();
+        position.id = "46214692";
+        position.type = MetatraderPosition.PositionType.POSITION_TYPE_SELL;
+        position.symbol = "EURUSD";
+        position.volume = 0.1;
+        position.openPrice = 1.0921;
+        position.currentPrice = 1.0905;
+        position.unrealizedProfit = 16.0;
+        position.time = new IsoTime(Date.from(OPENED_AT));
+        position.updateTime = new IsoTime(Date.from(OPENED_AT.plusSeconds(60)));
+
+        terminalState = mock(TerminalState.class);
+        when(terminalState.isConnected()).thenReturn(true);
+        when(terminalState.getAccountInformation()).thenReturn(info);
+        when(terminalState.getPositions()).thenReturn(List.of(position));
+
+        connection = mock(StreamingMetaApiConnectionInstance.class);
+        when(connection.connect()).thenReturn(CompletableFuture.completedFuture(null));
+        when(connection.waitSynchronized()).thenReturn(CompletableFuture.completedFuture(null));
+        when(connection.getTerminalState()).thenReturn(terminalState);
+        when(connection.close()).thenReturn(CompletableFuture.completedFuture(null));
+
+        var account = mock(MetatraderAccount.class);
+        when(account.getStreamingConnection()).thenReturn(connection);
+        accountApi = mock(MetatraderAccountApi.class);
+        when(accountApi.getAccount(CLOUD_ACCOUNT)).thenReturn(CompletableFuture.completedFuture(account));
+        var metaApi = mock(MetaApi.class);
+        when(metaApi.getMetatraderAccountApi()).thenReturn(accountApi);
+
+        var appProperties = new AppProperties();
+        appProperties.getMetaApi().setStreamingEnabled(true);
+        appProperties.getMetaApi().setStreamingIdleTimeout(Duration.ofMillis(200));
+        streamingService = new MetaTraderStreamingService(metaApi, appProperties, Schedulers.boundedElastic());
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamingService.destroy();
+    }
+
+    @Test
+    void readsDoNotOpenAConnection() {
+        assertThat(streamingService.getAccountInformation(CLOUD_ACCOUNT).blockOptional(TIMEOUT)).isEmpty();
+        verify(accountApi, never()).getAccount(CLOUD_ACCOUNT);
+    }
+
+    @Test
+    void retainedConnectionServesTheTerminalState() {
+        Disposable hold = streamingService.retain(CLOUD_ACCOUNT);
+
+        await(() -> streamingService.getAccountInformation(CLOUD_ACCOUNT).blockOptional(TIMEOUT).isPresent());
+        AccountDetailsDto details = streamingService.getAccountInformation(CLOUD_ACCOUNT).block(TIMEOUT);
+        assertThat(details.getBalance()).isEqualTo(10_000.0);
+        assertThat(details.getEquity()).isEqualTo(10_250.0);
+        assertThat(details.getCurrency()).isEqualTo("USD");
+        assertThat(details.getLogin()).isEqualTo(1001L);
+
+        List<PositionDetailsDto> positions = streamingService.getPositions(CLOUD_ACCOUNT).block(TIMEOUT);
+        assertThat(positions).singleElement().satisfies(position -> {
+            assertThat(position.getId()).isEqualTo("46214692");
+            assertThat(position.getType()).isEqualTo("POSITION_TYPE_SELL");
+            assertThat(position.getUnrealizedProfit()).isEqualTo(16.0);
+            assertThat(position.getTime()).isEqualTo(OPENED_AT);
+        });
+
+        // A terminal that lost its connection is not read
+        when(terminalState.isConnected()).thenReturn(false);
+        assertThat(streamingService.getAccountInformation(CLOUD_ACCOUNT).blockOptional(TIMEOUT)).isEmpty();
+        hold.dispose();
+    }
+
+    @Test
+    void connectionIsSharedAndClosedAfterTheLastReleaseWhenIdle() {
+        Disposable first = streamingService.retain(CLOUD_ACCOUNT);
+        Disposable second = streamingService.retain(CLOUD_ACCOUNT);
+        await(() -> streamingService.readTerminalState(CLOUD_ACCOUNT).blockOptional(TIMEOUT).isPresent());
+
+        first.dispose();
+        first.dispose(); // Releasing twice counts once
+        sleep(400);
+        verify(connection, never()).close();
+
+        second.dispose();
+        await(() -> mockingDetailsCloseCalls() == 1);
+        assertThat(streamingService.readTerminalState(CLOUD_ACCOUNT).blockOptional(TIMEOUT)).isEmpty();
+        verify(accountApi, times(1)).getAccount(CLOUD_ACCOUNT);
+    }
+
+    @Test
+    void retainWithinTheIdleTimeoutKeepsTheConnection() {
+        streamingService.retain(CLOUD_ACCOUNT).dispose();
+        Disposable again = streamingService.retain(CLOUD_ACCOUNT);
+
+        sleep(400);
+        verify(connection, never()).close();
+        verify(accountApi, times(1)).getAccount(CLOUD_ACCOUNT);
+        again.dispose();
+    }
+
+    private long mockingDetailsCloseCalls() {
+        return mockingDetails(connection).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("close"))
+                .count();
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            sleep(20);
+        }
+    }
+
+}
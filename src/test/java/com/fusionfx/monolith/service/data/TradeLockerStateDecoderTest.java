@@ -0,0 +1,129 @@
+package com.fusionfx.monolith.service.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fusionfx.monolith.dto.tradelocker.AccountDetailsConfigDto;
+import com.fusionfx.monolith.model.TradeLockerAccountState;
+import com.fusionfx.monolith.model.TradeLockerColumnLayout;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Decoding a recorded TradeLocker /state response and reading it through the /trade/config column layout.
+ */
+class TradeLockerStateDecoderTest {
+
+    // The account details columns of a demo server, in server order
+    private static final List<String> COLUMNS = List.of("balance", "projectedBalance", "availableFunds", "blockedBalance",
+            "cashBalance", "unsettledCash", "withdrawalAvailable", "stocksValue", "optionValue", "initialMarginReq",
+            "maintMarginReq", "marginWarningLevel", "blockedForStocks", "stockOrdersReq", "stopOutLevel", "warningMarginReq",
+            "marginBeforeWarning", "todayGross", "todayNet", "todayFees", "todayVolume", "todayTradesCount", "openGrossPnL",
+            "openNetPnL", "positionsCount", "ordersCount");
+
+    // /trade/accounts/{accountId}/state as recorded, with the fields the decoder has to skip
+    private static final String STATE = """
+            {"s":"ok","d":{"accountDetailsData":[100250.5,100812.25,99210.0,0.0,100250.5,0.0,99210.0,0.0,0.0,1602.5,\
+            801.25,0.0,0.0,0.0,50.0,0.0,0.0,312.4,298.1,14.3,4.0,12,575.35,561.75,3,2]}}""";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void decodesTheRecordedState() {
+        double[] row = TradeLockerStateDecoder.decode(STATE.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(row).hasSize(COLUMNS.size());
+        assertThat(row[0]).isEqualTo(100250.5);
+        assertThat(row[COLUMNS.indexOf("positionsCount")]).isEqualTo(3.0);
+
+        TradeLockerAccountState state = layout(COLUMNS).toAccountState(row);
+        assertThat(state.getBalance()).isEqualTo(100250.5);
+        assertThat(state.getProjectedBalance()).isEqualTo(100812.25);
+        assertThat(state.getOpenNetPnl()).isEqualTo(561.75);
+        assertThat(state.getPositionsCount()).isEqualTo(3);
+        assertThat(state.getMaintMarginReq()).isEqualTo(801.25);
+    }
+
+    @Test
+    void bufferAndByteArrayDecodeAlike() {
+        byte[] bytes = STATE.getBytes(StandardCharsets.UTF_8);
+
+        double[] fromBuffer = TradeLockerStateDecoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(bytes));
+
+        assertThat(fromBuffer).containsExactly(TradeLockerStateDecoder.decode(bytes));
+    }
+
+    @Test
+    void missingColumnReadsAsZero() {
+        // A server without maintMarginReq: every later column moves one to the left
+        List<String> columns = COLUMNS.stream().filter(id -> !"maintMarginReq".equals(id)).toList();
+        String state = """
+                {"s":"ok","d":{"accountDetailsData":[100250.5,100812.25,99210.0,0.0,100250.5,0.0,99210.0,0.0,0.0,1602.5,\
+                0.0,0.0,0.0,50.0,0.0,0.0,312.4,298.1,14.3,4.0,12,575.35,561.75,3,2]}}""";
+
+        TradeLockerColumnLayout layout = layout(columns);
+        TradeLockerAccountState accountState = layout.toAccountState(TradeLockerStateDecoder.decode(state.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(layout.indexOf("maintMarginReq")).isEqualTo(-1);
+        assertThat(accountState.getMaintMarginReq()).isZero();
+        assertThat(accountState.getOpenNetPnl()).isEqualTo(561.75);
+        assertThat(accountState.getPositionsCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shortRowReadsTrailingColumnsAsZero() {
+        String state = """
+                {"s":"ok","d":{"accountDetailsData":[100250.5,100812.25]}}""";
+
+        TradeLockerAccountState accountState = layout(COLUMNS).toAccountState(TradeLockerStateDecoder.decode(state.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(accountState.getBalance()).isEqualTo(100250.5);
+        assertThat(accountState.getProjectedBalance()).isEqualTo(100812.25);
+        assertThat(accountState.getOpenNetPnl()).isZero();
+        assertThat(accountState.getPositionsCount()).isZero();
+    }
+
+    @Test
+    void nullStringAndNestedCells() {
+        String state = """
+                {"meta":{"rows":[1,2]},"d":{"other":[[1]],"accountDetailsData":[null,"12.5","n/a",{"x":1},[2],7]},"s":"ok"}""";
+
+        double[] row = TradeLockerStateDecoder.decode(state.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(row).hasSize(6);
+        assertThat(row[0]).isNaN();
+        assertThat(row[1]).isEqualTo(12.5);
+        assertThat(row[2]).isNaN();
+        assertThat(row[3]).isNaN();
+        assertThat(row[4]).isNaN();
+        assertThat(row[5]).isEqualTo(7.0);
+    }
+
+    @Test
+    void responseWithoutTheRowFails() {
+        byte[] state = """
+                {"s":"error","errmsg":"Account not found"}""".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> TradeLockerStateDecoder.decode(state))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasRootCauseMessage("No d.accountDetailsData in response");
+    }
+
+    private static TradeLockerColumnLayout layout(final List<String> columns) {
+        String config = "{\"s\":\"ok\",\"d\":{\"accountDetailsConfig\":{\"id\":\"accountDetails\",\"title\":\"Account Details\",\"columns\":["
+                + columns.stream().map(id -> "{\"id\":\"" + id + "\",\"description\":\"" + id + "\"}").collect(Collectors.joining(","))
+                + "]}}}";
+        try {
+            return TradeLockerColumnLayout.from(OBJECT_MAPPER.readValue(config, AccountDetailsConfigDto.class));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.fusionfx.monolith.service.history;
+
+import com.fusionfx.monolith.dto.EquityCurveDto;
+import com.fusionfx.monolith.enums.SnapshotResolution;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Max drawdown and daily loss of the curve builder over buckets spanning several UTC days.
+ */
+class EquityCurveServiceTest {
+
+    private static final String ACCOUNT_ID = "account-1";
+
+    @Test
+    void drawdownAndDailyLossAcrossDayBoundaries() {
+        var curve = new EquityCurveService.CurveBuilder();
+        //                                 time                    equity min   max
+        curve.add(bucket("2026-01-01T10:00:00Z", 1000, 990, 1010)); // Day 1 opens at 1000: loss 10
+        curve.add(bucket("2026-01-01T22:00:00Z", 1050, 1020, 1100)); // Peak 1100, day 1 closes at 1050
+        curve.add(bucket("2026-01-02T01:00:00Z", 980, 950, 1060));   // Drawdown 150 from 1100, daily loss 100 from 1050
+        curve.add(bucket("2026-01-03T00:00:00Z", 1200, 1150, 1210)); // Day 3 opens at day 2's close 980, new peak 1210
+        curve.add(bucket("2026-01-03T08:00:00Z", 1100, 1000, 1180)); // Drawdown 210 from 1210, but above 980: no daily loss
+
+        EquityCurveDto result = curve.build(ACCOUNT_ID, SnapshotResolution.HOUR, 1);
+
+        assertThat(result.getTimestamps()).hasSize(5);
+        assertThat(result.getMaxDrawdown()).isEqualTo(210.0);
+        assertThat(result.getMaxDrawdownPercent()).isCloseTo(210.0 / 1210 * 100, within(1e-9));
+        assertThat(result.getMaxDailyLoss()).isEqualTo(100.0);
+        assertThat(result.getMaxDailyLossPercent()).isCloseTo(100.0 / 1050 * 100, within(1e-9));
+    }
+
+    @Test
+    void dayStartsAtThePreviousCloseEvenAfterAGap() {
+        var curve = new EquityCurveService.CurveBuilder();
+        curve.add(bucket("2026-01-01T23:00:00Z", 1000, 1000, 1000));
+        curve.add(bucket("2026-01-05T00:00:00Z", 900, 880, 920)); // No buckets for three days: measured from 1000
+
+        EquityCurveDto result = curve.build(ACCOUNT_ID, SnapshotResolution.HOUR, 1);
+
+        assertThat(result.getMaxDailyLoss()).isEqualTo(120.0);
+        assertThat(result.getMaxDrawdown()).isEqualTo(120.0);
+    }
+
+    @Test
+    void peakOfTheSameBucketIsNotADrawdown() {
+        // Within a bucket the order of min and max is unknown, so only earlier peaks count
+        var curve = new EquityCurveService.CurveBuilder();
+        curve.add(bucket("2026-01-01T10:00:00Z", 1000, 900, 1100));
+
+        EquityCurveDto result = curve.build(ACCOUNT_ID, SnapshotResolution.HOUR, 1);
+
+        assertThat(result.getMaxDrawdown()).isZero();
+        assertThat(result.getMaxDailyLoss()).isEqualTo(100.0); // From the day's opening equity
+    }
+
+    @Test
+    void emptyCurveAndGrowingArrays() {
+        assertThat(new EquityCurveService.CurveBuilder().build(ACCOUNT_ID, SnapshotResolution.MINUTE, 5))
+                .satisfies(empty -> {
+                    assertThat(empty.getTimestamps()).isEmpty();
+                    assertThat(empty.getEquity()).isEmpty();
+                    assertThat(empty.getMaxDrawdown()).isZero();
+                    assertThat(empty.getMaxDailyLoss()).isZero();
+                });
+
+        var curve = new EquityCurveService.CurveBuilder();
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < 200; i++) {
+            curve.add(new Document("_id", Date.from(start.plusSeconds(60L * i)))
+                    .append("equity", 1000 + i)        // Integers, as $last returns them for whole numbers
+                    .append("equityMin", 1000 + i)
+                    .append("equityMax", 1000L + i)
+                    .append("balance", 1000));
+        }
+
+        EquityCurveDto result = curve.build(ACCOUNT_ID, SnapshotResolution.MINUTE, 1);
+        assertThat(result.getTimestamps()).hasSize(200);
+        assertThat(result.getEquity()[199]).isEqualTo(1199.0);
+        assertThat(result.getBalance()[199]).isEqualTo(1000.0);
+        assertThat(result.getMaxDrawdown()).isZero();
+    }
+
+    private static Document bucket(final String time, final double equity, final double equityMin, final double equityMax) {
+        return new Document("_id", Date.from(Instant.parse(time)))
+                .append("equity", equity)
+                .append("equityMin", equityMin)
+                .append("equityMax", equityMax)
+                .append("balance", 1000.0);
+    }
+
+}